@@ -0,0 +1,59 @@
+package org.omnimc.lumina.benchmark;
+
+import org.omnimc.lumina.mcmap.McMap;
+import org.omnimc.lumina.mcmap.file.FileFactory;
+import org.omnimc.lumina.testing.SyntheticMappings;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The datasets shared by every benchmark.
+ * <p>
+ * Everything comes from {@link SyntheticMappings} with its default seed, so the benchmarks never depend on a download
+ * or a local copy of Mojang's mappings, and every run measures the same data.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+        throw new UnsupportedOperationException("BenchmarkData cannot be instantiated");
+    }
+
+    static SyntheticMappings generator(int classCount) {
+        return SyntheticMappings.of(classCount);
+    }
+
+    /**
+     * Writes the generated mappings to a temporary {@link McMap} file, which is deleted when the JVM exits.
+     */
+    static File writeMcMap(SyntheticMappings generator, McMap.Version version) {
+        File file = tempFile(version);
+        new FileFactory(generator.mappings(), file, version).writeFile();
+        return file;
+    }
+
+    static File tempFile(McMap.Version version) {
+        try {
+            File file = File.createTempFile("lumina-" + version, ".mcmap");
+            file.deleteOnExit();
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The index of a class with a typical amount of members, the first classes include the huge ones.
+     */
+    static int typicalClass(SyntheticMappings generator) {
+        int index = generator.getClassCount() / 2;
+        while (generator.isHuge(index)) {
+            index++;
+        }
+        return index;
+    }
+}
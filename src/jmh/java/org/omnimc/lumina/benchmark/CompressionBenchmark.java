@@ -0,0 +1,51 @@
+package org.omnimc.lumina.benchmark;
+
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.mcmap.lz4.MappingCompressor;
+import org.omnimc.lumina.mcmap.lz4.MappingDecompressor;
+import org.omnimc.lumina.testing.SyntheticMappings;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures compressing a single class with {@link MappingCompressor}, and decompressing it again with {@link MappingDecompressor}.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CompressionBenchmark {
+
+    private final MappingDecompressor decompressor = new MappingDecompressor();
+
+    private ClassData classData;
+
+    private byte[] compressed;
+    private int uncompressedLength;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticMappings generator = BenchmarkData.generator(100);
+        classData = generator.mappings().getClass(generator.getObfuscatedName(BenchmarkData.typicalClass(generator)));
+
+        MappingCompressor compressor = new MappingCompressor(classData);
+        compressed = compressor.getCompressedMethods();
+        uncompressedLength = compressor.getUncompressedMethodLength();
+    }
+
+    @Benchmark
+    public void compress(Blackhole blackhole) {
+        MappingCompressor compressor = new MappingCompressor(classData);
+        blackhole.consume(compressor.getCompressedFields());
+        blackhole.consume(compressor.getCompressedMethods());
+    }
+
+    @Benchmark
+    public byte[] decompress() {
+        return decompressor.decompress(compressed, uncompressedLength);
+    }
+}
@@ -0,0 +1,49 @@
+package org.omnimc.lumina.benchmark;
+
+import org.omnimc.lumina.data.Mappings;
+import org.omnimc.lumina.mcmap.McMap;
+import org.omnimc.lumina.mcmap.file.FileFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the {@code EntryBlocks} of an {@link McMap}, which compresses every class, and writing them with {@link FileFactory#writeFile()}.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FileFactoryBenchmark {
+
+    @Param({"V1", "V2"})
+    public McMap.Version version;
+
+    @Param({"1000", "10000"})
+    public int classCount;
+
+    private Mappings mappings;
+    private File file;
+    private FileFactory factory;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        mappings = BenchmarkData.generator(classCount).mappings();
+        file = BenchmarkData.tempFile(version);
+        factory = new FileFactory(mappings, file, version);
+    }
+
+    @Benchmark
+    public FileFactory populateEntries() {
+        return new FileFactory(mappings, file, version);
+    }
+
+    @Benchmark
+    public long writeFile() {
+        factory.writeFile();
+        return file.length();
+    }
+}
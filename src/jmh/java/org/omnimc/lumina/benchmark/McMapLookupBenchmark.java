@@ -0,0 +1,96 @@
+package org.omnimc.lumina.benchmark;
+
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.mcmap.McMap;
+import org.omnimc.lumina.testing.SyntheticMappings;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link McMap#getClassData(String)} for a class that is already cached, a class that has to be decoded and a class that does not exist.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class McMapLookupBenchmark {
+
+    @Param({"V1", "V2"})
+    public McMap.Version version;
+
+    @Param({"10000"})
+    public int classCount;
+
+    private File file;
+    private McMap warmMap;
+
+    private String hitName;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        SyntheticMappings generator = BenchmarkData.generator(classCount);
+        file = BenchmarkData.writeMcMap(generator, version);
+        hitName = generator.getObfuscatedName(BenchmarkData.typicalClass(generator));
+
+        warmMap = new McMap(file);
+        warmMap.getClassData(hitName);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        warmMap.close();
+    }
+
+    @Benchmark
+    public ClassData hitCached() throws IOException {
+        return warmMap.getClassData(hitName);
+    }
+
+    @Benchmark
+    public ClassData miss() throws IOException {
+        return warmMap.getClassData("does/not/Exist");
+    }
+
+    /**
+     * Every invocation gets a freshly opened {@link McMap}, so the class is always decoded.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 200)
+    @Measurement(iterations = 1000)
+    public ClassData hitCold(ColdMap cold) throws IOException {
+        return cold.map.getClassData(hitName);
+    }
+
+    /**
+     * Like {@link #hitCold(ColdMap)} but only the fields are populated, {@link McMap.Version#V1} still has to decode everything.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 200)
+    @Measurement(iterations = 1000)
+    public ClassData hitColdFields(ColdMap cold) throws IOException {
+        return cold.map.getClassData(hitName, McMap.Population.FIELD);
+    }
+
+    @State(Scope.Thread)
+    public static class ColdMap {
+
+        McMap map;
+
+        @Setup(Level.Invocation)
+        public void open(McMapLookupBenchmark benchmark) throws IOException {
+            map = new McMap(benchmark.file);
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() throws IOException {
+            map.close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.omnimc.lumina.benchmark;
+
+import org.omnimc.lumina.mcmap.McMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures opening an {@link McMap}, which reads every {@code EntryBlock} header, and decoding the whole file with {@link McMap#loadAllClassData()}.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class McMapOpenBenchmark {
+
+    @Param({"V1", "V2"})
+    public McMap.Version version;
+
+    @Param({"1000", "10000"})
+    public int classCount;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        file = BenchmarkData.writeMcMap(BenchmarkData.generator(classCount), version);
+    }
+
+    @Benchmark
+    public McMap.Version open() throws IOException {
+        try (McMap map = new McMap(file)) {
+            return map.getVersion();
+        }
+    }
+
+    @Benchmark
+    public int loadAllClassData() throws IOException {
+        try (McMap map = new McMap(file)) {
+            map.loadAllClassData();
+            return map.getMappings().getClasses().size();
+        }
+    }
+}
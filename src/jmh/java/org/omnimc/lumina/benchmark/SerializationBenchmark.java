@@ -0,0 +1,91 @@
+package org.omnimc.lumina.benchmark;
+
+import org.omnimc.lumina.data.Mappings;
+import org.omnimc.lumina.data.deserialization.compressed.CompressedDeserializer;
+import org.omnimc.lumina.data.serialization.LineSerializer;
+import org.omnimc.lumina.data.serialization.compressed.CompressedLineSerializer;
+import org.omnimc.lumina.data.serialization.proguard.ProguardLineSerializer;
+import org.omnimc.lumina.data.serialization.proguard.ProguardParser;
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.testing.SyntheticMappings;
+import org.omnimc.lumina.util.SerializationHelper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a Proguard mapping, and decoding the compressed line format used inside an {@link org.omnimc.lumina.mcmap.McMap}.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"1000"})
+    public int classCount;
+
+    private byte[] proguard;
+    private LineSerializer proguardStringSerializer;
+
+    private ByteBuffer classLines;
+    private int classLinesLength;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticMappings generator = BenchmarkData.generator(classCount);
+        proguard = generator.proguard();
+        proguardStringSerializer = stringOnly(new ProguardLineSerializer());
+
+        Mappings mappings = ProguardParser.parse(ByteBuffer.wrap(proguard));
+        ClassData classData = mappings.getClass(generator.getObfuscatedName(BenchmarkData.typicalClass(generator)));
+
+        byte[] lines = CompressedDeserializer.getInstance().deserializeClassData(classData).getBytes(StandardCharsets.UTF_8);
+        classLines = ByteBuffer.wrap(lines);
+        classLinesLength = lines.length;
+    }
+
+    @Benchmark
+    public Mappings proguardLineSerializer() {
+        return SerializationHelper.getMappingsFromInputStream(new ByteArrayInputStream(proguard), proguardStringSerializer, new Mappings());
+    }
+
+    @Benchmark
+    public Mappings proguardParser() {
+        return ProguardParser.parse(ByteBuffer.wrap(proguard));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ClassData compressedLineSerializer() {
+        return SerializationHelper.populateClassData(classLines, 0, classLinesLength, new CompressedLineSerializer(), new ClassData("benchmark"));
+    }
+
+    /**
+     * Hides that {@code serializer} is also a {@link org.omnimc.lumina.data.serialization.SpanLineSerializer}, otherwise {@link SerializationHelper}
+     * hands it byte spans and {@link #proguardLineSerializer()} would measure the same path as {@link #proguardParser()}.
+     */
+    private static LineSerializer stringOnly(LineSerializer serializer) {
+        return new LineSerializer() {
+            @Override
+            public boolean serialize(String line, Mappings mappings) {
+                return serializer.serialize(line, mappings);
+            }
+
+            @Override
+            public boolean serializeFields(String line, ClassData classData) {
+                return serializer.serializeFields(line, classData);
+            }
+
+            @Override
+            public boolean serializeMethods(String line, ClassData classData) {
+                return serializer.serializeMethods(line, classData);
+            }
+        };
+    }
+}
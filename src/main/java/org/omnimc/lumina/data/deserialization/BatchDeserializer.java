@@ -55,4 +55,12 @@ public interface BatchDeserializer {
      */
     String deserializeFieldData(Map<String, FieldData> fields);
 
+    /**
+     * This deserializes the parameters of every {@link MethodData} in the map, methods without parameters are left out.
+     *
+     * @param methods The {@link Map} with (obfuscatedName, {@link MethodData}) in that format.
+     * @return A {@link String} with all {@link org.omnimc.lumina.data.types.ParameterData} information.
+     */
+    String deserializeParameterData(Map<String, MethodData> methods);
+
 }
\ No newline at end of file
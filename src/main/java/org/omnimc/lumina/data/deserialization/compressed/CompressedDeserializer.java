@@ -5,6 +5,7 @@ import org.omnimc.lumina.data.deserialization.BatchDeserializer;
 import org.omnimc.lumina.data.types.ClassData;
 import org.omnimc.lumina.data.types.FieldData;
 import org.omnimc.lumina.data.types.MethodData;
+import org.omnimc.lumina.data.types.ParameterData;
 import org.omnimc.lumina.mcmap.McMap;
 
 import java.io.File;
@@ -28,6 +29,7 @@ public class CompressedDeserializer implements BatchDeserializer {
 
     private static final String METHOD_PREFIX = "m";
     private static final String FIELD_PREFIX = "f";
+    private static final String PARAMETER_PREFIX = "p";
 
     public static CompressedDeserializer getInstance() {
         return new CompressedDeserializer();
@@ -111,4 +113,36 @@ public class CompressedDeserializer implements BatchDeserializer {
 
         return builder.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Every parameter is written as {@code p methodKey:index:parameterName}, where {@code methodKey} is the key of the method in the map.
+     *
+     * @param methods The {@link Map} with (obfuscatedName, {@link MethodData}) in that format.
+     * @return A {@link String} with all {@link ParameterData} information.
+     */
+    @Override
+    public String deserializeParameterData(Map<String, MethodData> methods) {
+        if (methods.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder builder = new StringBuilder();
+
+        for (Map.Entry<String, MethodData> entry : methods.entrySet()) {
+            for (ParameterData parameter : entry.getValue().getParameters().values()) {
+                builder.append(PARAMETER_PREFIX)
+                        .append(" ")
+                        .append(entry.getKey())
+                        .append(":")
+                        .append(parameter.getIndex())
+                        .append(":")
+                        .append(parameter.getParameterName())
+                        .append("\n");
+            }
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.omnimc.lumina.data.serialization;
+
+import org.omnimc.lumina.util.SerializationHelper;
+
+/**
+ * Receives every line that failed to parse, instead of them being printed.
+ *
+ * @author <b><a href=https://github.com/CadenCCC>Caden</a></b>
+ * @see SerializationHelper#setDefaultErrorSink(ParseErrorSink)
+ * @since 2.0.0
+ */
+@FunctionalInterface
+public interface ParseErrorSink {
+
+    /**
+     * Prints every error to {@link System#out}, this is the default.
+     */
+    ParseErrorSink STANDARD_OUT = error -> System.out.println(error);
+
+    /**
+     * Drops every error.
+     */
+    ParseErrorSink IGNORE = error -> {
+    };
+
+    void onError(ParseError error);
+}
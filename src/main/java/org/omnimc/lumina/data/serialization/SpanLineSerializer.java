@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024-2025 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.lumina.data.serialization;
+
+import org.omnimc.lumina.data.Mappings;
+import org.omnimc.lumina.data.types.ClassData;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A companion to {@link LineSerializer} that parses a line straight from a span of UTF-8 bytes.
+ * <p>
+ * A line is given as {@code (buffer, offset, length)} and never includes its line terminator. Implementations must only use
+ * absolute gets on the buffer, and should only create {@link String}s for the names they add to the {@link Mappings} or {@link ClassData}.
+ * This keeps the line loop free of allocations apart from those final names.
+ *
+ * @author <b><a href=https://github.com/CadenCCC>Caden</a></b>
+ * @see org.omnimc.lumina.util.SerializationHelper
+ * @since 2.0.0
+ */
+public interface SpanLineSerializer {
+
+    /**
+     * This method serializes all different types of lines, this can include fields methods and classes.
+     *
+     * @param buffer   The buffer that contains the line.
+     * @param offset   The absolute index of the first byte of the line.
+     * @param length   The amount of bytes in the line.
+     * @param mappings The {@link Mappings} you wish to populate with the data provided.
+     * @return {@code true} meaning it passed, while {@code false} means you failed.
+     */
+    boolean serialize(ByteBuffer buffer, int offset, int length, Mappings mappings);
+
+    /**
+     * This method serializes only fields, any other line is skipped.
+     *
+     * @param buffer    The buffer that contains the line.
+     * @param offset    The absolute index of the first byte of the line.
+     * @param length    The amount of bytes in the line.
+     * @param classData The {@link ClassData} you wish to populate with the data provided.
+     * @return {@code true} meaning it passed, while {@code false} means you failed.
+     */
+    boolean serializeFields(ByteBuffer buffer, int offset, int length, ClassData classData);
+
+    /**
+     * This method serializes only methods, any other line is skipped.
+     *
+     * @param buffer    The buffer that contains the line.
+     * @param offset    The absolute index of the first byte of the line.
+     * @param length    The amount of bytes in the line.
+     * @param classData The {@link ClassData} you wish to populate with the data provided.
+     * @return {@code true} meaning it passed, while {@code false} means you failed.
+     */
+    boolean serializeMethods(ByteBuffer buffer, int offset, int length, ClassData classData);
+
+    /**
+     * This method serializes both fields and methods.
+     *
+     * @param buffer    The buffer that contains the line.
+     * @param offset    The absolute index of the first byte of the line.
+     * @param length    The amount of bytes in the line.
+     * @param classData The {@link ClassData} you wish to populate with the data provided.
+     * @return {@code true} meaning it passed, while {@code false} means you failed.
+     */
+    boolean serializeMembers(ByteBuffer buffer, int offset, int length, ClassData classData);
+
+    /**
+     * This method serializes only parameter names, and attaches them to the methods already in the {@link ClassData}.
+     * <p>
+     * Formats without parameter names can keep this default, which skips every line.
+     *
+     * @param buffer    The buffer that contains the line.
+     * @param offset    The absolute index of the first byte of the line.
+     * @param length    The amount of bytes in the line.
+     * @param classData The {@link ClassData} whose methods receive the parameters.
+     * @return {@code true} meaning it passed, while {@code false} means you failed.
+     */
+    default boolean serializeParameters(ByteBuffer buffer, int offset, int length, ClassData classData) {
+        return true;
+    }
+
+}
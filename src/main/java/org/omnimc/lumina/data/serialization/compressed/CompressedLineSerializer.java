@@ -27,7 +27,16 @@ package org.omnimc.lumina.data.serialization.compressed;
 import org.jetbrains.annotations.Nullable;
 import org.omnimc.lumina.data.Mappings;
 import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.data.types.MethodData;
 import org.omnimc.lumina.data.serialization.LineSerializer;
+import org.omnimc.lumina.data.serialization.SpanLineSerializer;
+
+import java.nio.ByteBuffer;
+
+import static org.omnimc.lumina.util.ByteSpans.decode;
+import static org.omnimc.lumina.util.ByteSpans.indexOf;
+import static org.omnimc.lumina.util.ByteSpans.trimEnd;
+import static org.omnimc.lumina.util.ByteSpans.trimStart;
 
 /**
  * A {@link LineSerializer} implementation for processing compressed mapping lines.
@@ -37,15 +46,19 @@ import org.omnimc.lumina.data.serialization.LineSerializer;
  *   <li>c: Maps obfuscated class names to de-obfuscated names.</li>
  *   <li>f: Maps obfuscated field names to de-obfuscated names, tied to a parent class.</li>
  *   <li>m: Maps obfuscated method names to de-obfuscated names, tied to a parent class.</li>
+ *   <li>p: Names the parameter of a method, as {@code p METHOD_KEY:INDEX:NAME}. These only live in their own section.</li>
  * </ul>
  *
  * <p>Lines must follow the format: {@code TYPE OBFUSCATED_NAME:DEOBFUSCATED_NAME}.</p>
  *
+ * <p>It also implements {@link SpanLineSerializer}, which parses the same format straight from bytes
+ * and only allocates the two names of each line.</p>
+ *
  * @author <b><a href=https://github.com/CadenCCC>Caden</a></b>
  * @see LineSerializer
  * @since 1.0.0
  */
-public class CompressedLineSerializer implements LineSerializer {
+public class CompressedLineSerializer implements LineSerializer, SpanLineSerializer {
 
     /**
      * Retrieves an instance of {@link CompressedLineSerializer}.
@@ -153,6 +166,159 @@ public class CompressedLineSerializer implements LineSerializer {
         return true;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean serialize(ByteBuffer buffer, int offset, int length, Mappings mappings) {
+        int end = offset + length;
+        int start = trimStart(buffer, offset, end);
+        if (start == trimEnd(buffer, start, end)) {
+            return false;
+        }
+
+        int colon = getColon(buffer, start, end);
+        String obfuscatedName = decode(buffer, trimStart(buffer, start + 1, colon), trimEnd(buffer, start + 1, colon));
+        String unObfuscatedName = decode(buffer, trimStart(buffer, colon + 1, end), trimEnd(buffer, colon + 1, end));
+
+        switch (buffer.get(start) | 0x20) { // Lowercase ASCII.
+            case 'c' -> {
+                parentClass = obfuscatedName;
+                classData = mappings.addClass(obfuscatedName, unObfuscatedName);
+            }
+            case 'f' -> {
+                if (parentClass == null) {
+                    throw new RuntimeException("FIELD entry without a parent class: " + decode(buffer, offset, end));
+                }
+                // Descriptor is empty because it's included in the obfuscatedName;
+                classData.addField(obfuscatedName, unObfuscatedName, "");
+            }
+            case 'm' -> {
+                if (parentClass == null) {
+                    throw new RuntimeException("METHOD entry without a parent class: " + decode(buffer, offset, end));
+                }
+                // Descriptor is empty because it's included in the obfuscatedName;
+                classData.addMethod(obfuscatedName, unObfuscatedName, "");
+            }
+            default -> throw new UnsupportedOperationException("Unsupported type: " + (char) buffer.get(start));
+        }
+
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean serializeFields(ByteBuffer buffer, int offset, int length, ClassData classData) {
+        return serializeMember(buffer, offset, length, classData, true, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean serializeMethods(ByteBuffer buffer, int offset, int length, ClassData classData) {
+        return serializeMember(buffer, offset, length, classData, false, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean serializeMembers(ByteBuffer buffer, int offset, int length, ClassData classData) {
+        return serializeMember(buffer, offset, length, classData, true, true);
+    }
+
+    private boolean serializeMember(ByteBuffer buffer, int offset, int length, ClassData classData, boolean fields, boolean methods) {
+        int end = offset + length;
+        int start = trimStart(buffer, offset, end);
+        if (start == trimEnd(buffer, start, end)) {
+            return true;
+        }
+
+        int type = buffer.get(start) | 0x20; // Lowercase ASCII.
+        boolean field = type == 'f' && fields;
+        boolean method = type == 'm' && methods;
+        if (!field && !method) {
+            return true;
+        }
+
+        int colon = getColon(buffer, start, end);
+        String obfuscatedName = decode(buffer, trimStart(buffer, start + 1, colon), trimEnd(buffer, start + 1, colon));
+        String unObfuscatedName = decode(buffer, trimStart(buffer, colon + 1, end), trimEnd(buffer, colon + 1, end));
+
+        if (field) {
+            classData.addField(obfuscatedName, unObfuscatedName, "");
+        } else {
+            classData.addMethod(obfuscatedName, unObfuscatedName, "");
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A parameter line is keyed like its method, and is attached to the public or private method with that key.
+     * Parameters of methods that are not in the {@link ClassData} (for example because only the parameter section was decoded) are skipped.
+     */
+    @Override
+    public boolean serializeParameters(ByteBuffer buffer, int offset, int length, ClassData classData) {
+        int end = offset + length;
+        int start = trimStart(buffer, offset, end);
+        if (start == trimEnd(buffer, start, end) || (buffer.get(start) | 0x20) != 'p') {
+            return true;
+        }
+
+        int colon = getColon(buffer, start, end);
+        int indexColon = indexOf(buffer, colon + 1, end, (byte) ':');
+        if (indexColon == -1) {
+            throw new UnsupportedOperationException("Invalid parameter format: " + decode(buffer, start + 2, end));
+        }
+
+        String methodKey = decode(buffer, trimStart(buffer, start + 1, colon), trimEnd(buffer, start + 1, colon));
+        // Looked up in the maps directly, ClassData#getMethod never returns null and would hand back a detached MethodData.
+        MethodData methodData = classData.getMethods().get(methodKey);
+        if (methodData == null) {
+            methodData = classData.getPrivateMethods().get(methodKey);
+        }
+        if (methodData == null) {
+            return true;
+        }
+
+        int index = parseIndex(buffer, trimStart(buffer, colon + 1, indexColon), trimEnd(buffer, colon + 1, indexColon));
+        methodData.addParameter(index, decode(buffer, trimStart(buffer, indexColon + 1, end), trimEnd(buffer, indexColon + 1, end)));
+        return true;
+    }
+
+    private static int parseIndex(ByteBuffer buffer, int start, int end) {
+        if (start == end) {
+            throw new UnsupportedOperationException("Missing parameter index");
+        }
+
+        int index = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new UnsupportedOperationException("Invalid parameter index: " + decode(buffer, start, end));
+            }
+            index = index * 10 + digit;
+        }
+        return index;
+    }
+
+    private static int getColon(ByteBuffer buffer, int start, int end) {
+        if (start + 1 >= end || buffer.get(start + 1) != ' ') {
+            throw new UnsupportedOperationException("Invalid line format: missing type and value");
+        }
+
+        int colon = indexOf(buffer, start + 2, end, (byte) ':');
+        if (colon == -1) {
+            throw new UnsupportedOperationException("Invalid value format: " + decode(buffer, start + 2, end));
+        }
+        return colon;
+    }
+
     @Nullable
     private Result getResult(String line, String typeIndicator) {
         if (line == null || line.isBlank()) {
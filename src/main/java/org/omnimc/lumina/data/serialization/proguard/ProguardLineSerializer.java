@@ -2,13 +2,20 @@ package org.omnimc.lumina.data.serialization.proguard;
 
 import org.omnimc.lumina.data.Mappings;
 import org.omnimc.lumina.data.serialization.LineSerializer;
+import org.omnimc.lumina.data.serialization.SpanLineSerializer;
 import org.omnimc.lumina.data.types.ClassData;
 
+import java.nio.ByteBuffer;
+
 /**
+ * The span based methods are backed by a {@link ProguardParser}, so they never decode a line into a {@link String}.
+ *
  * @author <a href=https://github.com/CadenCCC>Caden</a>
  * @since 2.0.0
  */
-public class ProguardLineSerializer implements LineSerializer {
+public class ProguardLineSerializer implements LineSerializer, SpanLineSerializer {
+
+    private ProguardParser spanParser;
 
     private String previousClass;
 
@@ -74,6 +81,33 @@ public class ProguardLineSerializer implements LineSerializer {
         return parseClassMemberMapping(trimmedEntry, true, false);
     }
 
+    @Override
+    public boolean serialize(ByteBuffer buffer, int offset, int length, Mappings mappings) {
+        return getSpanParser(mappings).parseLine(buffer, offset, offset + length);
+    }
+
+    @Override
+    public boolean serializeFields(ByteBuffer buffer, int offset, int length, ClassData classData) {
+        return getSpanParser(null).parseLine(buffer, offset, offset + length, classData, true, false);
+    }
+
+    @Override
+    public boolean serializeMethods(ByteBuffer buffer, int offset, int length, ClassData classData) {
+        return getSpanParser(null).parseLine(buffer, offset, offset + length, classData, false, true);
+    }
+
+    @Override
+    public boolean serializeMembers(ByteBuffer buffer, int offset, int length, ClassData classData) {
+        return getSpanParser(null).parseLine(buffer, offset, offset + length, classData, true, true);
+    }
+
+    private ProguardParser getSpanParser(Mappings mappings) {
+        if (spanParser == null || (mappings != null && spanParser.getMappings() != mappings)) {
+            spanParser = new ProguardParser(mappings == null ? new Mappings() : mappings);
+        }
+        return spanParser;
+    }
+
     private boolean parseClassMemberMapping(String line, boolean ignoreField, boolean ignoreMethod) {
         int arrow = line.indexOf("->");
         int firstSpace = line.indexOf(" ");
@@ -186,6 +220,7 @@ public class ProguardLineSerializer implements LineSerializer {
             case "float" -> brackets + "F";
             case "int" -> brackets + "I";
             case "long" -> brackets + "J";
+            case "short" -> brackets + "S";
             case "void" -> "V";
             default -> brackets + "L" + input + ";";
         };
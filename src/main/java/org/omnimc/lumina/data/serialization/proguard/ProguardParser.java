@@ -0,0 +1,605 @@
+package org.omnimc.lumina.data.serialization.proguard;
+
+import org.omnimc.lumina.data.Mappings;
+import org.omnimc.lumina.data.types.ClassData;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.omnimc.lumina.util.ByteSpans.decode;
+import static org.omnimc.lumina.util.ByteSpans.indexOf;
+import static org.omnimc.lumina.util.ByteSpans.isWhitespace;
+import static org.omnimc.lumina.util.ByteSpans.trimEnd;
+import static org.omnimc.lumina.util.ByteSpans.trimStart;
+
+/**
+ * A hand-written Proguard mapping parser that works directly on UTF-8 bytes.
+ * <p>
+ * Unlike {@link ProguardLineSerializer} this never decodes a line into a {@link String}, and it uses no regular expressions.
+ * Lines are scanned in place from a {@link ByteBuffer} (usually a memory-mapped file), and only the final names are turned into {@link String}s.
+ * <p>
+ * Java types are converted to descriptors through a byte-keyed cache, so each distinct type (and each distinct argument list)
+ * is only converted once per parser.
+ * <p>
+ * The format of a Proguard mapping looks like this:
+ * <pre><code>
+ * net.minecraft.client.Camera -> fjx:
+ *     float partialTickTime -> a
+ *     1:5:void tick(int,java.lang.String[]) -> b
+ * </code></pre>
+ * <p>
+ * Every delimiter is plain ASCII, which is why scanning UTF-8 bytes is safe; a multibyte sequence never contains an ASCII byte.
+ * <p>
+ * A {@link ProguardParser} is not thread-safe, use one per thread. {@link #parseParallel(ByteBuffer, int)} does exactly that.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public final class ProguardParser {
+
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+    private final Mappings mappings;
+
+    private final DescriptorCache typeCache = new DescriptorCache();
+    private final DescriptorCache argumentCache = new DescriptorCache();
+
+    private byte[] scratch = new byte[256];
+
+    private ClassData currentClassData;
+
+    /**
+     * Creates a {@link ProguardParser} that populates the given {@link Mappings}.
+     *
+     * @param mappings The {@link Mappings} every parsed class is added to.
+     */
+    public ProguardParser(Mappings mappings) {
+        this.mappings = mappings;
+    }
+
+    /**
+     * Memory-maps and parses a Proguard mapping file.
+     *
+     * @param file The Proguard mapping file.
+     * @return A {@link Mappings} populated with everything in the file.
+     */
+    public static Mappings parse(File file) {
+        return parse(map(file));
+    }
+
+    /**
+     * Parses a Proguard mapping from a {@link ByteBuffer}, between its position and limit.
+     *
+     * @param buffer The buffer that contains the mapping, it is not modified.
+     * @return A {@link Mappings} populated with everything in the buffer.
+     */
+    public static Mappings parse(ByteBuffer buffer) {
+        Mappings mappings = new Mappings();
+        new ProguardParser(mappings).parse(buffer, buffer.position(), buffer.limit());
+        return mappings;
+    }
+
+    /**
+     * Reads an entire {@link InputStream} and parses it as a Proguard mapping.
+     *
+     * @param stream The {@link InputStream} that contains the mapping, it is closed once read.
+     * @return A {@link Mappings} populated with everything in the stream.
+     */
+    public static Mappings parse(InputStream stream) {
+        try (stream) {
+            return parse(ByteBuffer.wrap(stream.readAllBytes()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the Proguard mapping.", e);
+        }
+    }
+
+    /**
+     * Memory-maps a Proguard mapping file and parses it on every available core.
+     *
+     * @param file The Proguard mapping file.
+     * @return A {@link Mappings} populated with everything in the file.
+     * @see #parseParallel(ByteBuffer, int)
+     */
+    public static Mappings parseParallel(File file) {
+        return parseParallel(map(file), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Parses a Proguard mapping concurrently.
+     * <p>
+     * A Proguard mapping is a list of independent class sections, each starting with a non-indented {@code a -> b:} line.
+     * The buffer is cut into chunks at those class headers, every chunk is parsed into its own partial {@link Mappings} by its own
+     * {@link ProguardParser}, and the partial {@link Mappings} are merged once all of them are done.
+     *
+     * @param buffer      The buffer that contains the mapping between its position and limit, it is only read with absolute gets.
+     * @param parallelism The amount of threads to parse with.
+     * @return A {@link Mappings} populated with everything in the buffer.
+     */
+    public static Mappings parseParallel(ByteBuffer buffer, int parallelism) {
+        int start = buffer.position();
+        int end = buffer.limit();
+
+        int chunkCount = Math.max(1, Math.min(parallelism * CHUNKS_PER_THREAD, (end - start) / MIN_CHUNK_SIZE));
+        if (parallelism <= 1 || chunkCount == 1) {
+            return parse(buffer);
+        }
+
+        int[] boundaries = new int[chunkCount + 1];
+        boundaries[0] = start;
+        boundaries[chunkCount] = end;
+        for (int i = 1; i < chunkCount; i++) {
+            long target = start + (long) (end - start) * i / chunkCount;
+            boundaries[i] = nextClassHeader(buffer, Math.max((int) target, boundaries[i - 1]), end);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "Lumina-Proguard-Parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<Mappings>> partials = new ArrayList<>(chunkCount);
+            for (int i = 0; i < chunkCount; i++) {
+                int chunkStart = boundaries[i];
+                int chunkEnd = boundaries[i + 1];
+                partials.add(executor.submit(() -> new ProguardParser(new Mappings()).parse(buffer, chunkStart, chunkEnd)));
+            }
+
+            Mappings mappings = new Mappings();
+            for (Future<Mappings> partial : partials) {
+                merge(mappings, partial.get());
+            }
+            return mappings;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while parsing the Proguard mapping.", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to parse the Proguard mapping.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Memory-maps a file as read only.
+     *
+     * @param file The file to map.
+     * @return The {@link MappedByteBuffer} of the whole file.
+     */
+    public static MappedByteBuffer map(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map file: " + file, e);
+        }
+    }
+
+    /**
+     * Parses every line between {@code start} and {@code end}.
+     *
+     * @param buffer The buffer that contains the mapping, it is only read with absolute gets.
+     * @param start  The absolute index of the first byte.
+     * @param end    The absolute index after the last byte.
+     * @return The {@link Mappings} this parser populates.
+     */
+    public Mappings parse(ByteBuffer buffer, int start, int end) {
+        int lineStart = skipByteOrderMark(buffer, start, end);
+
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+
+            parseLine(buffer, lineStart, lineEnd);
+            lineStart = lineEnd + 1;
+        }
+
+        return mappings;
+    }
+
+    /**
+     * Parses a single line, the line must not contain its line terminator.
+     *
+     * @param buffer The buffer that contains the line.
+     * @param start  The absolute index of the first byte of the line.
+     * @param end    The absolute index after the last byte of the line.
+     * @return {@code true} if the line was parsed or skipped, {@code false} if it was malformed.
+     */
+    public boolean parseLine(ByteBuffer buffer, int start, int end) {
+        return parseLine(buffer, start, end, null, true, true);
+    }
+
+    /**
+     * Parses a single line into a single {@link ClassData} instead of the {@link Mappings}.
+     * <p>
+     * Class headers are not added, they only decide if the members after them belong to {@code target}.
+     * Members of any other class, and members of a kind that is not wanted, are skipped.
+     *
+     * @param target  The {@link ClassData} members are added to, or {@code null} to populate the {@link Mappings}.
+     * @param fields  If fields should be parsed.
+     * @param methods If methods should be parsed.
+     * @return {@code true} if the line was parsed or skipped, {@code false} if it was malformed.
+     */
+    boolean parseLine(ByteBuffer buffer, int start, int end, ClassData target, boolean fields, boolean methods) {
+        int comment = indexOf(buffer, start, end, (byte) '#');
+        if (comment != -1) {
+            end = comment;
+        }
+
+        boolean indented = start < end && isWhitespace(buffer.get(start));
+
+        start = trimStart(buffer, start, end);
+        end = trimEnd(buffer, start, end);
+
+        if (start == end) {
+            return true; // Skipping to next line.
+        }
+
+        if (!indented && buffer.get(end - 1) == ':') {
+            if (target == null) {
+                return parseClass(buffer, start, end - 1);
+            }
+            return matchClass(buffer, start, end - 1, target);
+        }
+
+        if (currentClassData == null) {
+            return target != null;
+        }
+
+        return parseMember(buffer, start, end, fields, methods);
+    }
+
+    /**
+     * @return The {@link Mappings} this parser populates.
+     */
+    public Mappings getMappings() {
+        return mappings;
+    }
+
+    /**
+     * Merges a partial {@link Mappings} into another, a class that shows up in both gets the members of both.
+     */
+    private static void merge(Mappings into, Mappings partial) {
+        for (Map.Entry<String, ClassData> entry : partial.getClasses().entrySet()) {
+            ClassData existing = into.getClass(entry.getKey());
+            if (existing == null) {
+                into.addClass(entry.getKey(), entry.getValue());
+                continue;
+            }
+
+            ClassData classData = entry.getValue();
+            classData.getFields().forEach(existing.getFields()::putIfAbsent);
+            classData.getMethods().forEach(existing.getMethods()::putIfAbsent);
+        }
+    }
+
+    /**
+     * Finds the start of the first class header line at or after {@code from}, which is a line that is neither indented nor a comment.
+     */
+    private static int nextClassHeader(ByteBuffer buffer, int from, int end) {
+        int lineStart = from;
+        if (lineStart > 0 && buffer.get(lineStart - 1) != '\n') {
+            lineStart = indexOf(buffer, lineStart, end, (byte) '\n');
+            if (lineStart == -1) {
+                return end;
+            }
+            lineStart++;
+        }
+
+        while (lineStart < end) {
+            byte first = buffer.get(lineStart);
+            if (!isWhitespace(first) && first != '#' && first != '\n') {
+                return lineStart;
+            }
+
+            int lineEnd = indexOf(buffer, lineStart, end, (byte) '\n');
+            if (lineEnd == -1) {
+                return end;
+            }
+            lineStart = lineEnd + 1;
+        }
+
+        return end;
+    }
+
+    private boolean parseClass(ByteBuffer buffer, int start, int end) {
+        int arrow = indexOfArrow(buffer, start, end);
+        if (arrow == -1) {
+            currentClassData = null;
+            return false;
+        }
+
+        String className = internalName(buffer, start, trimEnd(buffer, start, arrow));
+
+        int obfuscatedStart = trimStart(buffer, arrow + 2, end);
+        String obfuscatedName = internalName(buffer, obfuscatedStart, end);
+
+        ClassData classData = mappings.getClass(obfuscatedName);
+        if (classData == null) {
+            classData = mappings.addClass(obfuscatedName, new ClassData(className));
+        }
+
+        currentClassData = classData;
+        return true;
+    }
+
+    private boolean matchClass(ByteBuffer buffer, int start, int end, ClassData target) {
+        int arrow = indexOfArrow(buffer, start, end);
+        if (arrow == -1) {
+            currentClassData = null;
+            return false;
+        }
+
+        String className = internalName(buffer, start, trimEnd(buffer, start, arrow));
+        currentClassData = className.equals(target.getClassName()) ? target : null;
+        return true;
+    }
+
+    private boolean parseMember(ByteBuffer buffer, int start, int end, boolean fields, boolean methods) {
+        start = skipLineNumbers(buffer, start, end);
+
+        int typeEnd = start;
+        while (typeEnd < end && buffer.get(typeEnd) != ' ') {
+            typeEnd++;
+        }
+
+        int arrow = indexOfArrow(buffer, typeEnd, end);
+        if (typeEnd == end || arrow == -1) {
+            return false;
+        }
+
+        int nameStart = trimStart(buffer, typeEnd, arrow);
+        int nameEnd = trimEnd(buffer, nameStart, arrow);
+        if (nameStart == nameEnd) {
+            return false;
+        }
+
+        int paramStart = indexOf(buffer, nameStart, nameEnd, (byte) '(');
+        if (paramStart == -1 ? !fields : !methods) {
+            return true;
+        }
+
+        String obfuscatedName = decode(buffer, trimStart(buffer, arrow + 2, end), end);
+        String type = typeCache.get(buffer, start, typeEnd);
+        if (type == null) {
+            type = typeCache.put(buffer, start, typeEnd, toDescriptor(buffer, start, typeEnd));
+        }
+
+        if (paramStart == -1) {
+            currentClassData.addField(obfuscatedName, decode(buffer, nameStart, nameEnd), type);
+            return true;
+        }
+
+        int paramEnd = indexOf(buffer, paramStart, nameEnd, (byte) ')');
+        if (paramEnd == -1) {
+            return false;
+        }
+
+        String arguments = argumentCache.get(buffer, paramStart + 1, paramEnd);
+        if (arguments == null) {
+            arguments = argumentCache.put(buffer, paramStart + 1, paramEnd, toArgumentDescriptor(buffer, paramStart + 1, paramEnd));
+        }
+
+        String methodName = decode(buffer, nameStart, trimEnd(buffer, nameStart, paramStart));
+        currentClassData.addMethod(obfuscatedName, methodName, arguments.concat(type));
+        return true;
+    }
+
+    private String toArgumentDescriptor(ByteBuffer buffer, int start, int end) {
+        StringBuilder builder = new StringBuilder("(");
+
+        int argumentStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer.get(i) == ',') {
+                int trimmedStart = trimStart(buffer, argumentStart, i);
+                int trimmedEnd = trimEnd(buffer, trimmedStart, i);
+                if (trimmedStart < trimmedEnd) {
+                    String argument = typeCache.get(buffer, trimmedStart, trimmedEnd);
+                    if (argument == null) {
+                        argument = typeCache.put(buffer, trimmedStart, trimmedEnd, toDescriptor(buffer, trimmedStart, trimmedEnd));
+                    }
+                    builder.append(argument);
+                }
+                argumentStart = i + 1;
+            }
+        }
+
+        return builder.append(')').toString();
+    }
+
+    private String toDescriptor(ByteBuffer buffer, int start, int end) {
+        int dimensions = 0;
+        while (end - start >= 2 && buffer.get(end - 1) == ']' && buffer.get(end - 2) == '[') {
+            dimensions++;
+            end -= 2;
+        }
+
+        String base = switch (end - start) {
+            case 3 -> equalsAscii(buffer, start, "int") ? "I" : null;
+            case 4 -> equalsAscii(buffer, start, "byte") ? "B"
+                    : equalsAscii(buffer, start, "char") ? "C"
+                    : equalsAscii(buffer, start, "long") ? "J"
+                    : equalsAscii(buffer, start, "void") ? "V" : null;
+            case 5 -> equalsAscii(buffer, start, "float") ? "F"
+                    : equalsAscii(buffer, start, "short") ? "S" : null;
+            case 6 -> equalsAscii(buffer, start, "double") ? "D" : null;
+            case 7 -> equalsAscii(buffer, start, "boolean") ? "Z" : null;
+            default -> null;
+        };
+
+        if (base == null) {
+            base = "L" + internalName(buffer, start, end) + ";";
+        }
+
+        return dimensions == 0 ? base : "[".repeat(dimensions).concat(base);
+    }
+
+    /**
+     * Decodes a name while replacing every {@code .} with {@code /}, using a scratch buffer instead of {@link String#replace}.
+     */
+    private String internalName(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+
+        for (int i = 0; i < length; i++) {
+            byte b = buffer.get(start + i);
+            scratch[i] = b == '.' ? (byte) '/' : b;
+        }
+
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Skips the {@code 12:34:} line number prefix that Proguard puts in front of methods.
+     */
+    private static int skipLineNumbers(ByteBuffer buffer, int start, int end) {
+        int i = start;
+        for (int group = 0; group < 2; group++) {
+            int digitsStart = i;
+            while (i < end && isDigit(buffer.get(i))) {
+                i++;
+            }
+
+            if (i == digitsStart || i >= end || buffer.get(i) != ':') {
+                return start;
+            }
+            i++;
+        }
+
+        return trimStart(buffer, i, end);
+    }
+
+    private static int skipByteOrderMark(ByteBuffer buffer, int start, int end) {
+        if (end - start >= 3 && buffer.get(start) == (byte) 0xEF && buffer.get(start + 1) == (byte) 0xBB && buffer.get(start + 2) == (byte) 0xBF) {
+            return start + 3;
+        }
+        return start;
+    }
+
+    private static int indexOfArrow(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end - 1; i++) {
+            if (buffer.get(i) == '-' && buffer.get(i + 1) == '>') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean equalsAscii(ByteBuffer buffer, int start, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (buffer.get(start + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * An open addressing hash table keyed by raw bytes, so a lookup never has to allocate a {@link String} key.
+     */
+    private static final class DescriptorCache {
+
+        private byte[][] keys = new byte[1024][];
+        private String[] values = new String[1024];
+        private int size;
+
+        String get(ByteBuffer buffer, int start, int end) {
+            int mask = keys.length - 1;
+            for (int slot = spread(hash(buffer, start, end)) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+                if (matches(keys[slot], buffer, start, end)) {
+                    return values[slot];
+                }
+            }
+            return null;
+        }
+
+        String put(ByteBuffer buffer, int start, int end, String value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+
+            byte[] key = new byte[end - start];
+            buffer.get(start, key);
+
+            insert(key, value, hash(buffer, start, end));
+            size++;
+            return value;
+        }
+
+        private void insert(byte[] key, String value, int hash) {
+            int mask = keys.length - 1;
+            int slot = spread(hash) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        private void resize() {
+            byte[][] oldKeys = keys;
+            String[] oldValues = values;
+
+            keys = new byte[oldKeys.length * 2][];
+            values = new String[oldValues.length * 2];
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    insert(oldKeys[i], oldValues[i], Arrays.hashCode(oldKeys[i]));
+                }
+            }
+        }
+
+        /**
+         * This must stay identical to {@link Arrays#hashCode(byte[])} so resizing can rehash the stored keys.
+         */
+        private static int hash(ByteBuffer buffer, int start, int end) {
+            int hash = 1;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + buffer.get(i);
+            }
+            return hash;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+        private static boolean matches(byte[] key, ByteBuffer buffer, int start, int end) {
+            if (key.length != end - start) {
+                return false;
+            }
+
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] != buffer.get(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.omnimc.lumina.data.types;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -19,9 +20,9 @@ public class MethodData {
     private final String descriptor;
 
     /**
-     * Not added yet
+     * Only created once a parameter is added, most methods never have their parameters loaded.
      */
-    private final Map<Integer, ParameterData> parameters = new HashMap<>();
+    private Map<Integer, ParameterData> parameters;
 
     public MethodData(String obfuscatedName,
                       String methodName, String descriptor) {
@@ -42,12 +43,21 @@ public class MethodData {
         return descriptor;
     }
 
+    public void addParameter(int index, String parameterName) {
+        if (parameters == null) {
+            parameters = new HashMap<>(4);
+        }
+
+        parameters.put(index, new ParameterData(index, parameterName));
+    }
+
     /**
-     * Not added yet.
-     * @throws UnsupportedOperationException
+     * Parameter names are only present if they were loaded, for example with {@code McMap.Population.PARAMETERS}.
+     *
+     * @return The parameters keyed by their index, this is empty if none were loaded.
      */
     public Map<Integer, ParameterData> getParameters() {
-        throw new UnsupportedOperationException("Not supported yet.");
+        return parameters == null ? Collections.emptyMap() : parameters;
     }
 
     @Override
@@ -1,13 +1,48 @@
 package org.omnimc.lumina.data.types;
 
-import java.io.Serial;
-import java.io.Serializable;
+import java.util.Objects;
 
 /**
+ * An {@link ParameterData} is always linked to a {@link MethodData}.
+ *
  * @author <a href=https://github.com/CadenCCC>Caden</a>
  * @since 2.0.0
  */
 public final class ParameterData {
 
-    // TODO implement this.
-}
\ No newline at end of file
+    private final int index;
+    private final String parameterName;
+
+    public ParameterData(int index, String parameterName) {
+        this.index = index;
+        this.parameterName = parameterName;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getParameterName() {
+        return parameterName;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        ParameterData that = (ParameterData) object;
+        return index == that.index && Objects.equals(parameterName, that.parameterName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(index, parameterName);
+    }
+
+    @Override
+    public String toString() {
+        return "ParameterData{" +
+                "index=" + index +
+                ", parameterName='" + parameterName + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,211 @@
+package org.omnimc.lumina.hierarchy;
+
+import org.omnimc.lumina.data.Mappings;
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.data.types.FieldData;
+import org.omnimc.lumina.data.types.MethodData;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * {@link MemberResolver} resolves the mapped name of a member by walking the class hierarchy on demand.
+ * <p>
+ * Instead of copying every parent member into every subclass, each {@link ClassData} only keeps the members it declares,
+ * and its parents are found through {@link ClassData#getDependentClasses()}. When a member is not declared by the owner,
+ * the resolver walks the parents breadth first until it finds a non-private declaration.
+ * <p>
+ * Every result is memoized per {@code (owner, name, descriptor)} in a concurrent cache, so the hierarchy is only walked
+ * once per member. This makes it cheap enough to be called directly from a {@code Remapper}.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public final class MemberResolver {
+
+    private final Function<String, ClassData> classLookup;
+
+    private final Map<MemberKey, String> fieldCache = new ConcurrentHashMap<>();
+    private final Map<MemberKey, String> methodCache = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a {@link MemberResolver} backed by a {@link Mappings}.
+     *
+     * @param mappings The {@link Mappings} holding every class keyed by its obfuscated name.
+     */
+    public MemberResolver(Mappings mappings) {
+        this(mappings::getClass);
+    }
+
+    /**
+     * Creates a {@link MemberResolver} backed by any class lookup.
+     *
+     * @param classLookup Returns the {@link ClassData} for an obfuscated class name, or {@code null} if it is unknown.
+     */
+    public MemberResolver(Function<String, ClassData> classLookup) {
+        this.classLookup = Objects.requireNonNull(classLookup, "classLookup cannot be null.");
+    }
+
+    /**
+     * Resolves the mapped name of a field, looking through the parents of {@code owner} if needed.
+     *
+     * @param owner      The obfuscated name of the class the field is accessed on.
+     * @param name       The obfuscated name of the field.
+     * @param descriptor The descriptor used as part of the field key, {@code null} is treated as empty.
+     * @return The mapped name, or {@code name} if the field could not be found.
+     */
+    public String resolveFieldName(String owner, String name, String descriptor) {
+        MemberKey key = new MemberKey(owner, name, descriptor == null ? "" : descriptor);
+
+        String cached = fieldCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        FieldData field = findField(key.owner(), key.name(), key.descriptor());
+        String resolved = field == null ? name : field.getFieldName();
+
+        fieldCache.putIfAbsent(key, resolved);
+        return resolved;
+    }
+
+    /**
+     * Resolves the mapped name of a method, looking through the parents of {@code owner} if needed.
+     *
+     * @param owner      The obfuscated name of the class the method is invoked on.
+     * @param name       The obfuscated name of the method.
+     * @param descriptor The descriptor used as part of the method key, {@code null} is treated as empty.
+     * @return The mapped name, or {@code name} if the method could not be found.
+     */
+    public String resolveMethodName(String owner, String name, String descriptor) {
+        MemberKey key = new MemberKey(owner, name, descriptor == null ? "" : descriptor);
+
+        String cached = methodCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        MethodData method = findMethod(key.owner(), key.name(), key.descriptor());
+        String resolved = method == null ? name : method.getMethodName();
+
+        methodCache.putIfAbsent(key, resolved);
+        return resolved;
+    }
+
+    /**
+     * Finds the {@link FieldData} for a field without touching the cache.
+     * <p>
+     * Private fields are only matched on {@code owner} itself, never on its parents.
+     *
+     * @return The {@link FieldData}, or {@code null} if neither {@code owner} nor its parents declare it.
+     */
+    public FieldData findField(String owner, String name, String descriptor) {
+        String memberKey = name + (descriptor == null ? "" : descriptor);
+
+        ClassData ownerData = classLookup.apply(owner);
+        if (ownerData == null) {
+            return null;
+        }
+
+        FieldData field = ownerData.getFields().get(memberKey);
+        if (field != null) {
+            return field;
+        }
+
+        field = ownerData.getPrivateFields().get(memberKey);
+        if (field != null) {
+            return field;
+        }
+
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        Set<String> visited = new HashSet<>();
+        visited.add(owner);
+        enqueueParents(ownerData, queue, visited);
+
+        while (!queue.isEmpty()) {
+            ClassData parent = classLookup.apply(queue.poll());
+            if (parent == null) {
+                continue;
+            }
+
+            field = parent.getFields().get(memberKey);
+            if (field != null) {
+                return field;
+            }
+
+            enqueueParents(parent, queue, visited);
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds the {@link MethodData} for a method without touching the cache.
+     * <p>
+     * Private methods are only matched on {@code owner} itself, never on its parents.
+     *
+     * @return The {@link MethodData}, or {@code null} if neither {@code owner} nor its parents declare it.
+     */
+    public MethodData findMethod(String owner, String name, String descriptor) {
+        String memberKey = name + (descriptor == null ? "" : descriptor);
+
+        ClassData ownerData = classLookup.apply(owner);
+        if (ownerData == null) {
+            return null;
+        }
+
+        MethodData method = ownerData.getMethods().get(memberKey);
+        if (method != null) {
+            return method;
+        }
+
+        method = ownerData.getPrivateMethods().get(memberKey);
+        if (method != null) {
+            return method;
+        }
+
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        Set<String> visited = new HashSet<>();
+        visited.add(owner);
+        enqueueParents(ownerData, queue, visited);
+
+        while (!queue.isEmpty()) {
+            ClassData parent = classLookup.apply(queue.poll());
+            if (parent == null) {
+                continue;
+            }
+
+            method = parent.getMethods().get(memberKey);
+            if (method != null) {
+                return method;
+            }
+
+            enqueueParents(parent, queue, visited);
+        }
+
+        return null;
+    }
+
+    /**
+     * Clears every memoized result, this should be called if the underlying classes have changed.
+     */
+    public void invalidate() {
+        fieldCache.clear();
+        methodCache.clear();
+    }
+
+    private static void enqueueParents(ClassData classData, ArrayDeque<String> queue, Set<String> visited) {
+        for (String dependentClass : classData.getDependentClasses()) {
+            if (dependentClass != null && visited.add(dependentClass)) {
+                queue.add(dependentClass);
+            }
+        }
+    }
+
+    private record MemberKey(String owner, String name, String descriptor) {}
+}
@@ -1,20 +1,75 @@
 package org.omnimc.lumina.mcmap;
 
+import java.util.Arrays;
+
 /**
  * @author <a href=https://github.com/CadenCCC>Caden</a>
  * @since 2.0.0
  */
 public class MappingBlock {
 
+    public static final int[] NO_SUPER_TYPES = new int[0];
+
+    /*
+     * Bit flags for the sections of a block that have been decoded into the cache.
+     */
+    public static final int FIELD_SECTION = 1;
+    public static final int METHOD_SECTION = 1 << 1;
+    public static final int PARAMETER_SECTION = 1 << 2;
+    public static final int ALL_SECTIONS = FIELD_SECTION | METHOD_SECTION | PARAMETER_SECTION;
+
     private final long offset;
 
     private final String mappedClassName;
     private final String unmappedClassName;
 
+    /**
+     * The indices of the superclass and interface {@code EntryBlocks}, only present since {@link McMap.Version#V3}.
+     */
+    private final int[] superTypeIndices;
+
+    /*
+     * The section layout read from the EntryBlock header, so a lookup never has to read the header again.
+     * With McMap.Version.V1 the field section holds all the data, and the method section is unused.
+     * The parameter section only exists with McMap.Version.V4.
+     */
+    private int fieldOffset = -1;
+    private int fieldCompressedLength;
+    private int fieldUncompressedLength;
+    private int methodOffset = -1;
+    private int methodCompressedLength;
+    private int methodUncompressedLength;
+    private int parameterOffset = -1;
+    private int parameterCompressedLength;
+    private int parameterUncompressedLength;
+
     public MappingBlock(long offset, String mappedClassName, String unmappedClassName) {
+        this(offset, mappedClassName, unmappedClassName, NO_SUPER_TYPES);
+    }
+
+    public MappingBlock(long offset, String mappedClassName, String unmappedClassName, int[] superTypeIndices) {
         this.offset = offset;
         this.mappedClassName = mappedClassName;
         this.unmappedClassName = unmappedClassName;
+        this.superTypeIndices = superTypeIndices;
+    }
+
+    public void setFieldSection(int offset, int compressedLength, int uncompressedLength) {
+        this.fieldOffset = offset;
+        this.fieldCompressedLength = compressedLength;
+        this.fieldUncompressedLength = uncompressedLength;
+    }
+
+    public void setMethodSection(int offset, int compressedLength, int uncompressedLength) {
+        this.methodOffset = offset;
+        this.methodCompressedLength = compressedLength;
+        this.methodUncompressedLength = uncompressedLength;
+    }
+
+    public void setParameterSection(int offset, int compressedLength, int uncompressedLength) {
+        this.parameterOffset = offset;
+        this.parameterCompressedLength = compressedLength;
+        this.parameterUncompressedLength = uncompressedLength;
     }
 
     public String getMappedClassName() {
@@ -29,12 +84,56 @@ public class MappingBlock {
         return unmappedClassName;
     }
 
+    public int[] getSuperTypeIndices() {
+        return superTypeIndices;
+    }
+
+    public int getFieldOffset() {
+        return fieldOffset;
+    }
+
+    public int getFieldCompressedLength() {
+        return fieldCompressedLength;
+    }
+
+    public int getFieldUncompressedLength() {
+        return fieldUncompressedLength;
+    }
+
+    public int getMethodOffset() {
+        return methodOffset;
+    }
+
+    public int getMethodCompressedLength() {
+        return methodCompressedLength;
+    }
+
+    public int getMethodUncompressedLength() {
+        return methodUncompressedLength;
+    }
+
+    public int getParameterOffset() {
+        return parameterOffset;
+    }
+
+    public int getParameterCompressedLength() {
+        return parameterCompressedLength;
+    }
+
+    public int getParameterUncompressedLength() {
+        return parameterUncompressedLength;
+    }
+
     @Override
     public String toString() {
         return "MappingBlock{" +
                 "offset=" + offset +
                 ", mappedClassName='" + mappedClassName + '\'' +
-                ", unmappedClassName='" + unmappedClassName +
+                ", unmappedClassName='" + unmappedClassName + '\'' +
+                ", superTypeIndices=" + Arrays.toString(superTypeIndices) +
+                ", fieldOffset=" + fieldOffset +
+                ", methodOffset=" + methodOffset +
+                ", parameterOffset=" + parameterOffset +
                 '}';
     }
 }
\ No newline at end of file
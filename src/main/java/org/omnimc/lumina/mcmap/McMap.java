@@ -2,27 +2,57 @@ package org.omnimc.lumina.mcmap;
 
 import org.omnimc.lumina.data.Mappings;
 import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.hierarchy.MemberResolver;
+import org.omnimc.lumina.mcmap.cache.AccessProfile;
+import org.omnimc.lumina.mcmap.cache.ClassSidecar;
+import org.omnimc.lumina.mcmap.cache.SharedClassCache;
+import org.omnimc.lumina.mcmap.file.BuildListener;
 import org.omnimc.lumina.mcmap.file.FileFactory;
+import org.omnimc.lumina.mcmap.jfr.ClassDataDecodeEvent;
+import org.omnimc.lumina.mcmap.jfr.McMapBulkLoadEvent;
+import org.omnimc.lumina.mcmap.jfr.McMapOpenEvent;
 import org.omnimc.lumina.mcmap.lz4.MappingDecompressor;
+import org.omnimc.lumina.mcmap.source.McMapSource;
+import org.omnimc.lumina.mcmap.stats.McMapListener;
 import org.omnimc.lumina.data.serialization.LineSerializer;
+import org.omnimc.lumina.data.serialization.SpanLineSerializer;
 import org.omnimc.lumina.data.serialization.compressed.CompressedLineSerializer;
-import org.omnimc.lumina.mcmap.stream.ResettableByteInputStream;
+import org.omnimc.lumina.data.serialization.proguard.ProguardParser;
 import org.omnimc.lumina.mmp.Patch;
 import org.omnimc.lumina.util.LittleEndian;
 import org.omnimc.lumina.util.SerializationHelper;
 
 import java.io.*;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
 
 import static org.omnimc.lumina.util.LittleEndian.INT4_BYTE;
 
 /**
  * This class is the implementation of our custom solution to store mappings.
  * <p>
- * We use a {@link RandomAccessFile} to randomly access the file and give some performance benefits.
+ * We randomly access the file to give some performance benefits. The bytes come from a {@link McMapSource}, so besides a {@link File}
+ * an McMap can be opened from a {@link ByteBuffer}, a {@code byte[]}, a {@link SeekableByteChannel}, a classpath resource or a STORED entry inside a jar.
  * </p>
  *
  * <p>
@@ -65,6 +95,43 @@ import static org.omnimc.lumina.util.LittleEndian.INT4_BYTE;
  * 		0x1E + n | m | UnmappedName
  *    }
  * }
+ * v3 {
+ * 	(0xD2E1) { // Total of 32 + (n + m + 4k) bytes big
+ * 		0x00 | 2 | Magic
+ * 		0x02 | 2 | MappedNameLength (n)
+ * 		0x04 | 2 | UnmappedNameLength (m)
+ * 		0x06 | 4 | FieldCompressedLength
+ * 		0x0A | 4 | MethodCompressedLength
+ * 		0x0E | 4 | FieldUncompressedLength
+ * 		0x12 | 4 | MethodUncompressedLength
+ * 		0x16 | 4 | FieldOffset
+ * 		0x1A | 4 | MethodOffset
+ * 		0x1E | 2 | SuperTypeCount (k)
+ * 		0x20 | n | MappedName
+ * 		0x20 + n | m | UnmappedName
+ * 		0x20 + n + m | 4k | SuperTypeIndices // The index of each supertype's EntryBlock in the table.
+ *    }
+ * }
+ * v4 {
+ * 	(0xD2E1) { // Total of 44 + (n + m + 4k) bytes big
+ * 		0x00 | 2 | Magic
+ * 		0x02 | 2 | MappedNameLength (n)
+ * 		0x04 | 2 | UnmappedNameLength (m)
+ * 		0x06 | 4 | FieldCompressedLength
+ * 		0x0A | 4 | MethodCompressedLength
+ * 		0x0E | 4 | FieldUncompressedLength
+ * 		0x12 | 4 | MethodUncompressedLength
+ * 		0x16 | 4 | FieldOffset
+ * 		0x1A | 4 | MethodOffset
+ * 		0x1E | 4 | ParameterCompressedLength
+ * 		0x22 | 4 | ParameterUncompressedLength
+ * 		0x26 | 4 | ParameterOffset
+ * 		0x2A | 2 | SuperTypeCount (k)
+ * 		0x2C | n | MappedName
+ * 		0x2C + n | m | UnmappedName
+ * 		0x2C + n + m | 4k | SuperTypeIndices
+ *    }
+ * }
  * </code></pre>
  * <p>
  * Every <b>multibyte</b> value is put into {@link LittleEndian Little Endian} format.
@@ -94,7 +161,16 @@ public final class McMap implements Closeable {
         /**
          * Version two contains 2 separate offsets for methods and fields. This allows you to choose what you want to populate at the time.
          */
-        V2((byte) 1);
+        V2((byte) 1),
+        /**
+         * Version three is version two with a hierarchy section. Every {@code EntryBlock} stores the indices of its superclass and interfaces,
+         * so inherited members are resolved through the hierarchy instead of being copied into every subclass.
+         */
+        V3((byte) 2),
+        /**
+         * Version four is version three with a parameter section. Parameter names are only decoded when they are asked for with {@link Population#PARAMETERS}.
+         */
+        V4((byte) 3);
 
         final byte versionByte;
 
@@ -120,11 +196,24 @@ public final class McMap implements Closeable {
      * Population is what we want to populate our {@link ClassData} with.
      * <p>
      * If we choose {@code FIELD}, we only populate the fields map. Vice versa for {@code METHOD}. {@code BOTH} is clearly populating both maps respectfully.
+     * {@code PARAMETERS} populates the methods and their parameter names, which only {@link Version#V4} stores. Parameters are never decoded by the other values.
+     * <p>
+     * The cache remembers which sections of a class have been decoded. Asking for a class with another {@code Population} later on only decodes
+     * the missing section, and merges it into the cached {@link ClassData}.
      */
     public enum Population {
         FIELD,
         METHOD,
-        BOTH
+        BOTH,
+        PARAMETERS
+    }
+
+    /**
+     * Which name of a class a prefix or range query is matched against.
+     */
+    public enum NameType {
+        UNMAPPED,
+        MAPPED
     }
 
     public static final Version DEFAULT_VERSION = Version.V1;
@@ -140,6 +229,17 @@ public final class McMap implements Closeable {
      */
     public static final short ENTRY_BLOCK_MAGIC = (short) 0xD2E1;
 
+    /**
+     * The size of the TOF, which is also the offset of the first {@code EntryBlock}.
+     */
+    private static final int TOF_SIZE = 10;
+
+    /*
+     * Used to estimate the heap size of a decoded class for a SharedClassCache, measured with JOL.
+     */
+    private static final long CLASS_DATA_OVERHEAD = 384;
+    private static final long HEAP_BYTES_PER_LINE_BYTE = 5;
+
     /**
      * The {@code create} method for making a {@link McMap}.
      * <p>
@@ -153,7 +253,21 @@ public final class McMap implements Closeable {
      * @return The instance of {@link McMap} which you have created.
      */
     public static McMap create(InputStream stream, File saveLocation, LineSerializer serializer, Version version) {
-        FileFactory factory = new FileFactory(stream, saveLocation, serializer, version);
+        return create(stream, saveLocation, serializer, version, BuildListener.NONE);
+    }
+
+    /**
+     * Like {@link McMap#create(InputStream, File, LineSerializer, Version)}, but the progress of the build is given to {@code listener}.
+     *
+     * @param stream       The {@link InputStream} that will be parsed using {@link LineSerializer} and then populated into a {@link Mappings}.
+     * @param saveLocation The file you want to save it too.
+     * @param serializer   Is the {@link LineSerializer} that will be doing the parsing needed to populate a {@link Mappings}.
+     * @param version      The {@link Version} of the {@code EntryBlocks} you wish the instance of the {@link McMap} file is to have.
+     * @param listener     The {@link BuildListener} that receives the progress and the lines that failed to parse.
+     * @return The instance of {@link McMap} which you have created.
+     */
+    public static McMap create(InputStream stream, File saveLocation, LineSerializer serializer, Version version, BuildListener listener) {
+        FileFactory factory = new FileFactory(stream, saveLocation, serializer, version, listener);
         factory.writeFile();
         try {
             return factory.finish();
@@ -173,7 +287,20 @@ public final class McMap implements Closeable {
      * @return The instance of {@link McMap} which you have created.
      */
     public static McMap create(Mappings mappings, File saveLocation, Version version) {
-        FileFactory factory = new FileFactory(mappings, saveLocation, version);
+        return create(mappings, saveLocation, version, BuildListener.NONE);
+    }
+
+    /**
+     * Like {@link McMap#create(Mappings, File, Version)}, but the progress of the build is given to {@code listener}.
+     *
+     * @param mappings     The {@link Mappings} you want the {@link McMap} file to be populated with.
+     * @param saveLocation The file you want to save it too.
+     * @param version      The {@link Version} of the {@code EntryBlocks} you wish the instance of the {@link McMap} file is to have.
+     * @param listener     The {@link BuildListener} that receives the progress.
+     * @return The instance of {@link McMap} which you have created.
+     */
+    public static McMap create(Mappings mappings, File saveLocation, Version version, BuildListener listener) {
+        FileFactory factory = new FileFactory(mappings, saveLocation, version, listener);
         factory.writeFile();
         try {
             return factory.finish();
@@ -236,15 +363,56 @@ public final class McMap implements Closeable {
         return create(stream, saveLocation, CompressedLineSerializer.getInstance(), DEFAULT_VERSION);
     }
 
+    /**
+     * The {@code create} method for making a {@link McMap} from a Proguard mapping file.
+     * <p>
+     * The Proguard file is memory-mapped and parsed on every available core using {@link ProguardParser#parseParallel(File)},
+     * then the resulting {@link Mappings} is passed to {@link McMap#create(Mappings, File, Version)}.
+     *
+     * @param proguardFile The Proguard mapping file, like Mojang's {@code client.txt}.
+     * @param saveLocation The file you want to save it too.
+     * @param version      The {@link Version} of the {@code EntryBlocks} you wish the instance of the {@link McMap} file is to have.
+     * @return The instance of {@link McMap} which you have created.
+     */
+    public static McMap createFromProguard(File proguardFile, File saveLocation, Version version) {
+        return create(ProguardParser.parseParallel(proguardFile), saveLocation, version);
+    }
+
+    /**
+     * An overloaded method of {@link McMap#createFromProguard(File, File, Version)} that completes the {@code version} parameter.
+     * <p>
+     * The {@code version} parameter is set to {@link McMap#DEFAULT_VERSION}.
+     *
+     * @param proguardFile The Proguard mapping file, like Mojang's {@code client.txt}.
+     * @param saveLocation The file you want to save it too.
+     * @return The instance of {@link McMap} which you have created.
+     */
+    public static McMap createFromProguard(File proguardFile, File saveLocation) {
+        return createFromProguard(proguardFile, saveLocation, DEFAULT_VERSION);
+    }
+
+    /**
+     * A {@link ClassData} of {@link McMap#getMappings()} together with the sections that were decoded into it.
+     */
+    private record LoadedClass(ClassData classData, int sections) {
+    }
+
     /* All data collection */
 
     private final Map<String, MappingBlock> entryBlocksUnmapped = new HashMap<>();
     private final Map<String, MappingBlock> entryBlocksMapped = new HashMap<>();
+    private MappingBlock[] entryBlocksByIndex;
+    /*
+     * Only set when some classes of a V3 or V4 file were filtered out on open, the supertype indices of a block point into the whole entry table.
+     * A skipped supertype only has its offset kept, its unmapped name is read the first time it is needed.
+     */
+    private MappingBlock[] entryBlocksByTableIndex;
+    private long[] entryOffsetsByTableIndex;
+    private Map<Integer, String> skippedUnmappedNames;
 
     /* Byte and I/O fields */
 
-    private final RandomAccessFile raf;
-    private final ResettableByteInputStream resettableByteInputStream = new ResettableByteInputStream();
+    private final McMapSource source;
 
     private final byte[] shortBuf = new byte[2];
     private final byte[] intBuf = new byte[INT4_BYTE];
@@ -252,8 +420,24 @@ public final class McMap implements Closeable {
     /* All Mapping required fields */
 
     private final Mappings mappings = new Mappings();
+    /**
+     * The sections decoded into each {@link ClassData} of {@link #mappings}, by unmapped name.
+     * The {@link ClassData} is kept with them, {@link McMap#getMappings()} can be changed from outside and then no longer holds it.
+     */
+    private final Map<String, LoadedClass> loadedClasses = new HashMap<>();
     private final MappingDecompressor mappingDecompressor = new MappingDecompressor();
-    private final LineSerializer lineSerializer = CompressedLineSerializer.getInstance();
+    private final SpanLineSerializer lineSerializer = new CompressedLineSerializer();
+    /* Set from any thread, a shared McMap is used by many at once */
+    private volatile MemberResolver memberResolver;
+    private volatile NameIndex nameIndex;
+    private volatile McMapListener listener = McMapListener.NONE;
+    private volatile SharedClassCache cache;
+    private volatile ClassSidecar sidecar;
+    private volatile AccessProfile profile;
+    private volatile CompletableFuture<Integer> warmUp;
+    private McMapRegistry registry;
+    private long contentHash;
+    private boolean contentHashed;
 
     private Version version;
     private int amountOfEntries;
@@ -270,12 +454,149 @@ public final class McMap implements Closeable {
      * After getting all of that information it then goes through and caches the offset and the unmapped and mapped name of each {@code EntryBlock}.
      *
      * @param mcmapFile The file assumed to be in the {@link McMap} file format.
-     * @throws IOException A reading error from the {@link RandomAccessFile}.
+     * @throws IOException A reading error from the file.
      */
     public McMap(File mcmapFile) throws IOException {
-        this.raf = new RandomAccessFile(mcmapFile, "r");
+        this(McMapSource.of(mcmapFile));
+    }
+
+    /**
+     * Opens an {@link McMap} that is already in memory, the bytes between the position and limit of {@code buffer} are used without being copied.
+     * <p>
+     * A memory-mapped buffer works as well. The buffer must not be changed while the {@link McMap} is open.
+     *
+     * @param buffer The buffer assumed to be in the {@link McMap} file format.
+     * @throws IOException If the buffer is not a valid {@link McMap}.
+     */
+    public McMap(ByteBuffer buffer) throws IOException {
+        this(McMapSource.of(buffer));
+    }
+
+    /**
+     * Opens an {@link McMap} that is already in memory, the array is used without being copied.
+     *
+     * @param bytes The bytes assumed to be in the {@link McMap} file format.
+     * @throws IOException If the bytes are not a valid {@link McMap}.
+     */
+    public McMap(byte[] bytes) throws IOException {
+        this(McMapSource.of(bytes));
+    }
+
+    /**
+     * Opens an {@link McMap} from a channel, closing the {@link McMap} closes the channel.
+     *
+     * @param channel The channel assumed to be in the {@link McMap} file format.
+     * @throws IOException A reading error from the channel.
+     */
+    public McMap(SeekableByteChannel channel) throws IOException {
+        this(McMapSource.of(channel));
+    }
+
+    /**
+     * Opens an {@link McMap} from any {@link McMapSource}, every other constructor ends up here.
+     * <p>
+     * The source is closed if it is not a valid {@link McMap}, otherwise it is closed together with the {@link McMap}.
+     *
+     * @param source The source assumed to be in the {@link McMap} file format.
+     * @throws IOException A reading error from the source.
+     */
+    public McMap(McMapSource source) throws IOException {
+        this(source, null);
+    }
+
+    /**
+     * Opens an {@link McMap} that only indexes the classes whose mapped name matches {@code nameFilter}, every other class is skipped
+     * while the entry table is read. This saves the index memory of those classes, and lookups act as if they are not in the file.
+     *
+     * @param source     The source assumed to be in the {@link McMap} file format.
+     * @param nameFilter Tests the mapped name of each class, like {@code name -> name.startsWith("net/minecraft/world/")}. {@code null} keeps every class.
+     * @throws IOException A reading error from the source.
+     */
+    public McMap(McMapSource source, Predicate<String> nameFilter) throws IOException {
+        McMapOpenEvent event = new McMapOpenEvent();
+        event.begin();
+
+        this.source = Objects.requireNonNull(source, "Source cannot be NULL.");
+
+        try {
+            InputStream stream = source.openStream(0);
+            readTopOfFile(stream);
+            cacheAllEntries(stream, nameFilter);
+        } catch (IOException | RuntimeException e) {
+            source.close();
+            throw e;
+        }
 
-        cacheAllEntries(getFirstEntryBlockOffset());
+        event.end();
+        if (event.shouldCommit()) {
+            event.setFile(source.getName());
+            event.setVersion(version.name());
+            event.setEntries(amountOfEntries);
+            event.commit();
+        }
+    }
+
+    /**
+     * Gets the shared {@link McMap} of a file from {@link McMapRegistry#global()}, opening it only if it is not open already or if the file changed.
+     * <p>
+     * The instance uses the registry's {@link SharedClassCache} and is safe to use from multiple threads. Close it exactly once when you are done,
+     * its cache can't be changed as it is shared with everyone else that opened the file.
+     *
+     * @param mcmapFile The file assumed to be in the {@link McMap} file format.
+     * @return The shared instance of {@link McMap}.
+     * @throws IOException A reading error from the file.
+     * @see McMapRegistry#open(File)
+     */
+    public static McMap open(File mcmapFile) throws IOException {
+        return McMapRegistry.global().open(mcmapFile);
+    }
+
+    /**
+     * Opens a file while only indexing the classes whose mapped name matches {@code nameFilter}, see {@link McMap#McMap(McMapSource, Predicate)}.
+     * <p>
+     * Unlike {@link McMap#open(File)} the instance is not shared, as it only holds part of the file.
+     *
+     * @param mcmapFile  The file assumed to be in the {@link McMap} file format.
+     * @param nameFilter Tests the mapped name of each class.
+     * @return A new instance of {@link McMap} with only the matching classes.
+     * @throws IOException A reading error from the file.
+     */
+    public static McMap open(File mcmapFile, Predicate<String> nameFilter) throws IOException {
+        Objects.requireNonNull(nameFilter, "Name filter cannot be NULL.");
+        return new McMap(McMapSource.of(mcmapFile), nameFilter);
+    }
+
+    /**
+     * Opens a resource, resolved like {@link Class#getResource(String)}.
+     * <p>
+     * A resource inside a jar is read in place when the jar STORES it (like {@code jar -0}, or Gradle's {@code entryCompression = STORED}),
+     * which saves a copy to a temporary file. A compressed resource is inflated into memory once.
+     *
+     * @param owner The class the resource name is resolved against.
+     * @param name  The name of the resource, like {@code /assets/mappings.mcmap}.
+     * @return The instance of {@link McMap} of the resource.
+     * @throws FileNotFoundException If there is no resource called {@code name}.
+     * @throws IOException           A reading error from the resource.
+     */
+    public static McMap fromResource(Class<?> owner, String name) throws IOException {
+        URL resource = owner.getResource(name);
+        if (resource == null) {
+            throw new FileNotFoundException("Resource not found: " + name);
+        }
+        return new McMap(McMapSource.of(resource));
+    }
+
+    /**
+     * Opens an entry of a zip or jar file, a STORED entry is read in place at its offset.
+     *
+     * @param zipFile   The zip or jar file.
+     * @param entryName The name of the entry.
+     * @return The instance of {@link McMap} of the entry.
+     * @throws IOException A reading error from the zip.
+     * @see McMapSource#ofZipEntry(File, String)
+     */
+    public static McMap fromZipEntry(File zipFile, String entryName) throws IOException {
+        return new McMap(McMapSource.ofZipEntry(zipFile, entryName));
     }
 
     public McMap applyPatch(Patch patch) {
@@ -283,6 +604,9 @@ public final class McMap implements Closeable {
     }
 
     public void loadAllClassData() {
+        McMapBulkLoadEvent event = new McMapBulkLoadEvent();
+        event.begin();
+
         for (Map.Entry<String, MappingBlock> unmappedEntry : entryBlocksUnmapped.entrySet()) {
             try {
                 getClassData(unmappedEntry.getKey());
@@ -290,6 +614,13 @@ public final class McMap implements Closeable {
                 throw new RuntimeException(e);
             }
         }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.setFile(source.getName());
+            event.setClasses(entryBlocksUnmapped.size());
+            event.commit();
+        }
     }
 
     public ClassData getClassData(String className) throws IOException {
@@ -305,171 +636,576 @@ public final class McMap implements Closeable {
     }
 
     public ClassData getClassData(String obfuscatedName, BiPredicate<String, String> filter, Population population) throws IOException {
-        if (version == Version.V2 && population == null) {
+        if (version != Version.V1 && population == null) {
             throw new IllegalArgumentException("Population cannot be null with version: " + version);
         }
 
-        ClassData possibleClassData = mappings.getClass(obfuscatedName);
-        if (possibleClassData != null) {
-            return possibleClassData;
-        }
+        // Read once, the listener that decided whether to read the clock is also the one that gets the lookup.
+        McMapListener listener = this.listener;
+        long start = listener == McMapListener.NONE ? 0 : System.nanoTime();
 
         MappingBlock block = getEntryBlockOffset(obfuscatedName, filter);
         if (block == null) {
+            fireLookup(listener, population, false, false, start);
             return null;
             //throw new FileNotFoundException(obfuscatedName);
         }
 
-        raf.seek(block.getOffset());
+        AccessProfile profile = this.profile;
+        if (profile != null) {
+            profile.record(block.getUnmappedClassName(), version == Version.V1 ? MappingBlock.ALL_SECTIONS : getSections(population));
+        }
 
-        raf.skipBytes(INT4_BYTE); // Skipping the unmappedNameLength and mappedNameLength.
+        return getClassData(block, population, listener, start);
+    }
 
-        int compressedFL = -1, uncompressedFL = -1, fOffset = -1;
-        int compressedML = -1, uncompressedML = -1, mOffset = -1;
+    /**
+     * Gets the names of every class whose {@code type} name starts with {@code prefix}, nothing is decoded.
+     * <p>
+     * For example the prefix {@code net/minecraft/world/level/} with {@link NameType#MAPPED} gives every class in that package and its sub packages.
+     *
+     * @param type   Which name to match and return.
+     * @param prefix The prefix, an empty prefix matches every class.
+     * @return A sorted view of the names.
+     */
+    public List<String> getClassNames(NameType type, String prefix) {
+        return names(type, getNameIndex().prefix(type, prefix));
+    }
 
-        if (version.equals(Version.V1)) {
-            compressedFL = LittleEndian.readInt4(raf, intBuf, 0);
-            uncompressedFL = LittleEndian.readInt4(raf, intBuf, 0);
-            fOffset = LittleEndian.readInt4(raf, intBuf, 0);
-        } else {
-            switch (population) {
-                case FIELD -> {
-                    compressedFL = LittleEndian.readInt4(raf, intBuf, 0);
-                    raf.skipBytes(INT4_BYTE);
-                    uncompressedFL = LittleEndian.readInt4(raf, intBuf, 0);
-                    raf.skipBytes(INT4_BYTE);
-                    fOffset = LittleEndian.readInt4(raf, intBuf, 0);
-                    raf.skipBytes(INT4_BYTE);
+    /**
+     * Gets the names of every class whose {@code type} name is at least {@code fromInclusive} and less than {@code toExclusive}, nothing is decoded.
+     *
+     * @param type          Which name to match and return.
+     * @param fromInclusive The lowest name.
+     * @param toExclusive   The name after the highest name.
+     * @return A sorted view of the names.
+     */
+    public List<String> getClassNames(NameType type, String fromInclusive, String toExclusive) {
+        return names(type, getNameIndex().range(type, fromInclusive, toExclusive));
+    }
+
+    /**
+     * Gets every class whose {@code type} name starts with {@code prefix}.
+     * <p>
+     * Each class is only decoded when the iterator reaches it, so stopping early never decodes the rest.
+     *
+     * @param type       Which name to match.
+     * @param prefix     The prefix, an empty prefix matches every class.
+     * @param population What to populate each {@link ClassData} with, it is ignored by {@link Version#V1}.
+     * @return The classes in order of their {@code type} name.
+     */
+    public Iterable<ClassData> getClassDataByPrefix(NameType type, String prefix, Population population) {
+        return classData(getNameIndex().prefix(type, prefix), population);
+    }
+
+    /**
+     * Gets every class whose {@code type} name is at least {@code fromInclusive} and less than {@code toExclusive}, each class is decoded lazily.
+     *
+     * @param type          Which name to match.
+     * @param fromInclusive The lowest name.
+     * @param toExclusive   The name after the highest name.
+     * @param population    What to populate each {@link ClassData} with, it is ignored by {@link Version#V1}.
+     * @return The classes in order of their {@code type} name.
+     * @see McMap#getClassDataByPrefix(NameType, String, Population)
+     */
+    public Iterable<ClassData> getClassDataInRange(NameType type, String fromInclusive, String toExclusive, Population population) {
+        return classData(getNameIndex().range(type, fromInclusive, toExclusive), population);
+    }
+
+    private NameIndex getNameIndex() {
+        NameIndex nameIndex = this.nameIndex;
+        if (nameIndex == null) {
+            synchronized (this) {
+                nameIndex = this.nameIndex;
+                if (nameIndex == null) {
+                    this.nameIndex = nameIndex = new NameIndex(entryBlocksByIndex);
                 }
-                case METHOD -> {
-                    raf.skipBytes(INT4_BYTE);
-                    compressedML = LittleEndian.readInt4(raf, intBuf, 0);
-                    raf.skipBytes(INT4_BYTE);
-                    uncompressedML = LittleEndian.readInt4(raf, intBuf, 0);
-                    raf.skipBytes(INT4_BYTE);
-                    mOffset = LittleEndian.readInt4(raf, intBuf, 0);
+            }
+        }
+
+        return nameIndex;
+    }
+
+    private static List<String> names(NameType type, List<MappingBlock> blocks) {
+        return new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                MappingBlock block = blocks.get(index);
+                return type == NameType.MAPPED ? block.getMappedClassName() : block.getUnmappedClassName();
+            }
+
+            @Override
+            public int size() {
+                return blocks.size();
+            }
+        };
+    }
+
+    private Iterable<ClassData> classData(List<MappingBlock> blocks, Population population) {
+        Objects.requireNonNull(population, "Population cannot be NULL.");
+        Population wanted = version == Version.V1 ? null : population;
+
+        return () -> new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < blocks.size();
+            }
+
+            @Override
+            public ClassData next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                try {
+                    McMapListener listener = McMap.this.listener;
+                    return getClassData(blocks.get(index++), wanted, listener, listener == McMapListener.NONE ? 0 : System.nanoTime());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
-                case BOTH -> {
-                    compressedFL = LittleEndian.readInt4(raf, intBuf, 0);
-                    compressedML = LittleEndian.readInt4(raf, intBuf, 0);
-                    uncompressedFL = LittleEndian.readInt4(raf, intBuf, 0);
-                    uncompressedML = LittleEndian.readInt4(raf, intBuf, 0);
-                    fOffset = LittleEndian.readInt4(raf, intBuf, 0);
-                    mOffset = LittleEndian.readInt4(raf, intBuf, 0);
+            }
+        };
+    }
+
+    private ClassData getClassData(MappingBlock block, Population population, McMapListener listener, long start) throws IOException {
+        int wantedSections = version == Version.V1 ? MappingBlock.ALL_SECTIONS : getSections(population);
+
+        SharedClassCache cache = this.cache;
+        if (cache != null) {
+            return getSharedClassData(cache, block, wantedSections, population, listener, start);
+        }
+
+        ClassData classData = mappings.getClass(block.getUnmappedClassName());
+        LoadedClass loaded = loadedClasses.get(block.getUnmappedClassName());
+        // A ClassData that was removed or replaced in the mappings has none of its sections decoded by us.
+        int loadedSections = classData != null && loaded != null && loaded.classData == classData ? loaded.sections : 0;
+        int missingSections = wantedSections & ~loadedSections;
+
+        if (classData != null && missingSections == 0) {
+            fireLookup(listener, population, true, true, start);
+            return classData;
+        }
+
+        ClassSidecar sidecar = this.sidecar;
+        if (sidecar != null) {
+            sidecar.recordAccess(block.getUnmappedClassName(), wantedSections);
+
+            if (classData == null) {
+                SharedClassCache.CachedClass stored = sidecar.get(block.getUnmappedClassName(), wantedSections);
+                if (stored != null) {
+                    mappings.addClass(block.getUnmappedClassName(), stored.classData());
+                    loadedClasses.put(block.getUnmappedClassName(), new LoadedClass(stored.classData(), stored.sections()));
+                    fireLookup(listener, population, true, true, start);
+                    return stored.classData();
                 }
             }
         }
 
-        ClassData classData = createClassData(block.getMappedClassName(),
-                                              fOffset, compressedFL, uncompressedFL,
-                                              mOffset, compressedML, uncompressedML);
+        if (classData == null) {
+            classData = newClassData(block);
+            mappings.addClass(block.getUnmappedClassName(), classData);
+        }
 
-        mappings.addClass(obfuscatedName, classData);
+        // Only the sections that are not cached yet are decoded, and they are merged into the cached ClassData.
+        decodeBlock(block, missingSections, classData, population);
+        loadedClasses.put(block.getUnmappedClassName(), new LoadedClass(classData, loadedSections | missingSections));
 
+        fireLookup(listener, population, true, false, start);
         return classData;
     }
 
-    private void cacheAllEntries(long offset) throws IOException {
-        if (raf.getFilePointer() != offset) {
-            raf.seek(offset);
+    /**
+     * The {@link SharedClassCache} path of {@link McMap#getClassData(String, BiPredicate, Population)}.
+     * <p>
+     * A cached {@link ClassData} is never changed, so when sections are missing the cached ones are decoded again together with them
+     * into a new {@link ClassData}, which replaces the old one.
+     * <p>
+     * The cache is passed in, a concurrent {@link McMap#setCache(SharedClassCache)} must not send a lookup that started on the cache to the {@link Mappings}.
+     */
+    private ClassData getSharedClassData(SharedClassCache cache, MappingBlock block, int wantedSections, Population population, McMapListener listener,
+                                         long start) throws IOException {
+        Object identity = source.getIdentity();
+
+        SharedClassCache.CachedClass cached = cache.get(identity, block.getUnmappedClassName());
+        if (cached != null && (wantedSections & ~cached.sections()) == 0) {
+            fireLookup(listener, population, true, true, start);
+            return cached.classData();
         }
 
+        ClassSidecar sidecar = this.sidecar;
+        if (sidecar != null) {
+            sidecar.recordAccess(block.getUnmappedClassName(), wantedSections);
+
+            if (cached == null) {
+                SharedClassCache.CachedClass stored = sidecar.get(block.getUnmappedClassName(), wantedSections);
+                if (stored != null) {
+                    cache.put(identity, block.getUnmappedClassName(), stored.classData(), stored.sections(), estimateCost(block, stored.sections()));
+                    fireLookup(listener, population, true, true, start);
+                    return stored.classData();
+                }
+            }
+        }
+
+        int sections = cached == null ? wantedSections : cached.sections() | wantedSections;
+        ClassData classData = newClassData(block);
+        decodeBlock(block, sections, classData, population);
+        cache.put(identity, block.getUnmappedClassName(), classData, sections, estimateCost(block, sections));
+
+        fireLookup(listener, population, true, false, start);
+        return classData;
+    }
+
+    /**
+     * A rough heap size of a decoded class, decoded members take about five times the bytes of their uncompressed lines.
+     */
+    private long estimateCost(MappingBlock block, int sections) {
+        long bytes = 0;
+        if ((sections & MappingBlock.FIELD_SECTION) != 0 || version == Version.V1) {
+            bytes += block.getFieldUncompressedLength();
+        }
+        if ((sections & MappingBlock.METHOD_SECTION) != 0) {
+            bytes += block.getMethodUncompressedLength();
+        }
+        if ((sections & MappingBlock.PARAMETER_SECTION) != 0) {
+            bytes += block.getParameterUncompressedLength();
+        }
+        return CLASS_DATA_OVERHEAD + HEAP_BYTES_PER_LINE_BYTE * bytes;
+    }
+
+    /**
+     * Streams every class in file order, each one is decoded when the stream reaches it and is never cached.
+     * <p>
+     * Unlike {@link McMap#loadAllClassData()}, nothing is kept once a class has been processed, so the whole file can be processed in constant memory.
+     * The stream splits by ranges of {@code EntryBlocks}, so {@code .parallel()} decodes on every core.
+     * The {@link McMap} has to stay open until the stream is done.
+     *
+     * @param population What to populate each {@link ClassData} with, it is ignored by {@link Version#V1}.
+     * @return A stream of (unmappedName, {@link ClassData}) entries.
+     */
+    public Stream<Map.Entry<String, ClassData>> stream(Population population) {
+        Objects.requireNonNull(population, "Population cannot be NULL.");
+        Population wanted = version == Version.V1 ? null : population;
+        return StreamSupport.stream(new BlockSpliterator(wanted, 0, entryBlocksByIndex.length), false);
+    }
+
+    private ClassData newClassData(MappingBlock block) {
+        ClassData classData = new ClassData(block.getMappedClassName());
+
+        for (int superTypeIndex : block.getSuperTypeIndices()) {
+            classData.addDependentClass(getUnmappedClassName(superTypeIndex));
+        }
+
+        return classData;
+    }
+
+    /**
+     * @return The unmapped name of the {@code EntryBlock} at {@code tableIndex} in the entry table.
+     */
+    private String getUnmappedClassName(int tableIndex) {
+        if (entryBlocksByTableIndex == null) {
+            return entryBlocksByIndex[tableIndex].getUnmappedClassName();
+        }
+
+        MappingBlock block = entryBlocksByTableIndex[tableIndex];
+        if (block != null) {
+            return block.getUnmappedClassName();
+        }
+
+        return skippedUnmappedNames.computeIfAbsent(tableIndex, index -> {
+            try {
+                InputStream stream = source.openStream(entryOffsetsByTableIndex[index]);
+                byte[] header = new byte[2 + getHeaderSize()];
+                readFully(stream, header);
+
+                stream.skipNBytes(LittleEndian.toShort2(header, 2));
+                byte[] unmappedName = new byte[LittleEndian.toShort2(header, 4)];
+                readFully(stream, unmappedName);
+                return new String(unmappedName, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read the name of entry " + index + " in " + source.getName(), e);
+            }
+        });
+    }
+
+    /**
+     * Decodes the {@code sections} of a block into {@code classData}, and reports it as a single {@link ClassDataDecodeEvent}.
+     */
+    private void decodeBlock(MappingBlock block, int sections, ClassData classData, Population population) throws IOException {
+        ClassDataDecodeEvent event = new ClassDataDecodeEvent();
+        event.begin();
+
+        if (version == Version.V1) {
+            decodeSection(block.getFieldOffset(), block.getFieldCompressedLength(), block.getFieldUncompressedLength(), classData, null, event);
+        } else {
+            if ((sections & MappingBlock.FIELD_SECTION) != 0) {
+                decodeSection(block.getFieldOffset(), block.getFieldCompressedLength(), block.getFieldUncompressedLength(), classData, Population.FIELD, event);
+            }
+
+            if ((sections & MappingBlock.METHOD_SECTION) != 0) {
+                decodeSection(block.getMethodOffset(), block.getMethodCompressedLength(), block.getMethodUncompressedLength(), classData, Population.METHOD, event);
+            }
+
+            // Parameters are attached to the methods, so this has to come after the method section.
+            if ((sections & MappingBlock.PARAMETER_SECTION) != 0) {
+                decodeSection(block.getParameterOffset(), block.getParameterCompressedLength(), block.getParameterUncompressedLength(), classData, Population.PARAMETERS, event);
+            }
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.setClass(block.getMappedClassName(), block.getUnmappedClassName(), population == null ? Population.BOTH.name() : population.name());
+            event.commit();
+        }
+    }
+
+    /**
+     * Walks a range of {@code EntryBlocks} in file order, blocks are written in the same order as the entry table.
+     * Splitting halves the range, so every split reads its own contiguous part of the file.
+     */
+    private final class BlockSpliterator implements Spliterator<Map.Entry<String, ClassData>> {
+
+        private final Population population;
+        private final int sections;
+        private int index;
+        private final int end;
+
+        BlockSpliterator(Population population, int index, int end) {
+            this.population = population;
+            this.sections = population == null ? MappingBlock.ALL_SECTIONS : getSections(population);
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Map.Entry<String, ClassData>> action) {
+            if (index >= end) {
+                return false;
+            }
+
+            MappingBlock block = entryBlocksByIndex[index++];
+            ClassData classData = newClassData(block);
+            try {
+                decodeBlock(block, sections, classData, population);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            action.accept(Map.entry(block.getUnmappedClassName(), classData));
+            return true;
+        }
+
+        @Override
+        public Spliterator<Map.Entry<String, ClassData>> trySplit() {
+            int middle = (index + end) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+
+            BlockSpliterator prefix = new BlockSpliterator(population, index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | DISTINCT | NONNULL | IMMUTABLE;
+        }
+    }
+
+    private static void fireLookup(McMapListener listener, Population population, boolean found, boolean cached, long start) {
+        if (listener != McMapListener.NONE) {
+            listener.onLookup(population == null ? Population.BOTH : population, found, cached, System.nanoTime() - start);
+        }
+    }
+
+    private static int getSections(Population population) {
+        return switch (population) {
+            case FIELD -> MappingBlock.FIELD_SECTION;
+            case METHOD -> MappingBlock.METHOD_SECTION;
+            case BOTH -> MappingBlock.FIELD_SECTION | MappingBlock.METHOD_SECTION;
+            case PARAMETERS -> MappingBlock.METHOD_SECTION | MappingBlock.PARAMETER_SECTION;
+        };
+    }
+
+    /**
+     * @return The size of everything between the magic of an {@code EntryBlock} and its names, V3 and V4 also have their SuperTypeCount in here.
+     */
+    private int getHeaderSize() {
+        return switch (version) {
+            case V1 -> 16;
+            case V2 -> 28;
+            case V3 -> 30;
+            case V4 -> 42;
+        };
+    }
+
+    private void cacheAllEntries(InputStream stream, Predicate<String> nameFilter) throws IOException {
+        long currentOffset = TOF_SIZE;
+        List<MappingBlock> kept = nameFilter == null ? null : new ArrayList<>();
+        // Only V3 and V4 have supertype indices, which are the only thing that looks up an entry by its index in the table.
+        boolean byTableIndex = nameFilter != null && (version == Version.V3 || version == Version.V4);
+        if (nameFilter == null) {
+            entryBlocksByIndex = new MappingBlock[amountOfEntries];
+        } else if (byTableIndex) {
+            entryBlocksByTableIndex = new MappingBlock[amountOfEntries];
+            entryOffsetsByTableIndex = new long[amountOfEntries];
+            skippedUnmappedNames = new ConcurrentHashMap<>();
+        }
+
+        byte[] header = new byte[getHeaderSize()];
+
         for (int i = 0; i <= amountOfEntries; i++) {
             if (amountOfEntriesLeft-- <= 0) {
                 break;
             }
 
-            short possibleMagic = LittleEndian.readShort2(raf, shortBuf, 0);
+            short possibleMagic = LittleEndian.readShort2(stream, shortBuf, 0);
             if (possibleMagic != ENTRY_BLOCK_MAGIC) {
                 throw new RuntimeException("Invalid magic number: " + possibleMagic);
             }
 
-            long currentOffset = raf.getFilePointer();
+            currentOffset += 2;
+            readFully(stream, header);
 
-            short mappedNameLength = LittleEndian.readShort2(raf, shortBuf, 0);
-            short unmappedNameLength = LittleEndian.readShort2(raf, shortBuf, 0);
+            short mappedNameLength = LittleEndian.toShort2(header, 0);
+            short unmappedNameLength = LittleEndian.toShort2(header, 2);
 
-            // These are the byte amounts that are AFTER unmappedNameLength
-            int skipToNames = version == Version.V1 ? 12 : 24;
-            raf.skipBytes(skipToNames);
+            int superTypeCount = switch (version) {
+                case V3 -> LittleEndian.toShort2(header, 28) & 0xFFFF;
+                case V4 -> LittleEndian.toShort2(header, 40) & 0xFFFF;
+                default -> 0;
+            };
 
             byte[] mappedNameBuffer = new byte[mappedNameLength];
-            raf.read(mappedNameBuffer);
+            readFully(stream, mappedNameBuffer);
             String mappedName = new String(mappedNameBuffer, StandardCharsets.UTF_8);
 
+            if (nameFilter != null) {
+                if (byTableIndex) {
+                    entryOffsetsByTableIndex[i] = currentOffset - 2;
+                }
+
+                if (!nameFilter.test(mappedName)) {
+                    stream.skipNBytes(unmappedNameLength + (long) INT4_BYTE * superTypeCount);
+                    currentOffset += header.length + mappedNameLength + unmappedNameLength + (long) INT4_BYTE * superTypeCount;
+                    continue;
+                }
+            }
+
             byte[] unmappedNameBuffer = new byte[unmappedNameLength];
-            raf.read(unmappedNameBuffer);
+            readFully(stream, unmappedNameBuffer);
             String unmappedName = new String(unmappedNameBuffer, StandardCharsets.UTF_8);
 
-            MappingBlock value = new MappingBlock(currentOffset, mappedName, unmappedName);
+            int[] superTypeIndices = MappingBlock.NO_SUPER_TYPES;
+            if (superTypeCount > 0) {
+                superTypeIndices = new int[superTypeCount];
+                for (int j = 0; j < superTypeCount; j++) {
+                    superTypeIndices[j] = LittleEndian.readInt4(stream, intBuf, 0);
+                }
+            }
+
+            MappingBlock value = new MappingBlock(currentOffset, mappedName, unmappedName, superTypeIndices);
+            currentOffset += header.length + mappedNameLength + unmappedNameLength + (long) INT4_BYTE * superTypeCount;
+            if (version == Version.V1) {
+                value.setFieldSection(LittleEndian.toInt4LE(header, 12), LittleEndian.toInt4LE(header, 4), LittleEndian.toInt4LE(header, 8));
+            } else {
+                value.setFieldSection(LittleEndian.toInt4LE(header, 20), LittleEndian.toInt4LE(header, 4), LittleEndian.toInt4LE(header, 12));
+                value.setMethodSection(LittleEndian.toInt4LE(header, 24), LittleEndian.toInt4LE(header, 8), LittleEndian.toInt4LE(header, 16));
+            }
+
+            if (version == Version.V4) {
+                value.setParameterSection(LittleEndian.toInt4LE(header, 36), LittleEndian.toInt4LE(header, 28), LittleEndian.toInt4LE(header, 32));
+            }
+
             entryBlocksUnmapped.put(unmappedName, value);
             entryBlocksMapped.put(mappedName, value);
+            if (nameFilter == null) {
+                entryBlocksByIndex[i] = value;
+            } else {
+                if (byTableIndex) {
+                    entryBlocksByTableIndex[i] = value;
+                }
+                kept.add(value);
+            }
         }
-    }
 
-    private ClassData createClassData(String mappedName,
-                                      long fieldOffset, int compressedFieldLength, int uncompressedFieldLength,
-                                      long methodOffset, int compressedMethodLength, int uncompressedMethodLength) throws IOException {
-        if (fieldOffset == -1 && methodOffset == -1) {
-            return null;
+        if (nameFilter != null) {
+            entryBlocksByIndex = kept.toArray(new MappingBlock[0]);
         }
+    }
 
-        ClassData classData = new ClassData(mappedName);
-
-        if (version == Version.V1) {
-            byte[] data = getData(fieldOffset, compressedFieldLength, uncompressedFieldLength);
-            resettableByteInputStream.reset(data);
-            return SerializationHelper.populateClassData(resettableByteInputStream, lineSerializer, classData);
+    /**
+     * Decodes a single section straight into a {@link ClassData}.
+     * <p>
+     * The compressed bytes are read with a positional read and decompressed into a thread-local buffer by {@link MappingDecompressor},
+     * which is then parsed in place. The only allocations are the members added to {@code classData}.
+     *
+     * @param population {@link Population#FIELD}, {@link Population#METHOD} or {@link Population#PARAMETERS} for that section alone,
+     *                   {@code null} for a {@link Version#V1} block holding both fields and methods.
+     * @param event      The event of the lookup, the section's sizes and timings are added to it.
+     */
+    private void decodeSection(int offset, int compressedLength, int uncompressedLength, ClassData classData, Population population,
+                               ClassDataDecodeEvent event) throws IOException {
+        if (offset == -1 || uncompressedLength == 0) {
+            return;
         }
 
-        if (fieldOffset != -1) {
-            byte[] data = getData(fieldOffset, compressedFieldLength, uncompressedFieldLength);
+        McMapListener listener = this.listener;
+        boolean timed = listener != McMapListener.NONE || event.isEnabled();
+        long start = timed ? System.nanoTime() : 0;
 
-            if (data.length > 0) {
-                resettableByteInputStream.reset(data);
-                SerializationHelper.populateClassDataField(resettableByteInputStream, lineSerializer, classData);
-            }
-        }
-
-        if (methodOffset != -1) {
-            byte[] data = getData(methodOffset, compressedMethodLength, uncompressedMethodLength);
+        ByteBuffer data = source.decompress(mappingDecompressor, offset, compressedLength, uncompressedLength);
+        long decompressed = timed ? System.nanoTime() : 0;
 
-            if (data.length > 0) {
-                resettableByteInputStream.reset(data);
-                SerializationHelper.populateClassDataMethod(resettableByteInputStream, lineSerializer, classData);
-            }
+        if (population == null) {
+            SerializationHelper.populateClassData(data, 0, uncompressedLength, lineSerializer, classData);
+        } else if (population == Population.FIELD) {
+            SerializationHelper.populateClassDataField(data, 0, uncompressedLength, lineSerializer, classData);
+        } else if (population == Population.METHOD) {
+            SerializationHelper.populateClassDataMethod(data, 0, uncompressedLength, lineSerializer, classData);
+        } else {
+            SerializationHelper.populateClassDataParameter(data, 0, uncompressedLength, lineSerializer, classData);
         }
 
-        return classData;
-    }
+        if (timed) {
+            long parsed = System.nanoTime();
+            event.addSection(compressedLength, uncompressedLength, decompressed - start, parsed - decompressed);
 
-    private byte[] getData(long offset, int compressedLength, int uncompressedLength) throws IOException {
-        if (uncompressedLength == 0) {
-            return new byte[0];
+            if (listener != McMapListener.NONE) {
+                listener.onSectionDecoded(population == null ? Population.BOTH : population, compressedLength, uncompressedLength,
+                                          decompressed - start, parsed - decompressed);
+            }
         }
-
-        raf.seek(offset);
-
-        byte[] compressedData = new byte[compressedLength];
-        raf.readFully(compressedData, 0, compressedLength);
-
-        return mappingDecompressor.decompress(compressedData, uncompressedLength);
     }
 
-    private long getFirstEntryBlockOffset() throws IOException {
+    /**
+     * Reads the TOF, the entry table starts right after it at {@link #TOF_SIZE}.
+     */
+    private void readTopOfFile(InputStream stream) throws IOException {
         byte[] magic = new byte[5];
-        raf.read(magic);
-        if (LittleEndian.toLong5LE(magic, 0) != TOF_MAGIC) {
+        if (stream.readNBytes(magic, 0, magic.length) != magic.length || LittleEndian.toLong5LE(magic, 0) != TOF_MAGIC) {
             throw new IOException("Invalid TOF magic");
         }
 
         byte[] infoBuffer = new byte[5];
-        raf.read(infoBuffer);
+        readFully(stream, infoBuffer);
 
         this.version = Version.fromByte(infoBuffer[0]);
         this.amountOfEntries = LittleEndian.toInt4LE(infoBuffer, 1);
         this.amountOfEntriesLeft = amountOfEntries;
-        return raf.getFilePointer();
+    }
+
+    private void readFully(InputStream stream, byte[] buffer) throws IOException {
+        if (stream.readNBytes(buffer, 0, buffer.length) != buffer.length) {
+            throw new EOFException("Reached the end of " + source.getName() + " while reading the entry table");
+        }
     }
 
     private MappingBlock getEntryBlockOffset(String name, BiPredicate<String, String> filter) {
@@ -486,6 +1222,274 @@ public final class McMap implements Closeable {
         return null;
     }
 
+    /**
+     * Gets a {@link MemberResolver} backed by this {@link McMap}.
+     * <p>
+     * With {@link Version#V3} every {@link ClassData} knows its supertypes, so inherited members are resolved lazily by
+     * decoding the parents only when a member is not declared by the owner itself.
+     *
+     * @return The shared {@link MemberResolver} for this {@link McMap}.
+     */
+    public MemberResolver getMemberResolver() {
+        MemberResolver memberResolver = this.memberResolver;
+        if (memberResolver == null) {
+            synchronized (this) {
+                memberResolver = this.memberResolver;
+                if (memberResolver == null) {
+                    this.memberResolver = memberResolver = new MemberResolver(name -> {
+                        try {
+                            return getClassData(name);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            }
+        }
+
+        return memberResolver;
+    }
+
+    /**
+     * Sets the {@link McMapListener} that receives the lookup and decode events of this {@link McMap}, like {@link org.omnimc.lumina.mcmap.stats.McMapStats}.
+     * <p>
+     * Use {@link McMapListener#NONE} to turn the events off again, the clock is not read while no listener is set.
+     *
+     * @param listener The listener, never {@code null}.
+     */
+    public void setListener(McMapListener listener) {
+        this.listener = Objects.requireNonNull(listener, "Listener cannot be NULL, use McMapListener.NONE instead.");
+    }
+
+    public McMapListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Sets the {@link SharedClassCache} decoded classes are kept in, instead of the unbounded {@link Mappings} of this {@link McMap}.
+     * <p>
+     * With a cache, {@link McMap#getMappings()} stays empty and a class can be evicted (and decoded again) at any time,
+     * so a returned {@link ClassData} should not be held on to. Use {@code null} to go back to the {@link Mappings}.
+     *
+     * @param cache The cache, it can be shared by any amount of {@link McMap}s.
+     * @throws IllegalStateException If this {@link McMap} is shared by a {@link McMapRegistry}, its cache belongs to the registry.
+     */
+    public void setCache(SharedClassCache cache) {
+        if (registry != null) {
+            throw new IllegalStateException("The cache of a shared McMap belongs to its McMapRegistry.");
+        }
+        this.cache = cache;
+    }
+
+    public SharedClassCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Sets the {@link ClassSidecar} classes are rebuilt from before they are decoded, and that records every class this {@link McMap} decodes.
+     *
+     * @param sidecar The sidecar, opened with {@link ClassSidecar#open(File, McMap)} for this {@link McMap}. Use {@code null} to stop using it.
+     */
+    public void setSidecar(ClassSidecar sidecar) {
+        this.sidecar = sidecar;
+    }
+
+    public ClassSidecar getSidecar() {
+        return sidecar;
+    }
+
+    /**
+     * Writes the {@link ClassSidecar}, with the classes it already had and every class that was decoded since it was set.
+     *
+     * @return The amount of bytes written.
+     * @throws IllegalStateException If there is no sidecar.
+     * @throws IOException           If the sidecar could not be written.
+     */
+    public long saveSidecar() throws IOException {
+        ClassSidecar sidecar = this.sidecar;
+        if (sidecar == null) {
+            throw new IllegalStateException("There is no sidecar to save.");
+        }
+
+        return sidecar.save((unmappedName, sections) -> {
+            MappingBlock block = entryBlocksUnmapped.get(unmappedName);
+            if (block == null) {
+                return null;
+            }
+
+            ClassData classData = newClassData(block);
+            decodeBlock(block, version == Version.V1 ? MappingBlock.ALL_SECTIONS : sections, classData, null);
+            return classData;
+        });
+    }
+
+    /**
+     * Sets the {@link AccessProfile} every class that is asked for is recorded in, lookups made by {@link McMap#warmUp(AccessProfile)} are not recorded.
+     *
+     * @param profile The profile, usually a new one that is written once the launch is done. Use {@code null} to stop recording.
+     */
+    public void setProfile(AccessProfile profile) {
+        this.profile = profile;
+    }
+
+    public AccessProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * An overloaded method of {@link McMap#warmUp(AccessProfile, Executor)} that warms up on a new low priority daemon thread.
+     */
+    public CompletableFuture<Integer> warmUp(AccessProfile profile) {
+        return warmUp(profile, task -> {
+            Thread thread = new Thread(task, "McMap warm-up " + source.getName());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+        });
+    }
+
+    /**
+     * Decodes the classes of a profile into the {@link SharedClassCache} in the order they were first asked for, while the caller goes on.
+     * <p>
+     * A class that is asked for before it was warmed up is just decoded by the caller. Warming up stops once the cache is full so it never
+     * evicts what it loaded itself, when the cache is changed, when the returned future is cancelled, or when this {@link McMap} is closed.
+     *
+     * @param profile  The profile of an earlier run, classes that are not in this {@link McMap} are skipped.
+     * @param executor Runs the warm-up.
+     * @return A future of the amount of classes that were warmed up.
+     * @throws IllegalStateException If there is no {@link SharedClassCache}, the {@link Mappings} of an {@link McMap} can only be used from one thread.
+     */
+    public CompletableFuture<Integer> warmUp(AccessProfile profile, Executor executor) {
+        Objects.requireNonNull(profile, "Profile cannot be NULL.");
+        SharedClassCache cache = this.cache;
+        if (cache == null) {
+            throw new IllegalStateException("Warming up needs a SharedClassCache.");
+        }
+
+        List<AccessProfile.Entry> entries = profile.getEntries();
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        this.warmUp = future;
+
+        executor.execute(() -> {
+            int warmed = 0;
+            try {
+                for (AccessProfile.Entry entry : entries) {
+                    if (future.isDone() || this.cache != cache) {
+                        break;
+                    }
+
+                    MappingBlock block = entryBlocksUnmapped.get(entry.unmappedName());
+                    if (block == null) {
+                        continue;
+                    }
+
+                    if (cache.getUsedBytes() + estimateCost(block, entry.sections()) > cache.getBudget()) {
+                        break;
+                    }
+
+                    warmUp(cache, block, entry.sections());
+                    warmed++;
+                }
+                future.complete(warmed);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Decodes the {@code sections} of a block into {@code cache}, all of them at once.
+     */
+    private void warmUp(SharedClassCache cache, MappingBlock block, int sections) throws IOException {
+        McMapListener listener = this.listener;
+        long start = listener == McMapListener.NONE ? 0 : System.nanoTime();
+
+        int wantedSections = MappingBlock.ALL_SECTIONS;
+        if (version != Version.V1) {
+            // Parameters are attached to the methods, they can't be decoded on their own.
+            wantedSections = (sections & MappingBlock.PARAMETER_SECTION) != 0 ? sections | MappingBlock.METHOD_SECTION : sections;
+        }
+        getSharedClassData(cache, block, wantedSections, null, listener, start);
+    }
+
+    /**
+     * A hash of the whole source, the source is read once the first time this is called.
+     *
+     * @return The CRC32C of the source in the low 32 bits, and its size in the high 32 bits.
+     * @throws IOException If the source could not be read.
+     */
+    public synchronized long getContentHash() throws IOException {
+        if (!contentHashed) {
+            contentHash = getContentHash(source);
+            contentHashed = true;
+        }
+        return contentHash;
+    }
+
+    /**
+     * The same hash as {@link McMap#getContentHash()}, without opening the file as an {@link McMap}.
+     *
+     * @param mcmapFile The file assumed to be in the {@link McMap} file format.
+     * @return The CRC32C of the file in the low 32 bits, and its size in the high 32 bits.
+     * @throws IOException If the file could not be read.
+     */
+    public static long getContentHash(File mcmapFile) throws IOException {
+        try (McMapSource source = McMapSource.of(mcmapFile)) {
+            return getContentHash(source);
+        }
+    }
+
+    private static long getContentHash(McMapSource source) throws IOException {
+        CRC32C crc = new CRC32C();
+        byte[] buffer = new byte[64 * 1024];
+
+        try (InputStream stream = source.openStream(0)) {
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return (source.size() << 32) | crc.getValue();
+    }
+
+    /**
+     * Gets a {@link Mappings} backed by this {@link McMap}, so code written against {@link Mappings} only decodes the classes it asks for.
+     *
+     * @param population What to populate each {@link ClassData} with, it is ignored by {@link Version#V1}.
+     * @return A read-only {@link McMapMappings}.
+     */
+    public McMapMappings asMappings(Population population) {
+        return new McMapMappings(this, population);
+    }
+
+    /**
+     * @return If there is a class called {@code unmappedName}, nothing is decoded.
+     */
+    public boolean containsClass(String unmappedName) {
+        return entryBlocksUnmapped.containsKey(unmappedName);
+    }
+
+    /**
+     * @return The mapped name of the class called {@code unmappedName} from the index, or {@code null} if there is none.
+     */
+    public String getMappedClassName(String unmappedName) {
+        MappingBlock block = entryBlocksUnmapped.get(unmappedName);
+        return block == null ? null : block.getMappedClassName();
+    }
+
+    /**
+     * @return The unmapped name of the class whose mapped name is {@code mappedName} from the index, or {@code null} if there is none.
+     */
+    public String getUnmappedClassName(String mappedName) {
+        MappingBlock block = entryBlocksMapped.get(mappedName);
+        return block == null ? null : block.getUnmappedClassName();
+    }
+
+    public int getClassCount() {
+        return entryBlocksByIndex.length;
+    }
+
     public Version getVersion() {
         return version;
     }
@@ -494,10 +1498,40 @@ public final class McMap implements Closeable {
         return mappings;
     }
 
+    void setRegistry(McMapRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @return The identity of the source this {@link McMap} was read from, see {@link McMapSource#getIdentity()}.
+     */
+    Object getIdentity() {
+        return source.getIdentity();
+    }
+
+    /**
+     * Closes the source, an {@link McMap} from {@link McMap#open(File)} is only released back to its {@link McMapRegistry}.
+     */
     @Override
     public void close() throws IOException {
+        McMapRegistry registry = this.registry;
+        if (registry != null) {
+            registry.release(this);
+            return;
+        }
+
+        closeSource();
+    }
+
+    void closeSource() throws IOException {
+        CompletableFuture<Integer> warmUp = this.warmUp;
+        if (warmUp != null) {
+            warmUp.cancel(false);
+        }
+
         entryBlocksMapped.clear();
         entryBlocksUnmapped.clear();
-        raf.close();
+        nameIndex = null;
+        source.close();
     }
 }
\ No newline at end of file
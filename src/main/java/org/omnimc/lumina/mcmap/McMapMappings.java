@@ -0,0 +1,196 @@
+package org.omnimc.lumina.mcmap;
+
+import org.omnimc.lumina.data.Mappings;
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.mcmap.McMap.NameType;
+import org.omnimc.lumina.mcmap.McMap.Population;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@link Mappings} backed by an {@link McMap}, get one with {@link McMap#asMappings(Population)}.
+ * <p>
+ * {@link #getClass(String)} decodes a class the first time it is asked for, and {@link #getClassName(String)} and {@link #getClassNameByValue(String)}
+ * are answered by the index without decoding anything. {@link #getClasses()} is a read-only view, only iterating its values decodes every class.
+ * <p>
+ * Decoded classes are cached by the {@link McMap}, so it has to stay open while this is used. Adding a class throws an {@link UnsupportedOperationException}.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public final class McMapMappings extends Mappings {
+
+    private final McMap mcMap;
+
+    McMapMappings(McMap mcMap, Population population) {
+        super(new ClassView(mcMap, Objects.requireNonNull(population, "Population cannot be NULL.")));
+        this.mcMap = mcMap;
+    }
+
+    public McMap getMcMap() {
+        return mcMap;
+    }
+
+    @Override
+    public String getClassName(String obfuscatedName) {
+        String mappedName = mcMap.getMappedClassName(obfuscatedName);
+        return mappedName == null ? obfuscatedName : mappedName;
+    }
+
+    @Override
+    public String getClassNameByValue(String unObfuscatedName) {
+        String unmappedName = mcMap.getUnmappedClassName(unObfuscatedName);
+        return unmappedName == null ? unObfuscatedName : unmappedName;
+    }
+
+    /**
+     * A read-only {@link Map} of (unmappedName, {@link ClassData}) that decodes on {@link #get(Object)}.
+     */
+    private static final class ClassView extends AbstractMap<String, ClassData> {
+
+        private final McMap mcMap;
+        private final Population population;
+
+        private Set<String> keySet;
+        private Set<Entry<String, ClassData>> entrySet;
+
+        ClassView(McMap mcMap, Population population) {
+            this.mcMap = mcMap;
+            this.population = population;
+        }
+
+        @Override
+        public ClassData get(Object key) {
+            if (!(key instanceof String name) || !mcMap.containsClass(name)) {
+                return null;
+            }
+
+            try {
+                return mcMap.getClassData(name, population);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String name && mcMap.containsClass(name);
+        }
+
+        @Override
+        public int size() {
+            return mcMap.getClassCount();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        @Override
+        public Set<String> keySet() {
+            if (keySet == null) {
+                keySet = new AbstractSet<>() {
+                    @Override
+                    public Iterator<String> iterator() {
+                        return names().iterator();
+                    }
+
+                    @Override
+                    public boolean contains(Object o) {
+                        return containsKey(o);
+                    }
+
+                    @Override
+                    public int size() {
+                        return ClassView.this.size();
+                    }
+                };
+            }
+            return keySet;
+        }
+
+        /**
+         * Every entry decodes its class when {@link Entry#getValue()} is called, not when it is reached.
+         */
+        @Override
+        public Set<Entry<String, ClassData>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<String, ClassData>> iterator() {
+                        Iterator<String> names = names().iterator();
+                        return new Iterator<>() {
+                            @Override
+                            public boolean hasNext() {
+                                return names.hasNext();
+                            }
+
+                            @Override
+                            public Entry<String, ClassData> next() {
+                                return new LazyEntry(names.next());
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return ClassView.this.size();
+                    }
+                };
+            }
+            return entrySet;
+        }
+
+        private List<String> names() {
+            return mcMap.getClassNames(NameType.UNMAPPED, "");
+        }
+
+        private final class LazyEntry implements Entry<String, ClassData> {
+
+            private final String name;
+
+            LazyEntry(String name) {
+                this.name = name;
+            }
+
+            @Override
+            public String getKey() {
+                return name;
+            }
+
+            @Override
+            public ClassData getValue() {
+                return get(name);
+            }
+
+            @Override
+            public ClassData setValue(ClassData value) {
+                throw new UnsupportedOperationException("McMapMappings is read-only.");
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                return o instanceof Entry<?, ?> entry && name.equals(entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+            }
+
+            @Override
+            public int hashCode() {
+                return name.hashCode() ^ Objects.hashCode(getValue());
+            }
+
+            @Override
+            public String toString() {
+                return name + "=" + getValue();
+            }
+        }
+    }
+}
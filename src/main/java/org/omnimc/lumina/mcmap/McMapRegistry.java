@@ -0,0 +1,181 @@
+package org.omnimc.lumina.mcmap;
+
+import org.omnimc.lumina.mcmap.cache.SharedClassCache;
+import org.omnimc.lumina.mcmap.source.FileIdentity;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Shares open {@link McMap}s between everyone that opens the same file, like the tasks of a Gradle daemon.
+ * <p>
+ * Instances are keyed by the {@link FileIdentity} of their file, so the entry table is only read once for as long as the file does not change.
+ * Every instance uses the {@link SharedClassCache} of the registry, which makes it safe to use from multiple threads and lets every caller
+ * reuse the classes the others decoded.
+ * <p>
+ * Every {@link #open(File)} has to be matched by exactly one {@link McMap#close()}. An instance nobody has open stays open, so the next caller
+ * finds it warm. It is closed once its file changes and the last caller is done with it, or by {@link #closeIdle()}.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public final class McMapRegistry {
+
+    /**
+     * The budget of the {@link SharedClassCache} of {@link #global()}.
+     */
+    public static final long DEFAULT_BUDGET = 64L * 1024 * 1024;
+
+    private static final McMapRegistry GLOBAL = new McMapRegistry(new SharedClassCache(DEFAULT_BUDGET));
+
+    private static final class Shared {
+
+        private final FileIdentity identity;
+        private final McMap mcmap;
+        private int references;
+        private boolean stale;
+
+        Shared(FileIdentity identity, McMap mcmap) {
+            this.identity = identity;
+            this.mcmap = mcmap;
+        }
+    }
+
+    private final SharedClassCache cache;
+
+    /* Guarded by this */
+    private final Map<String, Shared> byPath = new HashMap<>();
+    private final Map<McMap, Shared> byInstance = new IdentityHashMap<>();
+
+    /**
+     * @param cache The cache every {@link McMap} of this registry uses.
+     */
+    public McMapRegistry(SharedClassCache cache) {
+        this.cache = Objects.requireNonNull(cache, "Cache cannot be NULL.");
+    }
+
+    /**
+     * @return The registry {@link McMap#open(File)} uses.
+     */
+    public static McMapRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Gets the shared {@link McMap} of a file, it is only opened if nobody has it open yet or if the file has changed since.
+     *
+     * @param file The file assumed to be in the {@link McMap} file format.
+     * @return The shared instance, close it once you are done with it.
+     * @throws IOException A reading error from the file.
+     */
+    public McMap open(File file) throws IOException {
+        synchronized (this) {
+            Shared shared = acquire(FileIdentity.of(file));
+            if (shared != null) {
+                return shared.mcmap;
+            }
+        }
+
+        // Reading the entry table can take a while, so it is done without the lock. If another caller opened the same file meanwhile, theirs is used.
+        McMap mcmap = new McMap(file);
+        mcmap.setCache(cache);
+        // The file can change before it is opened, the identity the source was opened with is the one its classes are cached under.
+        FileIdentity identity = (FileIdentity) mcmap.getIdentity();
+
+        synchronized (this) {
+            Shared shared = acquire(identity);
+            if (shared == null) {
+                shared = new Shared(identity, mcmap);
+                shared.references = 1;
+                byPath.put(identity.path(), shared);
+                byInstance.put(mcmap, shared);
+                mcmap.setRegistry(this);
+                return mcmap;
+            }
+
+            mcmap.close();
+            return shared.mcmap;
+        }
+    }
+
+    /**
+     * @return The instance of {@code identity} with one more reference, or {@code null} if there is none. An instance of an older version of the file is marked stale.
+     */
+    private Shared acquire(FileIdentity identity) throws IOException {
+        Shared shared = byPath.get(identity.path());
+        if (shared == null) {
+            return null;
+        }
+
+        if (shared.identity.equals(identity)) {
+            shared.references++;
+            return shared;
+        }
+
+        byPath.remove(identity.path());
+        shared.stale = true;
+        cache.invalidate(shared.identity);
+        if (shared.references == 0) {
+            closeShared(shared);
+        }
+        return null;
+    }
+
+    /**
+     * Called by {@link McMap#close()}, the instance is only closed once it is stale and nobody has it open anymore.
+     */
+    synchronized void release(McMap mcmap) throws IOException {
+        Shared shared = byInstance.get(mcmap);
+        if (shared == null || shared.references == 0) {
+            throw new IllegalStateException("McMap was closed more often than it was opened: " + mcmap);
+        }
+
+        if (--shared.references == 0 && shared.stale) {
+            closeShared(shared);
+        }
+    }
+
+    /**
+     * Closes every instance nobody has open, the next {@link #open(File)} of their files reads the entry table again.
+     * Their classes stay in the cache, an unchanged file opened again still finds them.
+     *
+     * @return The amount of instances that were closed.
+     * @throws IOException If an instance could not be closed.
+     */
+    public synchronized int closeIdle() throws IOException {
+        List<Shared> idle = new ArrayList<>();
+        for (Shared shared : byInstance.values()) {
+            if (shared.references == 0) {
+                idle.add(shared);
+            }
+        }
+
+        for (Shared shared : idle) {
+            byPath.remove(shared.identity.path(), shared);
+            closeShared(shared);
+        }
+        return idle.size();
+    }
+
+    private void closeShared(Shared shared) throws IOException {
+        byInstance.remove(shared.mcmap);
+        shared.mcmap.closeSource();
+    }
+
+    public SharedClassCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return The amount of instances that are open, including the ones nobody has open.
+     */
+    public synchronized int size() {
+        return byInstance.size();
+    }
+}
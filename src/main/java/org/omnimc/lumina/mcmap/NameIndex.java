@@ -0,0 +1,112 @@
+package org.omnimc.lumina.mcmap;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * The {@link MappingBlock}s of an {@link McMap} sorted by their unmapped and their mapped names, so prefix and range queries are two binary searches.
+ * <p>
+ * It is built from the blocks already in memory the first time it is needed, opening an {@link McMap} does not pay for it.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+final class NameIndex {
+
+    private final MappingBlock[] byUnmapped;
+    private final MappingBlock[] byMapped;
+
+    NameIndex(MappingBlock[] blocks) {
+        this.byUnmapped = sorted(blocks, MappingBlock::getUnmappedClassName);
+        this.byMapped = sorted(blocks, MappingBlock::getMappedClassName);
+    }
+
+    /**
+     * @return The blocks whose name starts with {@code prefix}, in order of that name.
+     */
+    List<MappingBlock> prefix(McMap.NameType type, String prefix) {
+        MappingBlock[] blocks = blocks(type);
+        Function<MappingBlock, String> name = name(type);
+
+        int from = lowerBound(blocks, name, prefix);
+        String end = prefixEnd(prefix);
+        int to = end == null ? blocks.length : lowerBound(blocks, name, end);
+        return view(blocks, from, to);
+    }
+
+    /**
+     * @return The blocks whose name is at least {@code fromInclusive} and less than {@code toExclusive}, in order of that name.
+     */
+    List<MappingBlock> range(McMap.NameType type, String fromInclusive, String toExclusive) {
+        MappingBlock[] blocks = blocks(type);
+        Function<MappingBlock, String> name = name(type);
+
+        int from = lowerBound(blocks, name, fromInclusive);
+        int to = Math.max(from, lowerBound(blocks, name, toExclusive));
+        return view(blocks, from, to);
+    }
+
+    private MappingBlock[] blocks(McMap.NameType type) {
+        return type == McMap.NameType.MAPPED ? byMapped : byUnmapped;
+    }
+
+    private static Function<MappingBlock, String> name(McMap.NameType type) {
+        return type == McMap.NameType.MAPPED ? MappingBlock::getMappedClassName : MappingBlock::getUnmappedClassName;
+    }
+
+    private static MappingBlock[] sorted(MappingBlock[] blocks, Function<MappingBlock, String> name) {
+        MappingBlock[] sorted = blocks.clone();
+        Arrays.sort(sorted, Comparator.comparing(name));
+        return sorted;
+    }
+
+    /**
+     * @return The index of the first block whose name is not less than {@code key}.
+     */
+    private static int lowerBound(MappingBlock[] blocks, Function<MappingBlock, String> name, String key) {
+        int low = 0;
+        int high = blocks.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (name.apply(blocks[middle]).compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The smallest name that is bigger than every name starting with {@code prefix}, like {@code net/minecraft0} for {@code net/minecraft/}.
+     *
+     * @return The name, or {@code null} if there is none and the prefix range goes to the end.
+     */
+    private static String prefixEnd(String prefix) {
+        for (int i = prefix.length() - 1; i >= 0; i--) {
+            char c = prefix.charAt(i);
+            if (c != Character.MAX_VALUE) {
+                return prefix.substring(0, i) + (char) (c + 1);
+            }
+        }
+        return null;
+    }
+
+    private static List<MappingBlock> view(MappingBlock[] blocks, int from, int to) {
+        return new AbstractList<>() {
+            @Override
+            public MappingBlock get(int index) {
+                return blocks[from + Objects.checkIndex(index, to - from)];
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+        };
+    }
+}
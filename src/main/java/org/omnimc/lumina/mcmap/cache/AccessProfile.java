@@ -0,0 +1,159 @@
+package org.omnimc.lumina.mcmap.cache;
+
+import org.omnimc.lumina.mcmap.McMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The classes an {@link McMap} was asked for, in the order they were first asked for.
+ * <p>
+ * The classes a launch needs barely change from one run to the next. Record a profile with {@link McMap#setProfile(AccessProfile)} and
+ * {@link #write(File)} it, then pass it to {@link McMap#warmUp(AccessProfile)} on the next run so those classes are decoded in the background
+ * before they are asked for. Classes that are not in the {@link McMap} anymore are skipped, so an old profile still works.
+ *
+ * <pre><code>
+ * (0x5041434D) { // Total of 9 + e bytes big
+ * 	0x00 | 4 | Magic // MCAP
+ * 	0x04 | 1 | Version
+ * 	0x05 | 4 | ClassCount
+ * 	0x09 | e | Classes // For every class: NameLength (2), UnmappedName, Sections (1)
+ * }
+ * </code></pre>
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public final class AccessProfile {
+
+    static final int MAGIC = 0x5041434D;
+    static final byte VERSION = 0;
+    static final int HEADER_SIZE = 9;
+
+    /**
+     * A class of the profile.
+     *
+     * @param unmappedName The unmapped name of the class.
+     * @param sections     Every section it was asked for, see {@link org.omnimc.lumina.mcmap.MappingBlock#ALL_SECTIONS}.
+     */
+    public record Entry(String unmappedName, int sections) {
+    }
+
+    private final ConcurrentHashMap<String, Integer> sections = new ConcurrentHashMap<>();
+    /* Guarded by this */
+    private final List<String> order = new ArrayList<>();
+
+    /**
+     * @return Where the profile of {@code mcmapFile} is kept, next to it with a {@code .profile} extension.
+     */
+    public static File profileOf(File mcmapFile) {
+        return new File(mcmapFile.getPath() + ".profile");
+    }
+
+    /**
+     * Reads a profile written by {@link #write(File)}.
+     *
+     * @param file The profile file, usually {@link #profileOf(File)}.
+     * @return The profile, it is empty if the file is missing or not a profile.
+     */
+    public static AccessProfile load(File file) {
+        AccessProfile profile = new AccessProfile();
+        if (!file.isFile()) {
+            return profile;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+                return profile;
+            }
+
+            for (int count = buffer.getInt(); count > 0; count--) {
+                byte[] name = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(name);
+                profile.record(new String(name, StandardCharsets.UTF_8), buffer.get());
+            }
+        } catch (IOException | RuntimeException e) {
+            // A profile is only a hint, the part that could be read is still useful.
+        }
+        return profile;
+    }
+
+    /**
+     * Records that a class was asked for, this is cheap once a class has been recorded.
+     */
+    public void record(String unmappedName, int sections) {
+        Integer recorded = this.sections.get(unmappedName);
+        if (recorded != null && (recorded | sections) == recorded) {
+            return;
+        }
+
+        synchronized (this) {
+            Integer previous = this.sections.get(unmappedName);
+            if (previous == null) {
+                this.sections.put(unmappedName, sections);
+                order.add(unmappedName);
+            } else {
+                this.sections.put(unmappedName, previous | sections);
+            }
+        }
+    }
+
+    /**
+     * @return A copy of the classes, in the order they were first recorded.
+     */
+    public synchronized List<Entry> getEntries() {
+        List<Entry> entries = new ArrayList<>(order.size());
+        for (String name : order) {
+            entries.add(new Entry(name, sections.get(name)));
+        }
+        return entries;
+    }
+
+    public int size() {
+        return sections.size();
+    }
+
+    /**
+     * Writes the profile, replacing {@code file}.
+     *
+     * @param file The file to write to, usually {@link #profileOf(File)}.
+     * @return The amount of bytes written.
+     * @throws IOException If the profile could not be written.
+     */
+    public long write(File file) throws IOException {
+        List<Entry> entries = getEntries();
+
+        List<byte[]> names = new ArrayList<>(entries.size());
+        int length = HEADER_SIZE;
+        for (Entry entry : entries) {
+            byte[] name = entry.unmappedName().getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            length += 2 + name.length + 1;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).put(VERSION).putInt(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            buffer.putShort((short) names.get(i).length).put(names.get(i)).put((byte) entries.get(i).sections());
+        }
+
+        File temporary = new File(file.getPath() + ".tmp");
+        try {
+            Files.write(temporary.toPath(), buffer.array());
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary.toPath());
+            throw e;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,201 @@
+package org.omnimc.lumina.mcmap.cache;
+
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.data.types.FieldData;
+import org.omnimc.lumina.data.types.MethodData;
+import org.omnimc.lumina.data.types.ParameterData;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A compact binary form of a decoded {@link ClassData}, rebuilding one from it is much faster than parsing the compressed lines again.
+ * <p>
+ * Every number is a varint and every string is a varint of its length plus one followed by UTF-8, a zero length is {@code null}.
+ * Members are added back through {@link ClassData}, so they end up under the same keys and in the same public or private map.
+ *
+ * <pre><code>
+ * Sections
+ * ClassName
+ * DependentClassCount, DependentClasses
+ * FieldCount, (ObfuscatedName, FieldName, Descriptor) // Once for the fields, then the private fields
+ * MethodCount, (ObfuscatedName, MethodName, Descriptor, ParameterCount, (Index, ParameterName)) // Once for the methods, then the private methods
+ * </code></pre>
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public final class ClassDataCodec {
+
+    private ClassDataCodec() {
+        throw new UnsupportedOperationException("ClassDataCodec cannot be instantiated");
+    }
+
+    public static byte[] encode(ClassData classData, int sections) {
+        Writer writer = new Writer();
+        writer.varInt(sections);
+        writer.string(classData.getClassName());
+
+        writer.varInt(classData.getDependentClasses().size());
+        for (String dependentClass : classData.getDependentClasses()) {
+            writer.string(dependentClass);
+        }
+
+        writeFields(writer, classData.getFields().values());
+        writeFields(writer, classData.getPrivateFields().values());
+        writeMethods(writer, classData.getMethods().values());
+        writeMethods(writer, classData.getPrivateMethods().values());
+        return writer.toByteArray();
+    }
+
+    /**
+     * Rebuilds a class written by {@link #encode(ClassData, int)}.
+     *
+     * @param buffer The buffer that holds the encoded class, only absolute gets are used.
+     * @param offset The absolute index of the encoded class.
+     * @return The class and its sections.
+     */
+    public static SharedClassCache.CachedClass decode(ByteBuffer buffer, int offset) {
+        Reader reader = new Reader(buffer, offset);
+        int sections = reader.varInt();
+        ClassData classData = new ClassData(reader.string());
+
+        for (int i = reader.varInt(); i > 0; i--) {
+            classData.addDependentClass(reader.string());
+        }
+
+        for (int i = reader.varInt(); i > 0; i--) {
+            classData.addField(reader.string(), reader.string(), reader.string());
+        }
+        for (int i = reader.varInt(); i > 0; i--) {
+            classData.addPrivateField(reader.string(), reader.string(), reader.string());
+        }
+        for (int i = reader.varInt(); i > 0; i--) {
+            String obfuscatedName = reader.string();
+            String methodName = reader.string();
+            String descriptor = reader.string();
+            classData.addMethod(obfuscatedName, methodName, descriptor);
+            readParameters(reader, classData.getMethods().get(obfuscatedName + descriptor));
+        }
+        for (int i = reader.varInt(); i > 0; i--) {
+            String obfuscatedName = reader.string();
+            String methodName = reader.string();
+            String descriptor = reader.string();
+            classData.addPrivateMethod(obfuscatedName, methodName, descriptor);
+            readParameters(reader, classData.getPrivateMethods().get(obfuscatedName + descriptor));
+        }
+
+        return new SharedClassCache.CachedClass(classData, sections);
+    }
+
+    private static void writeFields(Writer writer, Collection<FieldData> fields) {
+        writer.varInt(fields.size());
+        for (FieldData field : fields) {
+            writer.string(field.getObfuscatedName());
+            writer.string(field.getFieldName());
+            writer.string(field.getDescriptor());
+        }
+    }
+
+    private static void writeMethods(Writer writer, Collection<MethodData> methods) {
+        writer.varInt(methods.size());
+        for (MethodData method : methods) {
+            writer.string(method.getObfuscatedName());
+            writer.string(method.getMethodName());
+            writer.string(method.getDescriptor());
+
+            writer.varInt(method.getParameters().size());
+            for (ParameterData parameter : method.getParameters().values()) {
+                writer.varInt(parameter.getIndex());
+                writer.string(parameter.getParameterName());
+            }
+        }
+    }
+
+    private static void readParameters(Reader reader, MethodData method) {
+        for (int i = reader.varInt(); i > 0; i--) {
+            method.addParameter(reader.varInt(), reader.string());
+        }
+    }
+
+    private static final class Writer {
+
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        void varInt(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void string(String value) {
+            if (value == null) {
+                varInt(0);
+                return;
+            }
+
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            varInt(utf8.length + 1);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final ByteBuffer buffer;
+        private int position;
+
+        Reader(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        int varInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        String string() {
+            int length = varInt() - 1;
+            if (length < 0) {
+                return null;
+            }
+
+            String value;
+            if (buffer.hasArray()) {
+                value = new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+            } else {
+                byte[] bytes = new byte[length];
+                buffer.get(position, bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+            }
+            position += length;
+            return value;
+        }
+    }
+}
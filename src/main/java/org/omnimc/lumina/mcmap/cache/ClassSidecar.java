@@ -0,0 +1,287 @@
+package org.omnimc.lumina.mcmap.cache;
+
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.mcmap.McMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A file next to an {@link McMap} that keeps the classes earlier runs looked up, already decoded with {@link ClassDataCodec}.
+ * <p>
+ * A short-lived process (like a Gradle worker) looks up the same classes on every start. With a sidecar set with {@link McMap#setSidecar(ClassSidecar)},
+ * those classes are rebuilt straight from the sidecar, without decompressing or parsing their blocks. Every class the {@link McMap}
+ * decodes is recorded, and {@link McMap#saveSidecar()} writes them together with the ones that were already in the sidecar.
+ * <p>
+ * The sidecar is keyed by {@link McMap#getContentHash()} and the {@link McMap.Version}, one that does not match is ignored and replaced on the next save.
+ *
+ * <pre><code>
+ * (0x5344434D) { // Total of 18 + i + d bytes big
+ * 	0x00 | 4 | Magic // MCDS
+ * 	0x04 | 1 | SidecarVersion
+ * 	0x05 | 1 | McMapVersion
+ * 	0x06 | 8 | ContentHash
+ * 	0x0E | 4 | ClassCount
+ * 	0x12 | i | Index // For every class: NameLength (2), UnmappedName, Sections (1), Offset (4), Length (4)
+ * 	0x12 + i | d | Classes // Every class in ClassDataCodec's encoding
+ * }
+ * </code></pre>
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public final class ClassSidecar {
+
+    static final int MAGIC = 0x5344434D;
+    static final byte VERSION = 0;
+    static final int HEADER_SIZE = 18;
+
+    /**
+     * Decodes a class for {@link #save(ClassDecoder)}, this is how the {@link McMap} provides the classes that are not in the sidecar yet.
+     */
+    @FunctionalInterface
+    public interface ClassDecoder {
+
+        /**
+         * @param unmappedName The unmapped name of the class.
+         * @param sections     The sections to decode, see {@link org.omnimc.lumina.mcmap.MappingBlock#ALL_SECTIONS}.
+         * @return A new {@link ClassData}, or {@code null} if there is no such class.
+         * @throws IOException If the class could not be decoded.
+         */
+        ClassData decode(String unmappedName, int sections) throws IOException;
+    }
+
+    private record Slot(int sections, int offset, int length) {
+    }
+
+    private final File file;
+    private final long contentHash;
+    private final McMap.Version version;
+
+    private final ByteBuffer data;
+    private final Map<String, Slot> slots;
+    private final ConcurrentHashMap<String, Integer> accessed = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private ClassSidecar(File file, long contentHash, McMap.Version version, ByteBuffer data, Map<String, Slot> slots) {
+        this.file = file;
+        this.contentHash = contentHash;
+        this.version = version;
+        this.data = data;
+        this.slots = slots;
+    }
+
+    /**
+     * @return Where the sidecar of {@code mcmapFile} is kept, next to it with a {@code .classes} extension.
+     */
+    public static File sidecarOf(File mcmapFile) {
+        return new File(mcmapFile.getPath() + ".classes");
+    }
+
+    /**
+     * Opens the sidecar of an {@link McMap}, it is read into memory once and a class is only decoded when it is looked up.
+     * <p>
+     * The file is not kept open or mapped, so {@link #save(ClassDecoder)} can replace it on every platform.
+     * <p>
+     * A missing sidecar, or one of another file or {@link McMap.Version}, is opened empty. Classes are then only recorded until it is saved.
+     *
+     * @param file  The sidecar file, usually {@link #sidecarOf(File)}.
+     * @param mcmap The {@link McMap} the sidecar belongs to.
+     * @return The sidecar, it still has to be given to {@link McMap#setSidecar(ClassSidecar)}.
+     * @throws IOException If the content hash of the {@link McMap} could not be read.
+     */
+    public static ClassSidecar open(File file, McMap mcmap) throws IOException {
+        long contentHash = mcmap.getContentHash();
+        McMap.Version version = mcmap.getVersion();
+
+        if (file.isFile()) {
+            try {
+                ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+                Map<String, Slot> slots = readIndex(data, contentHash, version);
+                if (slots != null) {
+                    return new ClassSidecar(file, contentHash, version, data, slots);
+                }
+            } catch (IOException | RuntimeException ignored) {
+                // A sidecar is only a cache, one that can't be read is the same as none.
+            }
+        }
+
+        return new ClassSidecar(file, contentHash, version, null, Map.of());
+    }
+
+    /**
+     * @return The classes in the index, or {@code null} if the sidecar is not of this content and version.
+     */
+    private static Map<String, Slot> readIndex(ByteBuffer data, long contentHash, McMap.Version version) {
+        if (data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC || data.get(4) != VERSION
+                || data.get(5) != version.getVersionByte() || data.getLong(6) != contentHash) {
+            return null;
+        }
+
+        int count = data.getInt(14);
+        Map<String, Slot> slots = new HashMap<>(Math.max(16, (int) (count / 0.75f) + 1));
+
+        int position = HEADER_SIZE;
+        for (int i = 0; i < count; i++) {
+            int nameLength = data.getShort(position) & 0xFFFF;
+            byte[] name = new byte[nameLength];
+            data.get(position + 2, name);
+            position += 2 + nameLength;
+
+            Slot slot = new Slot(data.get(position), data.getInt(position + 1), data.getInt(position + 5));
+            if (slot.offset < 0 || slot.length < 0 || slot.offset > data.limit() - slot.length) {
+                return null;
+            }
+
+            slots.put(new String(name, StandardCharsets.UTF_8), slot);
+            position += 9;
+        }
+        return slots;
+    }
+
+    /**
+     * Rebuilds a class from the sidecar.
+     *
+     * @param unmappedName The unmapped name of the class.
+     * @param sections     The sections that are needed.
+     * @return A new {@link ClassData} with at least {@code sections}, or {@code null} if the sidecar does not have them.
+     */
+    public SharedClassCache.CachedClass get(String unmappedName, int sections) {
+        Slot slot = slots.get(unmappedName);
+        if (slot == null || (sections & ~slot.sections) != 0) {
+            return null;
+        }
+
+        hits.increment();
+        return ClassDataCodec.decode(data, slot.offset);
+    }
+
+    /**
+     * Records that a class was looked up, so {@link #save(ClassDecoder)} writes it.
+     */
+    public void recordAccess(String unmappedName, int sections) {
+        accessed.merge(unmappedName, sections, (a, b) -> a | b);
+    }
+
+    /**
+     * Writes every class that was in the sidecar or was recorded since it was opened, replacing the file.
+     * <p>
+     * Classes that are already in the sidecar with every needed section are copied as they are, the rest are decoded with {@code decoder}.
+     * The file is written next to the old one and then atomically moved over it, so a process opening it never sees a partly written sidecar.
+     * Some platforms (like Windows) refuse to replace a file another process has open at that moment, the old sidecar is then left as it was.
+     *
+     * @param decoder Decodes the classes that are not in the sidecar yet.
+     * @return The amount of bytes written.
+     * @throws IOException If the sidecar could not be written or replaced, or a class could not be decoded.
+     */
+    public long save(ClassDecoder decoder) throws IOException {
+        Map<String, Integer> wanted = new LinkedHashMap<>();
+        slots.forEach((name, slot) -> wanted.put(name, slot.sections));
+        accessed.forEach((name, sections) -> wanted.merge(name, sections, (a, b) -> a | b));
+
+        List<byte[]> names = new ArrayList<>(wanted.size());
+        List<byte[]> classes = new ArrayList<>(wanted.size());
+        List<Integer> classSections = new ArrayList<>(wanted.size());
+        int indexLength = 0;
+        int dataLength = 0;
+
+        for (Map.Entry<String, Integer> entry : wanted.entrySet()) {
+            String name = entry.getKey();
+            int sections = entry.getValue();
+
+            byte[] encoded;
+            Slot slot = slots.get(name);
+            if (slot != null && (sections & ~slot.sections) == 0) {
+                encoded = new byte[slot.length];
+                data.get(slot.offset, encoded);
+            } else {
+                ClassData classData = decoder.decode(name, sections);
+                if (classData == null) {
+                    continue;
+                }
+                encoded = ClassDataCodec.encode(classData, sections);
+            }
+
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            names.add(nameBytes);
+            classes.add(encoded);
+            classSections.add(sections);
+            indexLength += 2 + nameBytes.length + 9;
+            dataLength += encoded.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + indexLength + dataLength).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC)
+                .put(VERSION)
+                .put(version.getVersionByte())
+                .putLong(contentHash)
+                .putInt(names.size());
+
+        int offset = HEADER_SIZE + indexLength;
+        for (int i = 0; i < names.size(); i++) {
+            buffer.putShort((short) names.get(i).length)
+                    .put(names.get(i))
+                    .put(classSections.get(i).byteValue())
+                    .putInt(offset)
+                    .putInt(classes.get(i).length);
+            offset += classes.get(i).length;
+        }
+
+        for (byte[] encoded : classes) {
+            buffer.put(encoded);
+        }
+        buffer.flip();
+
+        File temporary = new File(file.getPath() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                                        StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary.toPath());
+            throw e;
+        }
+        return buffer.limit();
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return The amount of classes the sidecar had when it was opened.
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * @return The amount of classes recorded since the sidecar was opened.
+     */
+    public int getAccessedCount() {
+        return accessed.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+}
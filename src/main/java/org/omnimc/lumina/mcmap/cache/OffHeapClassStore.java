@@ -0,0 +1,233 @@
+package org.omnimc.lumina.mcmap.cache;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A second tier for a {@link SharedClassCache}, classes it evicts are kept here in {@link ClassDataCodec}'s encoding outside the heap.
+ * <p>
+ * The store is a ring written front to back, either a direct {@link ByteBuffer} or a memory-mapped scratch file. When it is full the oldest
+ * classes are overwritten, so it never needs to be compacted and costs no garbage collection work however big it is. Rebuilding a class
+ * from it skips both decompressing and parsing.
+ * <p>
+ * Writing takes a lock, reading does not. A reader copies a class out of the ring and then checks it was not overwritten in the meantime,
+ * the same way {@link java.util.concurrent.locks.StampedLock#validate(long)} checks an optimistic read.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public final class OffHeapClassStore implements Closeable {
+
+    /**
+     * A class may take at most this part of the ring, so one class can't push out everything else.
+     */
+    private static final int MAX_ENTRY_FRACTION = 4;
+
+    /**
+     * Where a class is in the ring.
+     *
+     * @param start    The position it was written at, this only ever grows and wraps around the ring.
+     * @param length   The length of its encoding.
+     * @param sections The sections it holds.
+     * @param cost     The cost it had in the {@link SharedClassCache}, so it can be put back with it.
+     */
+    private record Slot(SharedClassCache.Key key, long start, int length, int sections, long cost) {
+    }
+
+    /**
+     * A class read back from the store.
+     */
+    record Entry(SharedClassCache.CachedClass value, long cost) {
+    }
+
+    private final ByteBuffer ring;
+    private final int capacity;
+    private final File scratchFile;
+
+    private final ConcurrentHashMap<SharedClassCache.Key, Slot> slots = new ConcurrentHashMap<>();
+    /* Guarded by this, the slots in the order they were written */
+    private final ArrayDeque<Slot> written = new ArrayDeque<>();
+    /**
+     * The position the next class is written at, everything before {@code head - capacity} has been overwritten.
+     */
+    private volatile long head;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a store in direct memory.
+     *
+     * @param capacity The size of the store in bytes.
+     */
+    public OffHeapClassStore(long capacity) {
+        this.capacity = checkCapacity(capacity);
+        this.ring = ByteBuffer.allocateDirect(this.capacity);
+        this.scratchFile = null;
+    }
+
+    /**
+     * Creates a store in a memory-mapped scratch file, the operating system can then page out the parts that are not used.
+     * <p>
+     * The file is overwritten, and deleted again when the store is closed.
+     *
+     * @param scratchFile The file to map.
+     * @param capacity    The size of the store in bytes.
+     */
+    public OffHeapClassStore(File scratchFile, long capacity) {
+        this.capacity = checkCapacity(capacity);
+        this.scratchFile = scratchFile;
+
+        try (FileChannel channel = FileChannel.open(scratchFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            this.ring = channel.map(FileChannel.MapMode.READ_WRITE, 0, this.capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map " + scratchFile, e);
+        }
+    }
+
+    private static int checkCapacity(long capacity) {
+        if (capacity <= 0 || capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacity has to be between 1 and " + Integer.MAX_VALUE + ": " + capacity);
+        }
+        return (int) capacity;
+    }
+
+    /**
+     * Stores a class, overwriting the oldest ones if there is no room left.
+     *
+     * @return {@code false} if the class is too big to be stored.
+     */
+    boolean put(SharedClassCache.Key key, SharedClassCache.CachedClass value, long cost) {
+        Slot existing = slots.get(key);
+        if (existing != null && isLive(existing) && existing.sections == value.sections()) {
+            // It was promoted and then evicted again without changing, the stored copy is still good.
+            return true;
+        }
+
+        byte[] encoded = ClassDataCodec.encode(value.classData(), value.sections());
+        if (encoded.length > capacity / MAX_ENTRY_FRACTION) {
+            return false;
+        }
+
+        synchronized (this) {
+            long start = head;
+            int offset = offsetOf(start);
+            if (offset + encoded.length > capacity) {
+                // A class is never split, skip what is left of this lap.
+                start += capacity - offset;
+                offset = 0;
+            }
+
+            // Moved before the bytes are written, so a reader of a class that is about to be overwritten sees it is gone.
+            head = start + encoded.length;
+            expire(head - capacity);
+
+            // A volatile write only keeps the stores before it in place, this keeps the bytes below from being written before the new head.
+            VarHandle.storeStoreFence();
+            ring.put(offset, encoded);
+
+            Slot slot = new Slot(key, start, encoded.length, value.sections(), cost);
+            slots.put(key, slot);
+            written.addLast(slot);
+        }
+        return true;
+    }
+
+    /**
+     * @return The stored class, or {@code null} if it was never stored or has been overwritten.
+     */
+    Entry get(SharedClassCache.Key key) {
+        Slot slot = slots.get(key);
+        if (slot == null || !isLive(slot)) {
+            misses.increment();
+            return null;
+        }
+
+        byte[] copy = new byte[slot.length];
+        ring.get(offsetOf(slot.start), copy);
+
+        VarHandle.acquireFence();
+        if (!isLive(slot)) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return new Entry(ClassDataCodec.decode(ByteBuffer.wrap(copy), 0), slot.cost);
+    }
+
+    /**
+     * Forgets every class of a source, the bytes stay until they are overwritten.
+     */
+    synchronized void invalidate(Object identity) {
+        slots.keySet().removeIf(key -> key.identity().equals(identity));
+    }
+
+    public synchronized void clear() {
+        slots.clear();
+        written.clear();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return How much of the ring has been written to, once it has wrapped around this is the whole ring.
+     */
+    public long getUsedBytes() {
+        return Math.min(head, capacity);
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Forgets every class, and deletes the scratch file if there is one. The memory itself is released once the store is garbage collected.
+     */
+    @Override
+    public void close() {
+        clear();
+        if (scratchFile != null && !scratchFile.delete() && scratchFile.exists()) {
+            scratchFile.deleteOnExit();
+        }
+    }
+
+    private boolean isLive(Slot slot) {
+        return slot.start >= head - capacity;
+    }
+
+    private int offsetOf(long position) {
+        return (int) (position % capacity);
+    }
+
+    /**
+     * Drops the slots that start before {@code oldest}, they are being overwritten.
+     */
+    private void expire(long oldest) {
+        Slot slot;
+        while ((slot = written.peekFirst()) != null && slot.start < oldest) {
+            written.removeFirst();
+            slots.remove(slot.key, slot);
+        }
+    }
+}
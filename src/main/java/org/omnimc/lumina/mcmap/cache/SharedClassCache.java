@@ -0,0 +1,309 @@
+package org.omnimc.lumina.mcmap.cache;
+
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.mcmap.McMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of decoded classes with a single memory budget, shared by every {@link McMap} it is given to with {@link McMap#setCache(SharedClassCache)}.
+ * <p>
+ * Classes are keyed by the identity of the {@link McMap}'s source and their unmapped name, so two {@link McMap}s of the same unchanged file
+ * share their classes. Memory goes to whichever {@link McMap} is hot, instead of every {@link McMap} keeping everything it ever decoded.
+ * <p>
+ * Eviction is GreedyDual-Size-Frequency: the priority of a class is {@code L + hits / cost}, and {@code L} is raised to the priority of every
+ * evicted class. Small classes that are asked for often stay, big or stale ones go first. The victim is the lowest priority out of a small random
+ * sample, so neither a hit nor an eviction has to keep the classes sorted.
+ * <p>
+ * Lookups are lock-free, inserting and evicting take a lock. A cached {@link ClassData} is never changed, when more sections of it are needed
+ * the {@link McMap} decodes a new one and replaces it.
+ * <p>
+ * An {@link OffHeapClassStore} can be given as a second tier, evicted classes are then written to it and a miss is rebuilt from it
+ * before the {@link McMap} has to decompress and parse the class again.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public final class SharedClassCache {
+
+    /**
+     * How many classes are looked at to pick one to evict.
+     */
+    private static final int EVICTION_SAMPLE = 8;
+    /**
+     * Scales {@code hits / cost}, so a hit on a few kilobyte class is worth about one.
+     */
+    private static final double PRIORITY_SCALE = 4096;
+
+    /**
+     * A cached class and the {@code MappingBlock} sections it holds.
+     *
+     * @param classData The decoded class, it must not be changed.
+     * @param sections  The sections in {@code classData}, see {@link org.omnimc.lumina.mcmap.MappingBlock#ALL_SECTIONS}.
+     */
+    public record CachedClass(ClassData classData, int sections) {
+    }
+
+    record Key(Object identity, String className) {
+    }
+
+    private final long budget;
+    private volatile OffHeapClassStore secondTier;
+
+    private final ConcurrentHashMap<Key, Node> entries = new ConcurrentHashMap<>();
+    /* Guarded by this */
+    private final List<Node> nodes = new ArrayList<>();
+    private long usedBytes;
+    private volatile double inflation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder secondTierHits = new LongAdder();
+
+    /**
+     * @param budget The most bytes all cached classes may use together, see {@link #put(Object, String, ClassData, int, long)} for how they are counted.
+     */
+    public SharedClassCache(long budget) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("Budget has to be positive: " + budget);
+        }
+        this.budget = budget;
+    }
+
+    /**
+     * @param budget     The most bytes all cached classes may use together on the heap.
+     * @param secondTier Where evicted classes are kept, see {@link #setSecondTier(OffHeapClassStore)}.
+     */
+    public SharedClassCache(long budget, OffHeapClassStore secondTier) {
+        this(budget);
+        this.secondTier = secondTier;
+    }
+
+    /**
+     * @param identity  The identity of the {@link McMap}'s source.
+     * @param className The unmapped name of the class.
+     * @return The cached class, or {@code null} if it is not cached.
+     */
+    public CachedClass get(Object identity, String className) {
+        Key key = new Key(identity, className);
+        Node node = entries.get(key);
+        if (node == null) {
+            misses.increment();
+            return promote(key);
+        }
+
+        hits.increment();
+        node.touch(inflation);
+        return node.value;
+    }
+
+    /**
+     * Caches a class, replacing what was cached for it before, and then evicts until the budget fits again.
+     *
+     * @param identity  The identity of the {@link McMap}'s source.
+     * @param className The unmapped name of the class.
+     * @param classData The decoded class, it must not be changed once it is cached.
+     * @param sections  The sections in {@code classData}.
+     * @param cost      The estimated heap size of {@code classData} in bytes, a class bigger than the whole budget is not cached.
+     */
+    public void put(Object identity, String className, ClassData classData, int sections, long cost) {
+        Objects.requireNonNull(classData, "ClassData cannot be NULL.");
+        if (cost > budget) {
+            return;
+        }
+
+        put(new Key(identity, className), new CachedClass(classData, sections), cost);
+    }
+
+    private void put(Key key, CachedClass value, long cost) {
+        long cappedCost = Math.max(cost, 1);
+
+        List<Node> evicted = new ArrayList<>(0);
+        synchronized (this) {
+            Node node = entries.get(key);
+            if (node == null) {
+                node = new Node(key, value, cappedCost, nodes.size());
+                nodes.add(node);
+                entries.put(key, node);
+            } else {
+                usedBytes -= node.cost;
+                node.value = value;
+                node.cost = cappedCost;
+            }
+
+            usedBytes += cappedCost;
+            node.touch(inflation);
+
+            while (usedBytes > budget && nodes.size() > 1) {
+                evicted.add(evict(node));
+            }
+        }
+
+        // Encoding is the slow part, so it is done after the lock is released.
+        OffHeapClassStore store = secondTier;
+        if (store != null) {
+            for (Node victim : evicted) {
+                store.put(victim.key, victim.value, victim.cost);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds a class from the second tier and caches it on the heap again.
+     */
+    private CachedClass promote(Key key) {
+        OffHeapClassStore store = secondTier;
+        if (store == null) {
+            return null;
+        }
+
+        OffHeapClassStore.Entry entry = store.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        secondTierHits.increment();
+        put(key, entry.value(), entry.cost());
+        return entry.value();
+    }
+
+    /**
+     * Sets where evicted classes are kept, or {@code null} to drop them. Classes that were already evicted are not written to the new tier.
+     */
+    public void setSecondTier(OffHeapClassStore secondTier) {
+        this.secondTier = secondTier;
+    }
+
+    public OffHeapClassStore getSecondTier() {
+        return secondTier;
+    }
+
+    /**
+     * Removes every class of a source, like when its file was rewritten.
+     */
+    public void invalidate(Object identity) {
+        synchronized (this) {
+            for (Node node : new ArrayList<>(nodes)) {
+                if (node.key.identity().equals(identity)) {
+                    remove(node);
+                }
+            }
+        }
+
+        OffHeapClassStore store = secondTier;
+        if (store != null) {
+            store.invalidate(identity);
+        }
+    }
+
+    /**
+     * Removes every class from the heap, the second tier is left as it is.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        nodes.clear();
+        usedBytes = 0;
+        inflation = 0;
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return How many of the misses were rebuilt from the second tier.
+     */
+    public long getSecondTierHitCount() {
+        return secondTierHits.sum();
+    }
+
+    /**
+     * Evicts the lowest priority class out of a random sample, {@code keep} is the class that was just put and is never chosen.
+     *
+     * @return The evicted class.
+     */
+    private Node evict(Node keep) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        Node victim = null;
+        int samples = Math.min(EVICTION_SAMPLE, nodes.size());
+        for (int i = 0; i < samples; i++) {
+            Node candidate = nodes.get(random.nextInt(nodes.size()));
+            if (candidate != keep && (victim == null || candidate.priority < victim.priority)) {
+                victim = candidate;
+            }
+        }
+
+        if (victim == null) {
+            // Every sample was the class that was just put, take its neighbour instead.
+            victim = nodes.get(keep.index == 0 ? 1 : keep.index - 1);
+        }
+
+        inflation = Math.max(inflation, victim.priority);
+        remove(victim);
+        evictions.increment();
+        return victim;
+    }
+
+    private void remove(Node node) {
+        entries.remove(node.key, node);
+
+        Node last = nodes.remove(nodes.size() - 1);
+        if (last != node) {
+            nodes.set(node.index, last);
+            last.index = node.index;
+        }
+        usedBytes -= node.cost;
+    }
+
+    private static final class Node {
+
+        private final Key key;
+        private volatile CachedClass value;
+        private long cost;
+        private int index;
+
+        /*
+         * Updated without a lock on hits, a lost update only makes the priority slightly off.
+         */
+        private int frequency;
+        private volatile double priority;
+
+        Node(Key key, CachedClass value, long cost, int index) {
+            this.key = key;
+            this.value = value;
+            this.cost = cost;
+            this.index = index;
+        }
+
+        void touch(double inflation) {
+            priority = inflation + ++frequency * PRIORITY_SCALE / cost;
+        }
+    }
+}
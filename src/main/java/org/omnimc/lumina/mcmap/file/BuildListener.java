@@ -0,0 +1,63 @@
+package org.omnimc.lumina.mcmap.file;
+
+import org.omnimc.lumina.data.serialization.ParseError;
+import org.omnimc.lumina.util.SerializationHelper;
+
+/**
+ * Receives the progress of a {@link FileFactory}, so a long build can show a progress bar or be logged.
+ * <p>
+ * Every callback is made on the thread that is building, and every method has a default, so only the ones needed have to be implemented.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public interface BuildListener {
+
+    /**
+     * Does nothing, apart from giving parse errors to {@link SerializationHelper#getDefaultErrorSink()}.
+     */
+    BuildListener NONE = new BuildListener() {
+    };
+
+    /**
+     * How many classes are parsed, compressed or written between each call to {@link #onProgress(BuildPhase, long, long)}.
+     */
+    int PROGRESS_INTERVAL = 256;
+
+    /**
+     * The total given to {@link #onProgress(BuildPhase, long, long)} while it is not known yet.
+     */
+    long UNKNOWN_TOTAL = -1;
+
+    default void onPhaseStarted(BuildPhase phase) {
+    }
+
+    /**
+     * Called every {@link #PROGRESS_INTERVAL} classes, and once more when the phase is done.
+     * <p>
+     * {@link BuildPhase#PARSE} only knows how many classes there are once the stream is read, until then its total is {@link #UNKNOWN_TOTAL}.
+     * {@link BuildPhase#WRITE} counts bytes instead of classes, it is also called once the headers are written.
+     *
+     * @param phase     The phase that made progress.
+     * @param completed The amount of classes, or bytes for {@link BuildPhase#WRITE}, done so far.
+     * @param total     The amount of classes, or bytes of the whole file for {@link BuildPhase#WRITE}, in the phase. {@link #UNKNOWN_TOTAL} if it is not known yet.
+     */
+    default void onProgress(BuildPhase phase, long completed, long total) {
+    }
+
+    default void onPhaseFinished(BuildPhase phase, long nanos) {
+    }
+
+    /**
+     * Called for every line that failed to parse during {@link BuildPhase#PARSE}.
+     */
+    default void onParseError(ParseError error) {
+        SerializationHelper.getDefaultErrorSink().onError(error);
+    }
+
+    /**
+     * Called once the file is written.
+     */
+    default void onFinished(BuildReport report) {
+    }
+}
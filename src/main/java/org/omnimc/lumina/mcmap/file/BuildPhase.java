@@ -0,0 +1,26 @@
+package org.omnimc.lumina.mcmap.file;
+
+/**
+ * The phases a {@link FileFactory} goes through, in order.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public enum BuildPhase {
+    /**
+     * Reading the mappings from a stream, this is skipped when the {@link FileFactory} is given {@code Mappings}.
+     */
+    PARSE,
+    /**
+     * Compressing every class into an {@link EntryBlock}.
+     */
+    COMPRESS,
+    /**
+     * Writing the headers and the compressed data to the file.
+     */
+    WRITE,
+    /**
+     * Writing the optional search index, only when {@link FileFactory#writeSearchIndex()} is called.
+     */
+    INDEX
+}
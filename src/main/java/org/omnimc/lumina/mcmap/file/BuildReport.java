@@ -0,0 +1,32 @@
+package org.omnimc.lumina.mcmap.file;
+
+import org.omnimc.lumina.mcmap.McMap.Version;
+
+/**
+ * A summary of a finished {@link FileFactory} build, given to {@link BuildListener#onFinished(BuildReport)}.
+ *
+ * @param version           The version the file was written as.
+ * @param classes           The amount of classes in the file.
+ * @param uncompressedBytes The size of every section before compression.
+ * @param compressedBytes   The size of every section after compression.
+ * @param bytesWritten      The size of the file.
+ * @param parseNanos        How long {@link BuildPhase#PARSE} took, {@code 0} if it was skipped.
+ * @param compressNanos     How long {@link BuildPhase#COMPRESS} took.
+ * @param writeNanos        How long {@link BuildPhase#WRITE} took.
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public record BuildReport(Version version, int classes, long uncompressedBytes, long compressedBytes, long bytesWritten,
+                          long parseNanos, long compressNanos, long writeNanos) {
+
+    /**
+     * @return The uncompressed size divided by the compressed size, or {@code 1} when nothing was compressed.
+     */
+    public double compressionRatio() {
+        return compressedBytes == 0 ? 1 : (double) uncompressedBytes / compressedBytes;
+    }
+
+    public long totalNanos() {
+        return parseNanos + compressNanos + writeNanos;
+    }
+}
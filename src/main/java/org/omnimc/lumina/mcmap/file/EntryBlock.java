@@ -23,9 +23,14 @@ public class EntryBlock {
     private int uncompressedFieldLength;
     private byte[] methodCompressedData;
     private int uncompressedMethodLength;
+    private byte[] parameterCompressedData;
+    private int uncompressedParameterLength;
+
+    private int[] superTypeIndices = new int[0];
 
     private long fieldOffsetPos = -1;
     private long methodOffsetPos = -1;
+    private long parameterOffsetPos = -1;
 
     public EntryBlock(String unMappedName, String mappedName, Version version) {
         this.unMappedName = unMappedName;
@@ -49,18 +54,33 @@ public class EntryBlock {
         this.uncompressedMethodLength = uncompressedMethodLength;
     }
 
+    public void setParameterCompressedData(byte[] parameterCompressedData) {
+        this.parameterCompressedData = parameterCompressedData;
+    }
+
+    public void setUncompressedParameterLength(int uncompressedParameterLength) {
+        this.uncompressedParameterLength = uncompressedParameterLength;
+    }
+
+    public void setSuperTypeIndices(int[] superTypeIndices) {
+        this.superTypeIndices = superTypeIndices;
+    }
+
     public void writeTo(RandomAccessFile raf) throws IOException {
         LittleEndian.writeShortLE(raf, McMap.ENTRY_BLOCK_MAGIC);
 
-        if (mappedName.length() > Short.MAX_VALUE) {
-            throw new IllegalArgumentException("Mapped name too long: " + mappedName.length());
+        // The lengths are in UTF-8 bytes, which is what the reader reads, a non-ASCII name has more bytes than chars.
+        byte[] mappedNameBytes = mappedName.getBytes(StandardCharsets.UTF_8);
+        if (mappedNameBytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Mapped name too long: " + mappedNameBytes.length);
         }
-        LittleEndian.writeShortLE(raf, (short) mappedName.length());
+        LittleEndian.writeShortLE(raf, (short) mappedNameBytes.length);
 
-        if (unMappedName.length() > Short.MAX_VALUE) {
-            throw new IllegalArgumentException("Unmapped name too long: " + unMappedName.length());
+        byte[] unMappedNameBytes = unMappedName.getBytes(StandardCharsets.UTF_8);
+        if (unMappedNameBytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Unmapped name too long: " + unMappedNameBytes.length);
         }
-        LittleEndian.writeShortLE(raf, (short) unMappedName.length());
+        LittleEndian.writeShortLE(raf, (short) unMappedNameBytes.length);
 
         switch (version) {
             case V1 -> {
@@ -69,7 +89,7 @@ public class EntryBlock {
                 fieldOffsetPos = raf.getFilePointer();
                 LittleEndian.writeIntLE(raf, 0);
             }
-            case V2 -> {
+            case V2, V3, V4 -> {
                 LittleEndian.writeIntLE(raf, fieldCompressedData.length);
                 LittleEndian.writeIntLE(raf, methodCompressedData.length);
                 LittleEndian.writeIntLE(raf, uncompressedFieldLength);
@@ -80,12 +100,33 @@ public class EntryBlock {
 
                 methodOffsetPos = raf.getFilePointer();
                 LittleEndian.writeIntLE(raf, 0);
+
+                if (version == Version.V4) {
+                    LittleEndian.writeIntLE(raf, parameterCompressedData.length);
+                    LittleEndian.writeIntLE(raf, uncompressedParameterLength);
+
+                    parameterOffsetPos = raf.getFilePointer();
+                    LittleEndian.writeIntLE(raf, 0);
+                }
             }
             default -> throw new IllegalArgumentException("Unsupported version: " + version);
         }
 
-        raf.write(mappedName.getBytes(StandardCharsets.UTF_8));
-        raf.write(unMappedName.getBytes(StandardCharsets.UTF_8));
+        if (version == Version.V3 || version == Version.V4) {
+            if (superTypeIndices.length > 0xFFFF) {
+                throw new IllegalArgumentException("Too many super types: " + superTypeIndices.length);
+            }
+            LittleEndian.writeShortLE(raf, (short) superTypeIndices.length);
+        }
+
+        raf.write(mappedNameBytes);
+        raf.write(unMappedNameBytes);
+
+        if (version == Version.V3 || version == Version.V4) {
+            for (int superTypeIndex : superTypeIndices) {
+                LittleEndian.writeIntLE(raf, superTypeIndex);
+            }
+        }
     }
 
     public void writeData(RandomAccessFile raf) throws IOException {
@@ -101,7 +142,7 @@ public class EntryBlock {
 
                 raf.seek(fieldOffset + fieldCompressedData.length);
             }
-            case V2 -> {
+            case V2, V3 -> {
                 fieldOffset = (int) raf.getFilePointer();
                 raf.write(fieldCompressedData);
 
@@ -116,6 +157,27 @@ public class EntryBlock {
 
                 raf.seek(methodOffset + methodCompressedData.length);
             }
+            case V4 -> {
+                fieldOffset = (int) raf.getFilePointer();
+                raf.write(fieldCompressedData);
+
+                int methodOffset = (int) raf.getFilePointer();
+                raf.write(methodCompressedData);
+
+                int parameterOffset = (int) raf.getFilePointer();
+                raf.write(parameterCompressedData);
+
+                raf.seek(fieldOffsetPos);
+                LittleEndian.writeIntLE(raf, fieldOffset);
+
+                raf.seek(methodOffsetPos);
+                LittleEndian.writeIntLE(raf, methodOffset);
+
+                raf.seek(parameterOffsetPos);
+                LittleEndian.writeIntLE(raf, parameterOffset);
+
+                raf.seek(parameterOffset + parameterCompressedData.length);
+            }
             default -> throw new IllegalArgumentException("Unsupported version: " + version);
         }
     }
@@ -130,8 +192,12 @@ public class EntryBlock {
                 ", uncompressedFieldLength=" + uncompressedFieldLength +
                 ", methodCompressedData=" + Arrays.toString(methodCompressedData) +
                 ", uncompressedMethodLength=" + uncompressedMethodLength +
+                ", parameterCompressedData=" + Arrays.toString(parameterCompressedData) +
+                ", uncompressedParameterLength=" + uncompressedParameterLength +
+                ", superTypeIndices=" + Arrays.toString(superTypeIndices) +
                 ", fieldOffsetPos=" + fieldOffsetPos +
                 ", methodOffsetPos=" + methodOffsetPos +
+                ", parameterOffsetPos=" + parameterOffsetPos +
                 '}';
     }
 }
\ No newline at end of file
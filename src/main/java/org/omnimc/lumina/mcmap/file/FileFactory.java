@@ -2,17 +2,22 @@ package org.omnimc.lumina.mcmap.file;
 
 import org.omnimc.lumina.data.Mappings;
 import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.mcmap.jfr.McMapWriteEvent;
 import org.omnimc.lumina.mcmap.lz4.MappingCompressor;
 import org.omnimc.lumina.mcmap.McMap;
 import org.omnimc.lumina.mcmap.McMap.Version;
+import org.omnimc.lumina.mcmap.search.SearchIndex;
+import org.omnimc.lumina.mcmap.search.SearchIndexWriter;
 import org.omnimc.lumina.data.serialization.LineSerializer;
 import org.omnimc.lumina.util.LittleEndian;
 import org.omnimc.lumina.util.SerializationHelper;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * @author <a href=https://github.com/CadenCCC>Caden</a>
@@ -24,28 +29,73 @@ public final class FileFactory {
 
     private final File location;
     private final Version version;
+    private final BuildListener listener;
+    /**
+     * Kept until the file is built, so {@link #writeSearchIndex()} can index the names.
+     */
+    private final Mappings mappings;
+
+    private long parseNanos;
+    /**
+     * How long {@link #populateEntries(Mappings)} took, it is reported with the {@link McMapWriteEvent}.
+     */
+    private long compressNanos;
+    private long uncompressedBytes;
+    private long compressedBytes;
 
     public FileFactory(InputStream stream, File location, LineSerializer serializer, Version version) {
+        this(stream, location, serializer, version, BuildListener.NONE);
+    }
+
+    public FileFactory(InputStream stream, File location, LineSerializer serializer, Version version, BuildListener listener) {
         this.location = location;
         this.version = version;
+        this.listener = Objects.requireNonNull(listener, "Listener cannot be NULL, use BuildListener.NONE instead.");
 
+        listener.onPhaseStarted(BuildPhase.PARSE);
+        long start = System.nanoTime();
         Mappings mappings = new Mappings();
-        Mappings populatedMappings = SerializationHelper.getMappingsFromInputStream(stream, serializer, mappings);
+        Mappings populatedMappings = SerializationHelper.getMappingsFromInputStream(stream, serializer, mappings, listener::onParseError, classes -> {
+            if (classes % BuildListener.PROGRESS_INTERVAL == 0) {
+                listener.onProgress(BuildPhase.PARSE, classes, BuildListener.UNKNOWN_TOTAL);
+            }
+        });
+        int parsed = populatedMappings.getClasses().size();
+        listener.onProgress(BuildPhase.PARSE, parsed, parsed);
+        this.parseNanos = System.nanoTime() - start;
+        listener.onPhaseFinished(BuildPhase.PARSE, parseNanos);
+
+        this.mappings = populatedMappings;
         populateEntries(populatedMappings);
     }
 
     public FileFactory(Mappings mappings, File location, Version version) {
+        this(mappings, location, version, BuildListener.NONE);
+    }
+
+    public FileFactory(Mappings mappings, File location, Version version, BuildListener listener) {
         this.location = location;
         this.version = version;
+        this.listener = Objects.requireNonNull(listener, "Listener cannot be NULL, use BuildListener.NONE instead.");
+        this.mappings = mappings;
 
         populateEntries(mappings);
     }
 
     public void writeFile() {
+        McMapWriteEvent event = new McMapWriteEvent();
+        event.begin();
+
         if (location.exists() && !location.delete()) {
             throw new RuntimeException("Failed to delete existing file: " + location);
         }
 
+        // A search index of the old file would no longer match, it is written again by writeSearchIndex().
+        File searchIndex = SearchIndex.sidecarOf(location);
+        if (searchIndex.exists() && !searchIndex.delete()) {
+            throw new RuntimeException("Failed to delete stale search index: " + searchIndex);
+        }
+
         try {
             if (!location.createNewFile()) {
                 throw new IOException("Failed to create new file: " + location);
@@ -60,23 +110,84 @@ public final class FileFactory {
             raf.write(version.getVersionByte());
             LittleEndian.writeIntLE(raf, entries.size());
 
+            listener.onPhaseStarted(BuildPhase.WRITE);
+            long start = System.nanoTime();
             for (EntryBlock entry : entries) {
                 entry.writeTo(raf);
             }
-            for (EntryBlock entry : entries) {
-                entry.writeData(raf);
+
+            long headersWritten = System.nanoTime();
+            // The data of every EntryBlock follows the headers, so the file ends up as long as the headers and all compressed data.
+            long totalBytes = raf.getFilePointer() + compressedBytes;
+            listener.onProgress(BuildPhase.WRITE, raf.getFilePointer(), totalBytes);
+            int total = entries.size();
+            for (int i = 0; i < total; i++) {
+                entries.get(i).writeData(raf);
+                if ((i + 1) % BuildListener.PROGRESS_INTERVAL == 0 || i + 1 == total) {
+                    listener.onProgress(BuildPhase.WRITE, raf.getFilePointer(), totalBytes);
+                }
+            }
+
+            long writeNanos = System.nanoTime() - start;
+            listener.onPhaseFinished(BuildPhase.WRITE, writeNanos);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.setFile(location.getPath());
+                event.setVersion(version.name());
+                event.setClasses(entries.size());
+                event.setFileSize(raf.length());
+                event.setPhases(compressNanos, headersWritten - start, System.nanoTime() - headersWritten);
+                event.commit();
             }
 
+            listener.onFinished(new BuildReport(version, total, uncompressedBytes, compressedBytes, raf.length(), parseNanos, compressNanos, writeNanos));
+
         } catch (IOException e) {
             throw new RuntimeException("Failed to write file: " + location, e);
         }
     }
 
+    /**
+     * Writes the optional {@link SearchIndex} of the mappings next to the file, at {@link SearchIndex#sidecarOf(File)}.
+     * <p>
+     * The {@link McMap} itself does not need it, it is only for tools that search names by substring.
+     * It has to be called after {@link #writeFile()}, the index keeps the {@link McMap#getContentHash()} of the written file.
+     *
+     * @return The search index file.
+     */
+    public File writeSearchIndex() {
+        File sidecar = SearchIndex.sidecarOf(location);
+
+        listener.onPhaseStarted(BuildPhase.INDEX);
+        long start = System.nanoTime();
+        long contentHash;
+        try {
+            contentHash = McMap.getContentHash(location);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to hash file, it has to be written before its search index: " + location, e);
+        }
+        new SearchIndexWriter(mappings, contentHash).write(sidecar);
+        listener.onPhaseFinished(BuildPhase.INDEX, System.nanoTime() - start);
+        return sidecar;
+    }
+
     public McMap finish() throws IOException {
         return new McMap(location);
     }
 
     private void populateEntries(Mappings mappings) {
+        listener.onPhaseStarted(BuildPhase.COMPRESS);
+        long start = System.nanoTime();
+        int total = mappings.getClasses().size();
+
+        Map<String, Integer> entryIndices = new HashMap<>();
+        if (version == Version.V3 || version == Version.V4) {
+            for (String unmapped : mappings.getClasses().keySet()) {
+                entryIndices.put(unmapped, entryIndices.size());
+            }
+        }
+
         for (Map.Entry<String, ClassData> entry : mappings.getClasses().entrySet()) {
             String unmapped = entry.getKey();
             ClassData classData = entry.getValue();
@@ -85,18 +196,61 @@ public final class FileFactory {
             EntryBlock block = new EntryBlock(unmapped, classData.getClassName(), version);
 
             if (version == Version.V1) {
-                block.setFieldCompressedData(compressor.getAllDataCompressed());
+                byte[] compressed = compressor.getAllDataCompressed();
+                block.setFieldCompressedData(compressed);
                 block.setUncompressedFieldLength(compressor.getAllDataUncompressedLength());
-            } else if (version == Version.V2) {
-                block.setFieldCompressedData(compressor.getCompressedFields());
-                block.setMethodCompressedData(compressor.getCompressedMethods());
+
+                compressedBytes += compressed.length;
+                uncompressedBytes += compressor.getAllDataUncompressedLength();
+            } else if (version == Version.V2 || version == Version.V3 || version == Version.V4) {
+                byte[] fields = compressor.getCompressedFields();
+                byte[] methods = compressor.getCompressedMethods();
+                block.setFieldCompressedData(fields);
+                block.setMethodCompressedData(methods);
                 block.setUncompressedFieldLength(compressor.getUncompressedFieldLength());
                 block.setUncompressedMethodLength(compressor.getUncompressedMethodLength());
+
+                compressedBytes += fields.length + methods.length;
+                uncompressedBytes += compressor.getUncompressedFieldLength() + compressor.getUncompressedMethodLength();
+
+                if (version != Version.V2) {
+                    block.setSuperTypeIndices(getSuperTypeIndices(classData, entryIndices));
+                }
+
+                if (version == Version.V4) {
+                    byte[] parameters = compressor.getCompressedParameters();
+                    block.setParameterCompressedData(parameters);
+                    block.setUncompressedParameterLength(compressor.getUncompressedParameterLength());
+
+                    compressedBytes += parameters.length;
+                    uncompressedBytes += compressor.getUncompressedParameterLength();
+                }
             } else {
                 throw new UnsupportedOperationException("Unsupported version: " + version);
             }
             entries.add(block);
+            reportProgress(BuildPhase.COMPRESS, entries.size(), total);
         }
+
+        this.compressNanos = System.nanoTime() - start;
+        listener.onPhaseFinished(BuildPhase.COMPRESS, compressNanos);
+    }
+
+    private void reportProgress(BuildPhase phase, int completed, int total) {
+        if (completed % BuildListener.PROGRESS_INTERVAL == 0 || completed == total) {
+            listener.onProgress(phase, completed, total);
+        }
+    }
+
+    /**
+     * Supertypes that are not part of the mappings (like {@code java/lang/Object}) have no {@code EntryBlock}, so they are left out.
+     */
+    private static int[] getSuperTypeIndices(ClassData classData, Map<String, Integer> entryIndices) {
+        return classData.getDependentClasses().stream()
+                .map(entryIndices::get)
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .toArray();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package org.omnimc.lumina.mcmap.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Compressing a single section of a class with {@code MappingCompressor}.
+ * <p>
+ * Only compressions slower than the threshold are recorded by default, set it to {@code 0 ms} to record every section.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+@Name("org.omnimc.lumina.ClassDataCompress")
+@Label("ClassData Compress")
+@Category({"Lumina", "McMap"})
+@Description("Compressing a section of a class for an McMap file")
+@Threshold("1 ms")
+public final class ClassDataCompressEvent extends Event {
+
+    @Label("Class Name")
+    private String className;
+
+    @Label("Section")
+    private String section;
+
+    @Label("Uncompressed Size")
+    @DataAmount
+    private long uncompressedSize;
+
+    @Label("Compressed Size")
+    @DataAmount
+    private long compressedSize;
+
+    public void setSection(String className, String section) {
+        this.className = className;
+        this.section = section;
+    }
+
+    public void setSizes(long uncompressedSize, long compressedSize) {
+        this.uncompressedSize = uncompressedSize;
+        this.compressedSize = compressedSize;
+    }
+}
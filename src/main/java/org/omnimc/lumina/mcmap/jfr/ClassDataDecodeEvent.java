@@ -0,0 +1,68 @@
+package org.omnimc.lumina.mcmap.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * A {@code getClassData} call that had to decode at least one section.
+ * <p>
+ * Only decodes slower than the threshold are recorded by default, set it to {@code 0 ms} to record every decode.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+@Name("org.omnimc.lumina.ClassDataDecode")
+@Label("ClassData Decode")
+@Category({"Lumina", "McMap"})
+@Description("Decoding the missing sections of a class from an McMap file")
+@Threshold("1 ms")
+public final class ClassDataDecodeEvent extends Event {
+
+    @Label("Class Name")
+    private String className;
+
+    @Label("Obfuscated Name")
+    private String obfuscatedName;
+
+    @Label("Population")
+    private String population;
+
+    @Label("Sections")
+    private int sections;
+
+    @Label("Compressed Size")
+    @DataAmount
+    private long compressedSize;
+
+    @Label("Uncompressed Size")
+    @DataAmount
+    private long uncompressedSize;
+
+    @Label("Decompress Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long decompressTime;
+
+    @Label("Parse Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long parseTime;
+
+    public void setClass(String className, String obfuscatedName, String population) {
+        this.className = className;
+        this.obfuscatedName = obfuscatedName;
+        this.population = population;
+    }
+
+    public void addSection(int compressedSize, int uncompressedSize, long decompressTime, long parseTime) {
+        this.sections++;
+        this.compressedSize += compressedSize;
+        this.uncompressedSize += uncompressedSize;
+        this.decompressTime += decompressTime;
+        this.parseTime += parseTime;
+    }
+}
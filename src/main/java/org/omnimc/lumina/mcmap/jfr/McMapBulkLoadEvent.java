@@ -0,0 +1,34 @@
+package org.omnimc.lumina.mcmap.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Decoding every class of an {@code McMap} with {@code loadAllClassData}.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+@Name("org.omnimc.lumina.McMapBulkLoad")
+@Label("McMap Bulk Load")
+@Category({"Lumina", "McMap"})
+@Description("Decoding every class of an McMap file")
+public final class McMapBulkLoadEvent extends Event {
+
+    @Label("File")
+    private String file;
+
+    @Label("Classes")
+    private int classes;
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public void setClasses(int classes) {
+        this.classes = classes;
+    }
+}
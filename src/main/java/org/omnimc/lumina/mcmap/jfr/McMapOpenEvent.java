@@ -0,0 +1,41 @@
+package org.omnimc.lumina.mcmap.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Opening an {@code McMap}, which reads the header of every {@code EntryBlock}.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+@Name("org.omnimc.lumina.McMapOpen")
+@Label("McMap Open")
+@Category({"Lumina", "McMap"})
+@Description("Reading the index of an McMap file")
+public final class McMapOpenEvent extends Event {
+
+    @Label("File")
+    private String file;
+
+    @Label("Version")
+    private String version;
+
+    @Label("Entries")
+    private int entries;
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public void setEntries(int entries) {
+        this.entries = entries;
+    }
+}
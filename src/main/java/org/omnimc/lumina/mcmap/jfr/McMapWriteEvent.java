@@ -0,0 +1,75 @@
+package org.omnimc.lumina.mcmap.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Writing an {@code McMap} file with {@code FileFactory}.
+ * <p>
+ * The duration of the event only covers writing, compressing happens earlier when the {@code FileFactory} is created,
+ * so it is reported as its own phase.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+@Name("org.omnimc.lumina.McMapWrite")
+@Label("McMap Write")
+@Category({"Lumina", "McMap"})
+@Description("Writing an McMap file")
+public final class McMapWriteEvent extends Event {
+
+    @Label("File")
+    private String file;
+
+    @Label("Version")
+    private String version;
+
+    @Label("Classes")
+    private int classes;
+
+    @Label("File Size")
+    @DataAmount
+    private long fileSize;
+
+    @Label("Compress Time")
+    @Description("Compressing every class, before the write started")
+    @Timespan(Timespan.NANOSECONDS)
+    private long compressTime;
+
+    @Label("Header Time")
+    @Description("Writing the TOF and every EntryBlock header")
+    @Timespan(Timespan.NANOSECONDS)
+    private long headerTime;
+
+    @Label("Data Time")
+    @Description("Writing the compressed sections and patching their offsets")
+    @Timespan(Timespan.NANOSECONDS)
+    private long dataTime;
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public void setClasses(int classes) {
+        this.classes = classes;
+    }
+
+    public void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public void setPhases(long compressTime, long headerTime, long dataTime) {
+        this.compressTime = compressTime;
+        this.headerTime = headerTime;
+        this.dataTime = dataTime;
+    }
+}
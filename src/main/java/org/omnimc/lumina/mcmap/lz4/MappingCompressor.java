@@ -4,6 +4,7 @@ import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import org.omnimc.lumina.data.deserialization.compressed.CompressedDeserializer;
 import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.mcmap.jfr.ClassDataCompressEvent;
 
 import java.nio.charset.StandardCharsets;
 
@@ -18,41 +19,83 @@ public final class MappingCompressor {
 
     private final ClassData classData;
 
-    private final String fields;
-    private final String methods;
+    /*
+     * Every section is kept as UTF-8 since names are not guaranteed to be ASCII, and the decompressor needs the exact byte length.
+     */
+    private final byte[] fields;
+    private final byte[] methods;
+    private final byte[] parameters;
+    /**
+     * The single section of a {@link org.omnimc.lumina.mcmap.McMap.Version#V1} block, only created when it is asked for.
+     */
+    private byte[] allData;
 
     public MappingCompressor(ClassData classData) {
         this.classData = classData;
 
-        this.fields = DESERIALIZER.deserializeFieldData(classData.getFields()) + DESERIALIZER.deserializeFieldData(classData.getPrivateFields());
-        this.methods = DESERIALIZER.deserializeMethodData(classData.getMethods()) + DESERIALIZER.deserializeMethodData(classData.getPrivateMethods());
+        this.fields = (DESERIALIZER.deserializeFieldData(classData.getFields()) + DESERIALIZER.deserializeFieldData(classData.getPrivateFields()))
+                .getBytes(StandardCharsets.UTF_8);
+        this.methods = (DESERIALIZER.deserializeMethodData(classData.getMethods()) + DESERIALIZER.deserializeMethodData(classData.getPrivateMethods()))
+                .getBytes(StandardCharsets.UTF_8);
+        this.parameters = (DESERIALIZER.deserializeParameterData(classData.getMethods()) + DESERIALIZER.deserializeParameterData(classData.getPrivateMethods()))
+                .getBytes(StandardCharsets.UTF_8);
     }
 
     public byte[] getCompressedFields() {
-        return compress(fields);
+        return compress("fields", fields);
     }
 
     public byte[] getCompressedMethods() {
-        return compress(methods);
+        return compress("methods", methods);
+    }
+
+    public byte[] getCompressedParameters() {
+        return compress("parameters", parameters);
     }
 
     public byte[] getAllDataCompressed() {
-        return compress(DESERIALIZER.deserializeClassData(classData));
+        return compress("all", getAllData());
     }
 
     public int getUncompressedFieldLength() {
-        return fields.length();
+        return fields.length;
     }
 
     public int getUncompressedMethodLength() {
-        return methods.length();
+        return methods.length;
+    }
+
+    public int getUncompressedParameterLength() {
+        return parameters.length;
     }
 
+    /**
+     * This is the exact length of {@link #getAllDataCompressed()} once decompressed, which includes the trailing line break of
+     * {@link CompressedDeserializer#deserializeClassData(ClassData)}.
+     */
     public int getAllDataUncompressedLength() {
-        return getUncompressedFieldLength() + getUncompressedMethodLength();
+        return getAllData().length;
     }
 
-    private byte[] compress(CharSequence data) {
-        return LZ_4_COMPRESSOR.compress(data.toString().getBytes(StandardCharsets.UTF_8));
+    private byte[] getAllData() {
+        if (allData == null) {
+            allData = DESERIALIZER.deserializeClassData(classData).getBytes(StandardCharsets.UTF_8);
+        }
+        return allData;
+    }
+
+    private byte[] compress(String section, byte[] data) {
+        ClassDataCompressEvent event = new ClassDataCompressEvent();
+        event.begin();
+
+        byte[] compressed = LZ_4_COMPRESSOR.compress(data);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.setSection(classData.getClassName(), section);
+            event.setSizes(data.length, compressed.length);
+            event.commit();
+        }
+        return compressed;
     }
 }
\ No newline at end of file
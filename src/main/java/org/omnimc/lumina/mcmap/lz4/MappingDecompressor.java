@@ -3,6 +3,12 @@ package org.omnimc.lumina.mcmap.lz4;
 import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4FastDecompressor;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+
 /**
  * @author <a href=https://github.com/CadenCCC>Caden</a>
  * @since 1.0.0
@@ -11,6 +17,17 @@ public final class MappingDecompressor {
 
     private static final LZ4FastDecompressor SHARED_LZ4DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
 
+    /**
+     * Every thread keeps its own pair of buffers, they grow up to {@link #MAX_RETAINED_SIZE} so decoding a block does not allocate once warmed up.
+     */
+    private static final ThreadLocal<DecodeBuffers> DECODE_BUFFERS = ThreadLocal.withInitial(DecodeBuffers::new);
+
+    /**
+     * The largest buffer a thread keeps, a block bigger than this gets a buffer of its own that is dropped once the block is decoded.
+     * Every thread that ever decoded a block holds on to its buffers, so one huge class must not pin that much memory per thread.
+     */
+    public static final int MAX_RETAINED_SIZE = 256 * 1024;
+
     public MappingDecompressor() {
     }
 
@@ -19,4 +36,128 @@ public final class MappingDecompressor {
         SHARED_LZ4DECOMPRESSOR.decompress(compressed, 0, decompressed, 0 , decompressedLength);
         return decompressed;
     }
-}
\ No newline at end of file
+
+    /**
+     * Decompresses from one {@link ByteBuffer} into another using absolute offsets, neither buffer's position is touched.
+     *
+     * @param source             The buffer that holds the compressed data.
+     * @param sourceOffset       The absolute index of the compressed data.
+     * @param destination        The buffer the data is decompressed into.
+     * @param destinationOffset  The absolute index to decompress to.
+     * @param decompressedLength The exact length of the decompressed data.
+     * @return The amount of compressed bytes that were read.
+     */
+    public int decompress(ByteBuffer source, int sourceOffset, ByteBuffer destination, int destinationOffset, int decompressedLength) {
+        return SHARED_LZ4DECOMPRESSOR.decompress(source, sourceOffset, destination, destinationOffset, decompressedLength);
+    }
+
+    /**
+     * Reads a compressed block from a {@link SeekableByteChannel} and decompresses it into this thread's decode buffer.
+     * <p>
+     * A {@link FileChannel} is read with a positional read, so it can be shared between threads. Any other channel has a single position,
+     * so it is locked while it is being read. The returned buffer belongs to the calling thread and is only valid until that thread decompresses again.
+     *
+     * @param channel            The channel to read from.
+     * @param position           The offset of the compressed block in the channel.
+     * @param compressedLength   The length of the compressed block.
+     * @param decompressedLength The length of the decompressed block.
+     * @return A heap {@link ByteBuffer} whose first {@code decompressedLength} bytes are the decompressed block.
+     * @throws IOException If the block could not be read.
+     */
+    public ByteBuffer decompress(SeekableByteChannel channel, long position, int compressedLength, int decompressedLength) throws IOException {
+        DecodeBuffers buffers = DECODE_BUFFERS.get();
+
+        ByteBuffer compressed = buffers.compressed(compressedLength);
+        if (compressed.isDirect()) {
+            read(channel, position, compressed);
+        } else {
+            /*
+             * Reading into a heap buffer would go through a temporary direct buffer the JDK caches per thread, which is as big as the block.
+             * So an oversized block is read through this thread's direct buffer a piece at a time instead.
+             */
+            ByteBuffer staging = buffers.compressed(MAX_RETAINED_SIZE);
+            while (compressed.hasRemaining()) {
+                staging.clear().limit(Math.min(staging.capacity(), compressed.remaining()));
+                read(channel, position + compressed.position(), staging);
+                compressed.put(staging.flip());
+            }
+            compressed.flip();
+        }
+
+        ByteBuffer decompressed = buffers.decompressed(decompressedLength);
+        SHARED_LZ4DECOMPRESSOR.decompress(compressed, 0, decompressed, 0, decompressedLength);
+        return decompressed;
+    }
+
+    /**
+     * Decompresses a block that is already in memory into this thread's decode buffer, the compressed bytes are never copied.
+     *
+     * @param source             The buffer that holds the compressed block, only absolute gets are used.
+     * @param sourceOffset       The absolute index of the compressed block.
+     * @param decompressedLength The length of the decompressed block.
+     * @return A heap {@link ByteBuffer} whose first {@code decompressedLength} bytes are the decompressed block.
+     */
+    public ByteBuffer decompress(ByteBuffer source, int sourceOffset, int decompressedLength) {
+        ByteBuffer decompressed = DECODE_BUFFERS.get().decompressed(decompressedLength);
+        SHARED_LZ4DECOMPRESSOR.decompress(source, sourceOffset, decompressed, 0, decompressedLength);
+        return decompressed;
+    }
+
+    private static void read(SeekableByteChannel channel, long position, ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        if (channel instanceof FileChannel fileChannel) {
+            while (buffer.hasRemaining()) {
+                if (fileChannel.read(buffer, position + buffer.position() - start) < 0) {
+                    throw new EOFException("Reached the end of the file while reading a block at " + position);
+                }
+            }
+        } else {
+            synchronized (channel) {
+                channel.position(position);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        throw new EOFException("Reached the end of the channel while reading a block at " + position);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class DecodeBuffers {
+
+        private ByteBuffer compressed = ByteBuffer.allocateDirect(8 * 1024);
+        private ByteBuffer decompressed = ByteBuffer.allocate(16 * 1024);
+
+        /**
+         * A direct buffer, so reading from the channel does not go through a temporary copy. Past {@link #MAX_RETAINED_SIZE} it is a one-shot heap buffer.
+         */
+        ByteBuffer compressed(int length) {
+            if (length > MAX_RETAINED_SIZE) {
+                return ByteBuffer.allocate(length);
+            }
+            if (compressed.capacity() < length) {
+                compressed = ByteBuffer.allocateDirect(grow(length));
+            }
+            compressed.clear().limit(length);
+            return compressed;
+        }
+
+        /**
+         * A heap buffer, so names can be decoded straight from its backing array. Past {@link #MAX_RETAINED_SIZE} it is not kept.
+         */
+        ByteBuffer decompressed(int length) {
+            if (length > MAX_RETAINED_SIZE) {
+                return ByteBuffer.allocate(length);
+            }
+            if (decompressed.capacity() < length) {
+                decompressed = ByteBuffer.allocate(grow(length));
+            }
+            decompressed.clear().limit(length);
+            return decompressed;
+        }
+
+        private static int grow(int length) {
+            return Integer.highestOneBit(Math.max(length - 1, 1)) << 1;
+        }
+    }
+}
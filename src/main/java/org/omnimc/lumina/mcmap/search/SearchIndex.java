@@ -0,0 +1,400 @@
+package org.omnimc.lumina.mcmap.search;
+
+import org.omnimc.lumina.data.Mappings;
+import org.omnimc.lumina.mcmap.McMap;
+import org.omnimc.lumina.mcmap.lz4.MappingDecompressor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * A trigram index over every class, field and method name of an {@link org.omnimc.lumina.mcmap.McMap}, for substring and fuzzy searches.
+ * <p>
+ * It is a sidecar file next to the {@link org.omnimc.lumina.mcmap.McMap} written by {@link org.omnimc.lumina.mcmap.file.FileFactory#writeSearchIndex()},
+ * so searching never decodes a class block. The names are held in memory as UTF-8, and are only turned into {@link String}s for the results.
+ * <p>
+ * Matching ignores ASCII case. A query of at least three bytes only looks at the documents that share its trigrams, a shorter one scans every name.
+ * <p>
+ * The header keeps the {@link McMap#getContentHash()} of the file it was written for, so {@link #open(File, McMap)} rejects an index
+ * that is left over from an older version of the file.
+ *
+ * <pre><code>
+ * (0x4953434D) { // Total of 37 + 8t + 4 + n + p bytes big
+ * 	0x00 | 4 | Magic // MCSI
+ * 	0x04 | 1 | Version
+ * 	0x05 | 8 | ContentHash // 0 when the index was built without a file
+ * 	0x0D | 4 | ClassCount
+ * 	0x11 | 4 | DocumentCount
+ * 	0x15 | 4 | TrigramCount (t)
+ * 	0x19 | 4 | NamesCompressedLength (n)
+ * 	0x1D | 4 | NamesUncompressedLength
+ * 	0x21 | 4 | PostingsLength (p)
+ * 	0x25 | 4t | Trigrams // Sorted
+ * 	0x25 + 4t | 4(t + 1) | PostingOffsets
+ * 	0x29 + 8t | n | Names // LZ4, the class table and then every document
+ * 	0x29 + 8t + n | p | Postings // The documents of each trigram, as varint deltas
+ * }
+ * </code></pre>
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public final class SearchIndex {
+
+    public enum Kind {
+        CLASS,
+        FIELD,
+        METHOD
+    }
+
+    static final int MAGIC = 0x4953434D;
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = 37;
+
+    /*
+     * Scores of each kind of match, a fuzzy match scores below every substring match.
+     */
+    private static final int EXACT = 1000;
+    private static final int PREFIX = 800;
+    private static final int SUBSTRING = 600;
+    private static final int FUZZY = 400;
+    /**
+     * A fuzzy match has to share at least this fraction of the query's trigrams.
+     */
+    private static final double FUZZY_THRESHOLD = 0.5;
+
+    private static final Kind[] KINDS = Kind.values();
+
+    private final long contentHash;
+
+    private final int[] classOffsets;
+    private final int[] documentOffsets;
+    private final byte[] names;
+
+    private final int[] trigrams;
+    private final int[] postingOffsets;
+    private final byte[] postings;
+
+    private SearchIndex(ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Invalid search index magic");
+        }
+
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported search index version: " + version);
+        }
+
+        this.contentHash = buffer.getLong();
+        int classCount = buffer.getInt();
+        int documentCount = buffer.getInt();
+        int trigramCount = buffer.getInt();
+        int compressedLength = buffer.getInt();
+        int uncompressedLength = buffer.getInt();
+        int postingsLength = buffer.getInt();
+
+        this.trigrams = new int[trigramCount];
+        buffer.asIntBuffer().get(trigrams);
+        buffer.position(buffer.position() + 4 * trigramCount);
+
+        this.postingOffsets = new int[trigramCount + 1];
+        buffer.asIntBuffer().get(postingOffsets);
+        buffer.position(buffer.position() + 4 * (trigramCount + 1));
+
+        byte[] compressed = new byte[compressedLength];
+        buffer.get(compressed);
+        this.names = new MappingDecompressor().decompress(compressed, uncompressedLength);
+
+        this.postings = new byte[postingsLength];
+        buffer.get(postings);
+
+        this.classOffsets = new int[classCount];
+        int offset = 0;
+        for (int i = 0; i < classCount; i++) {
+            classOffsets[i] = offset;
+            offset = skipString(skipString(offset));
+        }
+
+        this.documentOffsets = new int[documentCount];
+        for (int i = 0; i < documentCount; i++) {
+            documentOffsets[i] = offset;
+            offset = skipString(skipString(skipString(offset + 5)));
+        }
+    }
+
+    /**
+     * @return Where the search index of {@code mcmapFile} is kept, next to it with a {@code .search} extension.
+     */
+    public static File sidecarOf(File mcmapFile) {
+        return new File(mcmapFile.getPath() + ".search");
+    }
+
+    /**
+     * Reads a search index written by {@link SearchIndexWriter}, without checking which file it was written for.
+     *
+     * @param file The index file, usually {@link #sidecarOf(File)}.
+     * @return The index, fully in memory.
+     * @throws IOException If the file could not be read or is not a search index.
+     * @see #open(File, McMap)
+     */
+    public static SearchIndex open(File file) throws IOException {
+        return new SearchIndex(ByteBuffer.wrap(Files.readAllBytes(file.toPath())));
+    }
+
+    /**
+     * Reads the search index of an {@link McMap}, and makes sure it was written for the same content.
+     *
+     * @param file  The index file, usually {@link #sidecarOf(File)}.
+     * @param mcmap The {@link McMap} the index belongs to.
+     * @return The index, fully in memory.
+     * @throws IOException If the file could not be read, is not a search index, or was written for other content than {@code mcmap}.
+     */
+    public static SearchIndex open(File file, McMap mcmap) throws IOException {
+        SearchIndex index = open(file);
+        if (index.contentHash != mcmap.getContentHash()) {
+            throw new IOException("Search index is stale, it was written for other content than the McMap: " + file);
+        }
+        return index;
+    }
+
+    /**
+     * Builds a search index in memory without writing it.
+     */
+    public static SearchIndex of(Mappings mappings) {
+        try {
+            return new SearchIndex(new SearchIndexWriter(mappings).toByteBuffer());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to build a search index.", e);
+        }
+    }
+
+    /**
+     * @return The {@link McMap#getContentHash()} of the file the index was written for, or {@code 0} if it was built without one.
+     */
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    public int getClassCount() {
+        return classOffsets.length;
+    }
+
+    public int getDocumentCount() {
+        return documentOffsets.length;
+    }
+
+    /**
+     * An overloaded method of {@link #search(String, Kind, int)} that searches every {@link Kind}.
+     */
+    public List<SearchResult> search(String query, int limit) {
+        return search(query, null, limit);
+    }
+
+    /**
+     * Finds the names that contain {@code query}, or that are close to it.
+     * <p>
+     * Results are ranked by an exact match first, then a prefix, then a substring (earlier is better), then names that only share
+     * most of the query's trigrams. A class name is matched from its simple name, so {@code Entity} is a prefix of {@code net/minecraft/Entity}.
+     * Ties go to the shorter name.
+     *
+     * @param query The text to look for, ASCII case is ignored.
+     * @param kind  The only {@link Kind} to return, or {@code null} for every kind.
+     * @param limit The most results to return.
+     * @return The best {@code limit} results, best first.
+     */
+    public List<SearchResult> search(String query, Kind kind, int limit) {
+        Objects.requireNonNull(query, "Query cannot be NULL.");
+        if (limit <= 0 || query.isEmpty()) {
+            return List.of();
+        }
+
+        byte[] needle = query.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < needle.length; i++) {
+            needle[i] = lower(needle[i]);
+        }
+
+        PriorityQueue<long[]> best = new PriorityQueue<>(Comparator.comparingLong((long[] match) -> match[0]).thenComparingLong(match -> -match[1]));
+
+        if (needle.length < 3) {
+            for (int document = 0; document < documentOffsets.length; document++) {
+                offer(best, limit, document, score(document, needle, kind, 0, 0));
+            }
+        } else {
+            int[] queryTrigrams = distinctTrigrams(needle);
+            int[] hits = new int[documentOffsets.length];
+            for (int trigram : queryTrigrams) {
+                countPostings(trigram, hits);
+            }
+
+            int required = (int) Math.ceil(queryTrigrams.length * FUZZY_THRESHOLD);
+            for (int document = 0; document < hits.length; document++) {
+                if (hits[document] >= required) {
+                    offer(best, limit, document, score(document, needle, kind, hits[document], queryTrigrams.length));
+                }
+            }
+        }
+
+        List<SearchResult> results = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            long[] match = best.poll();
+            results.add(result((int) match[1], (int) (match[0] >> 32)));
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    /**
+     * @return The score in the upper half and a tie-breaker in the lower half, or {@code -1} if the document does not match.
+     */
+    private long score(int document, byte[] needle, Kind kind, int hits, int trigramCount) {
+        int offset = documentOffsets[document];
+        Kind documentKind = KINDS[names[offset]];
+        if (kind != null && documentKind != kind) {
+            return -1;
+        }
+
+        int obfuscated = offset + 5;
+        int mapped = skipString(obfuscated);
+
+        // The mapped name wins a tie, it is what people search for.
+        int score = Math.max(score(mapped, needle, documentKind), score(obfuscated, needle, documentKind) - 1);
+        if (score < 0) {
+            if (trigramCount == 0) {
+                return -1;
+            }
+            score = FUZZY * hits / trigramCount;
+        }
+
+        return ((long) score << 32) | (0xFFFF - Math.min(stringLength(mapped), 0xFFFF));
+    }
+
+    private int score(int stringOffset, byte[] needle, Kind kind) {
+        int start = stringOffset + 2;
+        int end = start + stringLength(stringOffset);
+
+        if (kind == Kind.CLASS) {
+            // Match from the simple name, so the package does not push every class down.
+            for (int i = end - 1; i >= start; i--) {
+                if (names[i] == '/') {
+                    start = i + 1;
+                    break;
+                }
+            }
+        }
+
+        int index = indexOf(start, end, needle);
+        if (index < 0) {
+            return -1;
+        }
+        if (index == start) {
+            return end - start == needle.length ? EXACT : PREFIX;
+        }
+        return SUBSTRING - Math.min(index - start, SUBSTRING - FUZZY - 1);
+    }
+
+    private int indexOf(int start, int end, byte[] needle) {
+        outer:
+        for (int i = start; i + needle.length <= end; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (lower(names[i + j]) != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static void offer(PriorityQueue<long[]> best, int limit, int document, long score) {
+        if (score < 0) {
+            return;
+        }
+
+        if (best.size() < limit) {
+            best.add(new long[]{score, document});
+        } else if (score > best.peek()[0]) {
+            best.poll();
+            best.add(new long[]{score, document});
+        }
+    }
+
+    private void countPostings(int trigram, int[] hits) {
+        int index = Arrays.binarySearch(trigrams, trigram);
+        if (index < 0) {
+            return;
+        }
+
+        int position = postingOffsets[index];
+        int end = postingOffsets[index + 1];
+        int document = 0;
+        while (position < end) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = postings[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            document += delta;
+            hits[document]++;
+        }
+    }
+
+    private SearchResult result(int document, int score) {
+        int offset = documentOffsets[document];
+        Kind kind = KINDS[names[offset]];
+        int classIndex = (names[offset + 1] & 0xFF) | (names[offset + 2] & 0xFF) << 8 | (names[offset + 3] & 0xFF) << 16 | (names[offset + 4] & 0xFF) << 24;
+
+        int obfuscated = offset + 5;
+        int mapped = skipString(obfuscated);
+        int descriptor = skipString(mapped);
+
+        int owner = classOffsets[classIndex];
+        return new SearchResult(kind, string(owner), string(skipString(owner)), string(obfuscated), string(mapped), string(descriptor), score);
+    }
+
+    private int[] distinctTrigrams(byte[] needle) {
+        int[] result = new int[needle.length - 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = trigram(needle, i);
+        }
+        return Arrays.stream(result).distinct().toArray();
+    }
+
+    /**
+     * @return The three bytes at {@code index} packed into an int, with ASCII upper case letters made lower case.
+     */
+    static int trigram(byte[] bytes, int index) {
+        return (lower(bytes[index]) & 0xFF) << 16 | (lower(bytes[index + 1]) & 0xFF) << 8 | (lower(bytes[index + 2]) & 0xFF);
+    }
+
+    private static byte lower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private int stringLength(int offset) {
+        return (names[offset] & 0xFF) | (names[offset + 1] & 0xFF) << 8;
+    }
+
+    private int skipString(int offset) {
+        return offset + 2 + stringLength(offset);
+    }
+
+    private String string(int offset) {
+        return new String(names, offset + 2, stringLength(offset), StandardCharsets.UTF_8);
+    }
+}
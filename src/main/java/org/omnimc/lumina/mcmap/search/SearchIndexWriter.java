@@ -0,0 +1,210 @@
+package org.omnimc.lumina.mcmap.search;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import org.omnimc.lumina.data.Mappings;
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.data.types.FieldData;
+import org.omnimc.lumina.data.types.MethodData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Builds the search index of a {@link Mappings} and writes it in the format {@link SearchIndex} reads.
+ * <p>
+ * Every class, field and method becomes a document, and the trigrams of its obfuscated and mapped name point back to it.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public final class SearchIndexWriter {
+
+    private static final LZ4Compressor LZ_4_COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+
+    private final long contentHash;
+    private final ByteArrayOutputStream names = new ByteArrayOutputStream();
+    private int classCount;
+    private int documentCount;
+
+    /**
+     * Every (trigram, document) pair, the trigram is in the upper half. Sorting them groups the postings of each trigram in document order.
+     */
+    private long[] pairs = new long[1024];
+    private int pairCount;
+
+    /**
+     * Builds an index that is not tied to a file, {@link SearchIndex#open(File, org.omnimc.lumina.mcmap.McMap)} rejects it.
+     */
+    public SearchIndexWriter(Mappings mappings) {
+        this(mappings, 0);
+    }
+
+    /**
+     * @param mappings    The mappings to index.
+     * @param contentHash The {@link org.omnimc.lumina.mcmap.McMap#getContentHash()} of the file the mappings were written to.
+     */
+    public SearchIndexWriter(Mappings mappings, long contentHash) {
+        this.contentHash = contentHash;
+        Map<String, ClassData> classes = mappings.getClasses();
+
+        // The class table comes first so documents can point at their owner by index.
+        for (Map.Entry<String, ClassData> entry : classes.entrySet()) {
+            writeString(entry.getKey());
+            writeString(entry.getValue().getClassName());
+            classCount++;
+        }
+
+        int classIndex = 0;
+        for (Map.Entry<String, ClassData> entry : classes.entrySet()) {
+            ClassData classData = entry.getValue();
+            addDocument(SearchIndex.Kind.CLASS, classIndex, entry.getKey(), classData.getClassName(), "");
+
+            for (FieldData field : classData.getFields().values()) {
+                addDocument(SearchIndex.Kind.FIELD, classIndex, field.getObfuscatedName(), field.getFieldName(), field.getDescriptor());
+            }
+            for (FieldData field : classData.getPrivateFields().values()) {
+                addDocument(SearchIndex.Kind.FIELD, classIndex, field.getObfuscatedName(), field.getFieldName(), field.getDescriptor());
+            }
+            for (MethodData method : classData.getMethods().values()) {
+                addDocument(SearchIndex.Kind.METHOD, classIndex, method.getObfuscatedName(), method.getMethodName(), method.getDescriptor());
+            }
+            for (MethodData method : classData.getPrivateMethods().values()) {
+                addDocument(SearchIndex.Kind.METHOD, classIndex, method.getObfuscatedName(), method.getMethodName(), method.getDescriptor());
+            }
+            classIndex++;
+        }
+    }
+
+    /**
+     * Writes the index to {@code file}, replacing it if it exists.
+     *
+     * @param file The file to write to, usually {@link SearchIndex#sidecarOf(File)}.
+     * @return The amount of bytes written.
+     */
+    public long write(File file) {
+        ByteBuffer index = toByteBuffer();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                                    StandardOpenOption.WRITE)) {
+            while (index.hasRemaining()) {
+                channel.write(index);
+            }
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write search index: " + file, e);
+        }
+    }
+
+    /**
+     * @return The whole index in a heap buffer, in the format {@link SearchIndex} reads.
+     */
+    public ByteBuffer toByteBuffer() {
+        byte[] uncompressedNames = names.toByteArray();
+        byte[] compressedNames = LZ_4_COMPRESSOR.compress(uncompressedNames);
+
+        Arrays.sort(pairs, 0, pairCount);
+
+        int trigramCount = 0;
+        int[] trigrams = new int[Math.max(pairCount, 1)];
+        int[] postingOffsets = new int[pairCount + 1];
+        ByteArrayOutputStream postings = new ByteArrayOutputStream();
+
+        int previousTrigram = -1;
+        int previousDocument = 0;
+        for (int i = 0; i < pairCount; i++) {
+            int trigram = (int) (pairs[i] >>> 32);
+            int document = (int) pairs[i];
+
+            if (trigram != previousTrigram) {
+                trigrams[trigramCount] = trigram;
+                postingOffsets[trigramCount++] = postings.size();
+                previousTrigram = trigram;
+                previousDocument = 0;
+            } else if (document == previousDocument) {
+                continue;
+            }
+
+            writeVarInt(postings, document - previousDocument);
+            previousDocument = document;
+        }
+        postingOffsets[trigramCount] = postings.size();
+
+        byte[] postingBytes = postings.toByteArray();
+        ByteBuffer index = ByteBuffer.allocate(SearchIndex.HEADER_SIZE + 8 * trigramCount + 4 + compressedNames.length + postingBytes.length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        index.putInt(SearchIndex.MAGIC);
+        index.put(SearchIndex.VERSION);
+        index.putLong(contentHash);
+        index.putInt(classCount);
+        index.putInt(documentCount);
+        index.putInt(trigramCount);
+        index.putInt(compressedNames.length);
+        index.putInt(uncompressedNames.length);
+        index.putInt(postingBytes.length);
+        for (int i = 0; i < trigramCount; i++) {
+            index.putInt(trigrams[i]);
+        }
+        for (int i = 0; i <= trigramCount; i++) {
+            index.putInt(postingOffsets[i]);
+        }
+        index.put(compressedNames);
+        index.put(postingBytes);
+        return index.flip();
+    }
+
+    private void addDocument(SearchIndex.Kind kind, int classIndex, String obfuscatedName, String mappedName, String descriptor) {
+        int document = documentCount++;
+
+        names.write(kind.ordinal());
+        writeInt(classIndex);
+        byte[] obfuscated = writeString(obfuscatedName);
+        byte[] mapped = writeString(mappedName);
+        writeString(descriptor == null ? "" : descriptor);
+
+        addTrigrams(obfuscated, document);
+        if (!mappedName.equals(obfuscatedName)) {
+            addTrigrams(mapped, document);
+        }
+    }
+
+    private void addTrigrams(byte[] name, int document) {
+        for (int i = 0; i + 3 <= name.length; i++) {
+            if (pairCount == pairs.length) {
+                pairs = Arrays.copyOf(pairs, pairs.length * 2);
+            }
+            pairs[pairCount++] = ((long) SearchIndex.trigram(name, i) << 32) | document;
+        }
+    }
+
+    private byte[] writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        names.write(bytes.length & 0xFF);
+        names.write((bytes.length >>> 8) & 0xFF);
+        names.write(bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    private void writeInt(int value) {
+        names.write(value & 0xFF);
+        names.write((value >>> 8) & 0xFF);
+        names.write((value >>> 16) & 0xFF);
+        names.write((value >>> 24) & 0xFF);
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream stream, int value) {
+        while ((value & ~0x7F) != 0) {
+            stream.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        stream.write(value);
+    }
+}
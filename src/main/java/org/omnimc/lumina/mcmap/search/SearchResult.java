@@ -0,0 +1,20 @@
+package org.omnimc.lumina.mcmap.search;
+
+/**
+ * A single match of a {@link SearchIndex} query.
+ * <p>
+ * The owner is given by its unmapped name, so {@code McMap#getClassData(String)} can decode just that class when more than the names are needed.
+ *
+ * @param kind           What was matched.
+ * @param owner          The unmapped name of the class, for a {@link SearchIndex.Kind#CLASS} this is the class itself.
+ * @param mappedOwner    The mapped name of the class.
+ * @param obfuscatedName The obfuscated name of the class or member.
+ * @param mappedName     The mapped name of the class or member.
+ * @param descriptor     The descriptor of the member, empty for a {@link SearchIndex.Kind#CLASS}.
+ * @param score          How well it matched, higher is better. Only useful to compare results of the same query.
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public record SearchResult(SearchIndex.Kind kind, String owner, String mappedOwner, String obfuscatedName, String mappedName, String descriptor,
+                           int score) {
+}
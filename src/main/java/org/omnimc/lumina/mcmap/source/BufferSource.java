@@ -0,0 +1,81 @@
+package org.omnimc.lumina.mcmap.source;
+
+import org.omnimc.lumina.mcmap.lz4.MappingDecompressor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link McMapSource} over bytes that are already in memory, blocks are decompressed straight from the buffer.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+final class BufferSource implements McMapSource {
+
+    private final ByteBuffer buffer;
+    private final String name;
+
+    /**
+     * @param buffer A buffer whose content starts at index {@code 0}, only absolute gets are used on it.
+     */
+    BufferSource(ByteBuffer buffer, String name) {
+        this.buffer = buffer;
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long size() {
+        return buffer.limit();
+    }
+
+    @Override
+    public InputStream openStream(long position) {
+        return new BufferInputStream((int) Math.min(position, buffer.limit()));
+    }
+
+    @Override
+    public ByteBuffer decompress(MappingDecompressor decompressor, long position, int compressedLength, int decompressedLength) throws IOException {
+        if (position + compressedLength > buffer.limit()) {
+            throw new IOException("Block at " + position + " is past the end of " + name);
+        }
+        return decompressor.decompress(buffer, (int) position, decompressedLength);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private final class BufferInputStream extends InputStream {
+
+        private int position;
+
+        BufferInputStream(int position) {
+            this.position = position;
+        }
+
+        @Override
+        public int read() {
+            return position < buffer.limit() ? buffer.get(position++) & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            int remaining = buffer.limit() - position;
+            if (remaining <= 0) {
+                return -1;
+            }
+
+            int read = Math.min(length, remaining);
+            buffer.get(position, bytes, offset, read);
+            position += read;
+            return read;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.omnimc.lumina.mcmap.source;
+
+import org.omnimc.lumina.mcmap.lz4.MappingDecompressor;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * A {@link McMapSource} over a region of a {@link SeekableByteChannel}, which lets an entry of a zip file be read in place.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+final class ChannelSource implements McMapSource {
+
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    private final SeekableByteChannel channel;
+    private final long base;
+    private final long size;
+    private final String name;
+    private final Object identity;
+
+    /**
+     * @param identity The identity of the content, or {@code null} if the source is only equal to itself.
+     */
+    ChannelSource(SeekableByteChannel channel, long base, long size, String name, Object identity) {
+        this.channel = channel;
+        this.base = base;
+        this.size = size;
+        this.name = name;
+        this.identity = identity == null ? this : identity;
+    }
+
+    @Override
+    public Object getIdentity() {
+        return identity;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public InputStream openStream(long position) {
+        return new BufferedInputStream(new RegionInputStream(position), STREAM_BUFFER_SIZE);
+    }
+
+    @Override
+    public ByteBuffer decompress(MappingDecompressor decompressor, long position, int compressedLength, int decompressedLength) throws IOException {
+        if (position + compressedLength > size) {
+            throw new IOException("Block at " + position + " is past the end of " + name);
+        }
+        return decompressor.decompress(channel, base + position, compressedLength, decompressedLength);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads the region from its own position, so it never closes or moves a {@link FileChannel}.
+     */
+    private final class RegionInputStream extends InputStream {
+
+        private long position;
+
+        RegionInputStream(long position) {
+            this.position = position;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            long remaining = size - position;
+            if (remaining <= 0) {
+                return -1;
+            }
+
+            ByteBuffer destination = ByteBuffer.wrap(bytes, offset, (int) Math.min(length, remaining));
+            int read;
+            if (channel instanceof FileChannel fileChannel) {
+                read = fileChannel.read(destination, base + position);
+            } else {
+                synchronized (channel) {
+                    channel.position(base + position);
+                    read = channel.read(destination);
+                }
+            }
+
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.omnimc.lumina.mcmap.source;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Identifies the content of a file by its canonical path, size and last modified time.
+ * <p>
+ * Two sources of the same unchanged file have equal identities, so anything cached for one is valid for the other.
+ * Rewriting the file changes its size or modified time, which gives it a new identity.
+ *
+ * @param path         The canonical path, with {@code !/entry} appended for a zip entry.
+ * @param size         The size of the file in bytes.
+ * @param lastModified The last modified time of the file in milliseconds.
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public record FileIdentity(String path, long size, long lastModified) {
+
+    public static FileIdentity of(File file) throws IOException {
+        return new FileIdentity(file.getCanonicalPath(), file.length(), file.lastModified());
+    }
+
+    static FileIdentity of(File zipFile, String entryName) throws IOException {
+        return new FileIdentity(zipFile.getCanonicalPath() + "!/" + entryName, zipFile.length(), zipFile.lastModified());
+    }
+}
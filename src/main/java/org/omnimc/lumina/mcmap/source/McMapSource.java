@@ -0,0 +1,182 @@
+package org.omnimc.lumina.mcmap.source;
+
+import org.omnimc.lumina.mcmap.McMap;
+import org.omnimc.lumina.mcmap.lz4.MappingDecompressor;
+
+import java.io.*;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Where the bytes of an {@link McMap} come from.
+ * <p>
+ * An {@link McMap} only reads its entry table once when it is opened, after that it only ever asks for single compressed blocks.
+ * So a source can be a file, any {@link SeekableByteChannel}, a {@link ByteBuffer} that is already in memory (or memory-mapped),
+ * or a STORED entry inside of a jar, which is read in place without extracting it.
+ * <p>
+ * The {@link McMap} owns the source, closing the {@link McMap} closes it.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public interface McMapSource extends Closeable {
+
+    /**
+     * @return A name for the source, like the path of the file. It is only used in events and error messages.
+     */
+    String getName();
+
+    /**
+     * Identifies the content of the source, caches shared between {@link McMap}s use it as part of their key.
+     * <p>
+     * Sources of the same unchanged file return equal identities, like a {@link FileIdentity}. By default a source is only equal to itself.
+     *
+     * @return An object with a proper {@code equals} and {@code hashCode}.
+     */
+    default Object getIdentity() {
+        return this;
+    }
+
+    /**
+     * @return The amount of bytes in the source.
+     * @throws IOException If the size could not be read.
+     */
+    long size() throws IOException;
+
+    /**
+     * Opens a stream from {@code position} to the end of the source, it is used to read the entry table.
+     * <p>
+     * The stream does not have to be closed, closing it does not close the source.
+     *
+     * @param position The offset to start reading from.
+     * @return A buffered stream.
+     * @throws IOException If the source could not be read.
+     */
+    InputStream openStream(long position) throws IOException;
+
+    /**
+     * Decompresses a single block with {@code decompressor}, this can be called from multiple threads at once.
+     *
+     * @param decompressor       The decompressor of the {@link McMap}.
+     * @param position           The offset of the compressed block.
+     * @param compressedLength   The length of the compressed block.
+     * @param decompressedLength The length of the decompressed block.
+     * @return A thread-local buffer whose first {@code decompressedLength} bytes are the decompressed block.
+     * @throws IOException If the block could not be read.
+     */
+    ByteBuffer decompress(MappingDecompressor decompressor, long position, int compressedLength, int decompressedLength) throws IOException;
+
+    /**
+     * A file that is read with positional reads, this is what {@link McMap#McMap(File)} uses.
+     */
+    static McMapSource of(File file) throws IOException {
+        FileIdentity identity = FileIdentity.of(file);
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        return new ChannelSource(channel, 0, channel.size(), file.getPath(), identity);
+    }
+
+    /**
+     * Any {@link SeekableByteChannel}. Unless it is a {@link FileChannel}, the channel is locked while a block is read from it.
+     */
+    static McMapSource of(SeekableByteChannel channel) throws IOException {
+        Objects.requireNonNull(channel, "Channel cannot be NULL.");
+        return new ChannelSource(channel, 0, channel.size(), channel.toString(), null);
+    }
+
+    /**
+     * The bytes between the position and limit of {@code buffer}, they are never copied.
+     * <p>
+     * This works with heap, direct and memory-mapped buffers. The buffer must not be changed while the {@link McMap} is open.
+     */
+    static McMapSource of(ByteBuffer buffer) {
+        Objects.requireNonNull(buffer, "Buffer cannot be NULL.");
+        return new BufferSource(buffer.slice(), "ByteBuffer");
+    }
+
+    /**
+     * The whole array, it is wrapped and never copied.
+     */
+    static McMapSource of(byte[] bytes) {
+        Objects.requireNonNull(bytes, "Bytes cannot be NULL.");
+        return new BufferSource(ByteBuffer.wrap(bytes), "byte[" + bytes.length + "]");
+    }
+
+    /**
+     * An entry inside a zip or jar file.
+     * <p>
+     * A STORED entry is read in place at its offset inside the zip, nothing is extracted. A compressed entry has to be inflated,
+     * so it is read into memory once instead.
+     *
+     * @param zipFile   The zip or jar file.
+     * @param entryName The name of the entry, like {@code assets/mappings.mcmap}.
+     * @return The source of the entry.
+     * @throws FileNotFoundException If there is no entry called {@code entryName}.
+     * @throws IOException           If the zip could not be read.
+     */
+    static McMapSource ofZipEntry(File zipFile, String entryName) throws IOException {
+        String name = zipFile.getPath() + "!/" + entryName;
+
+        FileChannel channel = FileChannel.open(zipFile.toPath(), StandardOpenOption.READ);
+        try {
+            long[] stored = ZipEntries.findStored(channel, entryName);
+            if (stored != null) {
+                return new ChannelSource(channel, stored[0], stored[1], name, FileIdentity.of(zipFile, entryName));
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        channel.close();
+
+        try (ZipFile zip = new ZipFile(zipFile)) {
+            ZipEntry entry = zip.getEntry(entryName);
+            if (entry == null) {
+                throw new FileNotFoundException(name);
+            }
+
+            try (InputStream stream = zip.getInputStream(entry)) {
+                return new BufferSource(ByteBuffer.wrap(stream.readAllBytes()), name);
+            }
+        }
+    }
+
+    /**
+     * A resource, like one from {@link Class#getResource(String)}.
+     * <p>
+     * A {@code file:} resource is opened like {@link #of(File)}, and a {@code jar:} resource like {@link #ofZipEntry(File, String)}.
+     * Any other resource is read into memory once.
+     *
+     * @param resource The resource.
+     * @return The source of the resource.
+     * @throws IOException If the resource could not be read.
+     */
+    static McMapSource of(URL resource) throws IOException {
+        Objects.requireNonNull(resource, "Resource cannot be NULL.");
+
+        try {
+            if (resource.getProtocol().equals("file")) {
+                return of(new File(resource.toURI()));
+            }
+
+            URLConnection connection = resource.openConnection();
+            if (connection instanceof JarURLConnection jarConnection && jarConnection.getJarFileURL().getProtocol().equals("file")) {
+                return ofZipEntry(new File(jarConnection.getJarFileURL().toURI()), jarConnection.getEntryName());
+            }
+
+            try (InputStream stream = connection.getInputStream()) {
+                return new BufferSource(ByteBuffer.wrap(stream.readAllBytes()), resource.toString());
+            }
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid resource: " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.omnimc.lumina.mcmap.source;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Finds where the data of a STORED zip entry starts, {@link java.util.zip.ZipFile} does not expose it.
+ * <p>
+ * Only the end of central directory record, the central directory and a single local header are read.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+final class ZipEntries {
+
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054B50;
+    private static final int CENTRAL_DIRECTORY_HEADER = 0x02014B50;
+    private static final int LOCAL_FILE_HEADER = 0x04034B50;
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+    private static final int LOCAL_FILE_HEADER_SIZE = 30;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+    private static final int STORED = 0;
+    /**
+     * Zip64 archives put this in place of a size or offset that is too big, those entries are not read in place.
+     */
+    private static final long ZIP64_MARKER = 0xFFFFFFFFL;
+
+    private ZipEntries() {
+        throw new UnsupportedOperationException("ZipEntries cannot be instantiated");
+    }
+
+    /**
+     * @return {@code {dataOffset, size}} of the entry, or {@code null} if it is not a STORED entry that can be read in place.
+     */
+    static long[] findStored(FileChannel channel, String entryName) throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < END_OF_CENTRAL_DIRECTORY_SIZE) {
+            return null;
+        }
+
+        int tailLength = (int) Math.min(fileSize, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_LENGTH);
+        ByteBuffer tail = read(channel, fileSize - tailLength, tailLength);
+
+        int end = -1;
+        for (int i = tailLength - END_OF_CENTRAL_DIRECTORY_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY) {
+                end = i;
+                break;
+            }
+        }
+
+        if (end == -1) {
+            return null;
+        }
+
+        long directorySize = tail.getInt(end + 12) & ZIP64_MARKER;
+        long directoryOffset = tail.getInt(end + 16) & ZIP64_MARKER;
+        if (directorySize == ZIP64_MARKER || directoryOffset == ZIP64_MARKER || directoryOffset + directorySize > fileSize) {
+            return null;
+        }
+
+        byte[] wanted = entryName.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer directory = read(channel, directoryOffset, (int) directorySize);
+
+        int position = 0;
+        while (position + CENTRAL_DIRECTORY_HEADER_SIZE <= directorySize && directory.getInt(position) == CENTRAL_DIRECTORY_HEADER) {
+            int method = directory.getShort(position + 10) & 0xFFFF;
+            long compressedSize = directory.getInt(position + 20) & ZIP64_MARKER;
+            int nameLength = directory.getShort(position + 28) & 0xFFFF;
+            int extraLength = directory.getShort(position + 30) & 0xFFFF;
+            int commentLength = directory.getShort(position + 32) & 0xFFFF;
+            long headerOffset = directory.getInt(position + 42) & ZIP64_MARKER;
+
+            if (nameLength == wanted.length && matches(directory, position + CENTRAL_DIRECTORY_HEADER_SIZE, wanted)) {
+                if (method != STORED || compressedSize == ZIP64_MARKER || headerOffset == ZIP64_MARKER) {
+                    return null;
+                }
+
+                // The local header can have a different extra field than the central directory, so it has to be read.
+                ByteBuffer local = read(channel, headerOffset, LOCAL_FILE_HEADER_SIZE);
+                if (local.getInt(0) != LOCAL_FILE_HEADER) {
+                    throw new IOException("Invalid local file header for " + entryName);
+                }
+
+                long dataOffset = headerOffset + LOCAL_FILE_HEADER_SIZE + (local.getShort(26) & 0xFFFF) + (local.getShort(28) & 0xFFFF);
+                return new long[]{dataOffset, compressedSize};
+            }
+
+            position += CENTRAL_DIRECTORY_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+
+        return null;
+    }
+
+    private static boolean matches(ByteBuffer directory, int offset, byte[] wanted) {
+        byte[] name = new byte[wanted.length];
+        directory.get(offset, name);
+        return Arrays.equals(name, wanted);
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Reached the end of the zip at " + position);
+            }
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,45 @@
+package org.omnimc.lumina.mcmap.stats;
+
+import org.omnimc.lumina.mcmap.McMap;
+import org.omnimc.lumina.mcmap.McMap.Population;
+
+/**
+ * Receives events from an {@link McMap}, set one with {@link McMap#setListener(McMapListener)}.
+ * <p>
+ * Events are fired on the thread that called into the {@link McMap}, so implementations have to be thread-safe and fast.
+ * While the listener is {@link #NONE}, an {@link McMap} does not even read the clock, so leaving it unset costs nothing.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @see McMapStats
+ * @since 2.0.0
+ */
+public interface McMapListener {
+
+    /**
+     * The listener every {@link McMap} starts with, it ignores every event.
+     */
+    McMapListener NONE = new McMapListener() {};
+
+    /**
+     * Called at the end of every {@code getClassData} call.
+     *
+     * @param population  The {@link Population} that was asked for, {@link Population#BOTH} with {@link McMap.Version#V1}.
+     * @param found       If the name was in the index.
+     * @param cached      If every requested section was already cached, so nothing had to be decoded.
+     * @param nanoseconds How long the whole lookup took.
+     */
+    default void onLookup(Population population, boolean found, boolean cached, long nanoseconds) {
+    }
+
+    /**
+     * Called after a single section of a class is decoded.
+     *
+     * @param section               The section that was decoded, {@link Population#BOTH} for a {@link McMap.Version#V1} block.
+     * @param compressedLength      The amount of bytes read from the file.
+     * @param uncompressedLength    The amount of bytes after decompressing.
+     * @param decompressNanoseconds How long reading and decompressing took.
+     * @param parseNanoseconds      How long parsing the decompressed lines took.
+     */
+    default void onSectionDecoded(Population section, int compressedLength, int uncompressedLength, long decompressNanoseconds, long parseNanoseconds) {
+    }
+}
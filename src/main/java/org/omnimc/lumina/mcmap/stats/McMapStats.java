@@ -0,0 +1,275 @@
+package org.omnimc.lumina.mcmap.stats;
+
+import org.omnimc.lumina.mcmap.McMap;
+import org.omnimc.lumina.mcmap.McMap.Population;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link McMapListener} that keeps counters and {@link LatencyHistogram}s of everything an {@link McMap} does.
+ * <pre><code>
+ * McMapStats stats = new McMapStats();
+ * mcMap.setListener(stats);
+ * stats.registerMBean("client"); // Optional, publishes the stats over JMX.
+ * </code></pre>
+ * <p>
+ * One instance can be shared by several {@link McMap}s to get combined numbers.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public final class McMapStats implements McMapListener, McMapStatsMXBean {
+
+    public static final String JMX_DOMAIN = "org.omnimc.lumina";
+
+    private static final Population[] POPULATIONS = Population.values();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder indexMisses = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    /*
+     * Indexed by Population#ordinal().
+     */
+    private final LongAdder[] sectionsDecoded = newAdders();
+    private final LongAdder[] bytesRead = newAdders();
+    private final LongAdder[] bytesDecompressed = newAdders();
+
+    private final LatencyHistogram lookupLatency = new LatencyHistogram();
+    private final LatencyHistogram decompressLatency = new LatencyHistogram();
+    private final LatencyHistogram parseLatency = new LatencyHistogram();
+
+    private ObjectName objectName;
+
+    @Override
+    public void onLookup(Population population, boolean found, boolean cached, long nanoseconds) {
+        lookups.increment();
+        lookupLatency.record(nanoseconds);
+
+        if (!found) {
+            indexMisses.increment();
+        } else if (cached) {
+            cacheHits.increment();
+        } else {
+            cacheMisses.increment();
+        }
+    }
+
+    @Override
+    public void onSectionDecoded(Population section, int compressedLength, int uncompressedLength, long decompressNanoseconds, long parseNanoseconds) {
+        int index = section.ordinal();
+        sectionsDecoded[index].increment();
+        bytesRead[index].add(compressedLength);
+        bytesDecompressed[index].add(uncompressedLength);
+
+        decompressLatency.record(decompressNanoseconds);
+        parseLatency.record(parseNanoseconds);
+    }
+
+    /**
+     * Publishes these stats on the platform {@code MBeanServer}, as {@code org.omnimc.lumina:type=McMapStats,name=<name>}.
+     *
+     * @param name The name that tells this instance apart, like the name of the mappings.
+     * @return The {@link ObjectName} it was registered with.
+     */
+    public synchronized ObjectName registerMBean(String name) {
+        if (objectName != null) {
+            throw new IllegalStateException("McMapStats is already registered as " + objectName);
+        }
+
+        try {
+            ObjectName registeredName = new ObjectName(JMX_DOMAIN + ":type=McMapStats,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, registeredName);
+            objectName = registeredName;
+            return registeredName;
+        } catch (JMException e) {
+            throw new RuntimeException("Failed to register McMapStats as " + name, e);
+        }
+    }
+
+    public synchronized void unregisterMBean() {
+        if (objectName == null) {
+            return;
+        }
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new RuntimeException("Failed to unregister McMapStats " + objectName, e);
+        } finally {
+            objectName = null;
+        }
+    }
+
+    public long getSectionsDecoded(Population section) {
+        return sectionsDecoded[section.ordinal()].sum();
+    }
+
+    public long getBytesRead(Population section) {
+        return bytesRead[section.ordinal()].sum();
+    }
+
+    public long getBytesDecompressed(Population section) {
+        return bytesDecompressed[section.ordinal()].sum();
+    }
+
+    public LatencyHistogram getLookupLatency() {
+        return lookupLatency;
+    }
+
+    public LatencyHistogram getDecompressLatency() {
+        return decompressLatency;
+    }
+
+    public LatencyHistogram getParseLatency() {
+        return parseLatency;
+    }
+
+    @Override
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    @Override
+    public long getIndexMisses() {
+        return indexMisses.sum();
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * @return The share of found classes that needed no decoding, between {@code 0} and {@code 1}.
+     */
+    @Override
+    public double getCacheHitRate() {
+        long hits = getCacheHits();
+        long total = hits + getCacheMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public long getSectionsDecoded() {
+        return sum(sectionsDecoded);
+    }
+
+    @Override
+    public long getBytesRead() {
+        return sum(bytesRead);
+    }
+
+    @Override
+    public long getBytesDecompressed() {
+        return sum(bytesDecompressed);
+    }
+
+    @Override
+    public long getFieldBytesRead() {
+        return getBytesRead(Population.FIELD);
+    }
+
+    @Override
+    public long getMethodBytesRead() {
+        return getBytesRead(Population.METHOD);
+    }
+
+    @Override
+    public long getParameterBytesRead() {
+        return getBytesRead(Population.PARAMETERS);
+    }
+
+    @Override
+    public double getLookupMean() {
+        return lookupLatency.getMean();
+    }
+
+    @Override
+    public long getLookupP50() {
+        return lookupLatency.getPercentile(50);
+    }
+
+    @Override
+    public long getLookupP99() {
+        return lookupLatency.getPercentile(99);
+    }
+
+    @Override
+    public long getDecompressP50() {
+        return decompressLatency.getPercentile(50);
+    }
+
+    @Override
+    public long getDecompressP99() {
+        return decompressLatency.getPercentile(99);
+    }
+
+    @Override
+    public long getParseP50() {
+        return parseLatency.getPercentile(50);
+    }
+
+    @Override
+    public long getParseP99() {
+        return parseLatency.getPercentile(99);
+    }
+
+    @Override
+    public void reset() {
+        lookups.reset();
+        indexMisses.reset();
+        cacheHits.reset();
+        cacheMisses.reset();
+
+        for (int i = 0; i < POPULATIONS.length; i++) {
+            sectionsDecoded[i].reset();
+            bytesRead[i].reset();
+            bytesDecompressed[i].reset();
+        }
+
+        lookupLatency.reset();
+        decompressLatency.reset();
+        parseLatency.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "McMapStats{" +
+                "lookups=" + getLookups() +
+                ", indexMisses=" + getIndexMisses() +
+                ", cacheHitRate=" + getCacheHitRate() +
+                ", sectionsDecoded=" + getSectionsDecoded() +
+                ", bytesRead=" + getBytesRead() +
+                ", bytesDecompressed=" + getBytesDecompressed() +
+                ", lookupLatency=" + lookupLatency +
+                ", decompressLatency=" + decompressLatency +
+                ", parseLatency=" + parseLatency +
+                '}';
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[POPULATIONS.length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long sum(LongAdder[] adders) {
+        long sum = 0;
+        for (LongAdder adder : adders) {
+            sum += adder.sum();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,48 @@
+package org.omnimc.lumina.mcmap.stats;
+
+/**
+ * The JMX view of {@link McMapStats}, every duration is in nanoseconds.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public interface McMapStatsMXBean {
+
+    long getLookups();
+
+    long getIndexMisses();
+
+    long getCacheHits();
+
+    long getCacheMisses();
+
+    double getCacheHitRate();
+
+    long getSectionsDecoded();
+
+    long getBytesRead();
+
+    long getBytesDecompressed();
+
+    long getFieldBytesRead();
+
+    long getMethodBytesRead();
+
+    long getParameterBytesRead();
+
+    double getLookupMean();
+
+    long getLookupP50();
+
+    long getLookupP99();
+
+    long getDecompressP50();
+
+    long getDecompressP99();
+
+    long getParseP50();
+
+    long getParseP99();
+
+    void reset();
+}
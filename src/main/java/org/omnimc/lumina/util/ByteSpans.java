@@ -0,0 +1,66 @@
+package org.omnimc.lumina.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Helpers for scanning spans of UTF-8 bytes inside a {@link ByteBuffer} without decoding them.
+ * <p>
+ * Every method only uses absolute gets, so the position and limit of the buffer are never touched
+ * and the same buffer can be scanned from multiple threads.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public final class ByteSpans {
+
+    private ByteSpans() {
+        throw new UnsupportedOperationException("ByteSpans cannot be instantiated");
+    }
+
+    public static int indexOf(ByteBuffer buffer, int start, int end, byte value) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static int trimStart(ByteBuffer buffer, int start, int end) {
+        while (start < end && isWhitespace(buffer.get(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    public static int trimEnd(ByteBuffer buffer, int start, int end) {
+        while (end > start && isWhitespace(buffer.get(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    public static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Decodes a span as UTF-8, this is the only place a span turns into a {@link String}.
+     *
+     * @param buffer The buffer that contains the span.
+     * @param start  The absolute index of the first byte.
+     * @param end    The absolute index after the last byte.
+     * @return The decoded {@link String}.
+     */
+    public static String decode(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
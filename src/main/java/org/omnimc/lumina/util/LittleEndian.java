@@ -1,6 +1,7 @@
 package org.omnimc.lumina.util;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.RandomAccessFile;
 
 /**
@@ -73,4 +74,20 @@ public final class LittleEndian {
         }
         return LittleEndian.toInt4LE(bytes, offset);
     }
+
+    public static short readShort2(InputStream stream, byte[] bytes, int offset) throws IOException {
+        int bytesRead = stream.readNBytes(bytes, 0, 2);
+        if (bytesRead != 2) {
+            return -1;
+        }
+        return LittleEndian.toShort2(bytes, offset);
+    }
+
+    public static int readInt4(InputStream stream, byte[] bytes, int offset) throws IOException {
+        int bytesRead = stream.readNBytes(bytes, 0, INT4_BYTE);
+        if (bytesRead != INT4_BYTE) {
+            return -1;
+        }
+        return LittleEndian.toInt4LE(bytes, offset);
+    }
 }
\ No newline at end of file
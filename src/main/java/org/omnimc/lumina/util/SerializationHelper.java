@@ -2,11 +2,17 @@ package org.omnimc.lumina.util;
 
 import org.omnimc.lumina.data.Mappings;
 import org.omnimc.lumina.data.serialization.LineSerializer;
+import org.omnimc.lumina.data.serialization.ParseError;
+import org.omnimc.lumina.data.serialization.ParseErrorSink;
+import org.omnimc.lumina.data.serialization.SpanLineSerializer;
 import org.omnimc.lumina.data.types.ClassData;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.function.BiPredicate;
+import java.util.function.IntConsumer;
 
 /**
  * @author <a href=https://github.com/CadenCCC>Caden</a>
@@ -14,10 +20,35 @@ import java.util.function.BiPredicate;
  */
 public final class SerializationHelper {
 
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private static final int MEMBERS = 0;
+    private static final int FIELDS = 1;
+    private static final int METHODS = 2;
+    private static final int PARAMETERS = 3;
+
+    private static final IntConsumer NO_PROGRESS = classes -> {
+    };
+
+    private static volatile ParseErrorSink defaultErrorSink = ParseErrorSink.STANDARD_OUT;
+
     private SerializationHelper() {
         throw new UnsupportedOperationException("SerializationHelper cannot be instantiated");
     }
 
+    /**
+     * Sets the {@link ParseErrorSink} used by every method that is not given one, like when an {@code McMap} decodes a class.
+     *
+     * @param errorSink The new default, {@link ParseErrorSink#STANDARD_OUT} is the initial one.
+     */
+    public static void setDefaultErrorSink(ParseErrorSink errorSink) {
+        defaultErrorSink = Objects.requireNonNull(errorSink, "Error sink cannot be NULL, use ParseErrorSink.IGNORE instead.");
+    }
+
+    public static ParseErrorSink getDefaultErrorSink() {
+        return defaultErrorSink;
+    }
+
     public static ClassData populateClassData(InputStream stream, LineSerializer lineSerializer, ClassData data) {
         getMappingsFromInputStream(stream, null,
                                    ((line, mappings) -> {
@@ -41,13 +72,200 @@ public final class SerializationHelper {
         return data;
     }
 
+    /**
+     * Populates a {@link ClassData} with both fields and methods, straight from a span of bytes.
+     *
+     * @param buffer     The buffer that holds the lines.
+     * @param offset     The absolute index of the first byte.
+     * @param length     The amount of bytes to parse.
+     * @param serializer The {@link SpanLineSerializer} that parses each line.
+     * @param data       The {@link ClassData} to populate.
+     * @return The populated {@link ClassData}.
+     */
+    public static ClassData populateClassData(ByteBuffer buffer, int offset, int length, SpanLineSerializer serializer, ClassData data) {
+        parseLines(buffer, offset, length, serializer, data, MEMBERS);
+        return data;
+    }
+
+    public static ClassData populateClassDataField(ByteBuffer buffer, int offset, int length, SpanLineSerializer serializer, ClassData data) {
+        parseLines(buffer, offset, length, serializer, data, FIELDS);
+        return data;
+    }
+
+    public static ClassData populateClassDataMethod(ByteBuffer buffer, int offset, int length, SpanLineSerializer serializer, ClassData data) {
+        parseLines(buffer, offset, length, serializer, data, METHODS);
+        return data;
+    }
+
+    /**
+     * Attaches parameter names to the methods of a {@link ClassData}, the methods have to be populated first.
+     */
+    public static ClassData populateClassDataParameter(ByteBuffer buffer, int offset, int length, SpanLineSerializer serializer, ClassData data) {
+        parseLines(buffer, offset, length, serializer, data, PARAMETERS);
+        return data;
+    }
+
+    /**
+     * Reads the whole {@link InputStream} and populates the {@link Mappings} line by line.
+     * <p>
+     * If {@code serializer} is also a {@link SpanLineSerializer} the lines are handed over as byte spans, otherwise every line is decoded to a {@link String}.
+     *
+     * @param inputStream The {@link InputStream} to read, it is closed once read.
+     * @param serializer  The {@link LineSerializer} that parses each line.
+     * @param mappings    The {@link Mappings} to populate.
+     * @return The populated {@link Mappings}.
+     */
     public static Mappings getMappingsFromInputStream(InputStream inputStream, LineSerializer serializer, Mappings mappings) {
-        return getMappingsFromInputStream(inputStream, mappings, serializer::serialize);
+        return getMappingsFromInputStream(inputStream, serializer, mappings, defaultErrorSink);
+    }
+
+    /**
+     * Like {@link #getMappingsFromInputStream(InputStream, LineSerializer, Mappings)}, but every line that fails is given to {@code errorSink}.
+     */
+    public static Mappings getMappingsFromInputStream(InputStream inputStream, LineSerializer serializer, Mappings mappings, ParseErrorSink errorSink) {
+        return getMappingsFromInputStream(inputStream, serializer, mappings, errorSink, NO_PROGRESS);
+    }
+
+    /**
+     * Like {@link #getMappingsFromInputStream(InputStream, LineSerializer, Mappings, ParseErrorSink)}, and {@code onClassParsed} is given the
+     * amount of classes in {@code mappings} every time a line adds one. How many classes there will be is only known once the stream is read.
+     */
+    public static Mappings getMappingsFromInputStream(InputStream inputStream, LineSerializer serializer, Mappings mappings, ParseErrorSink errorSink,
+                                                      IntConsumer onClassParsed) {
+        if (serializer instanceof SpanLineSerializer spanLineSerializer) {
+            return getMappingsFromByteStream(inputStream, spanLineSerializer, mappings, errorSink, onClassParsed);
+        }
+        return getMappingsFromInputStream(inputStream, mappings, serializer::serialize, errorSink, onClassParsed);
+    }
+
+    /**
+     * Reads the whole {@link InputStream} and populates the {@link Mappings} line by line, without creating a {@link String} per line.
+     * <p>
+     * The bytes are read into one reused buffer, and each line is handed to the {@link SpanLineSerializer} as a span of that buffer.
+     * The buffer only grows when a single line is bigger than it.
+     *
+     * @param inputStream The {@link InputStream} to read, it is closed once read.
+     * @param serializer  The {@link SpanLineSerializer} that parses each line.
+     * @param mappings    The {@link Mappings} to populate.
+     * @return The populated {@link Mappings}.
+     */
+    public static Mappings getMappingsFromByteStream(InputStream inputStream, SpanLineSerializer serializer, Mappings mappings) {
+        return getMappingsFromByteStream(inputStream, serializer, mappings, defaultErrorSink);
+    }
+
+    /**
+     * Like {@link #getMappingsFromByteStream(InputStream, SpanLineSerializer, Mappings)}, but every line that fails is given to {@code errorSink}.
+     */
+    public static Mappings getMappingsFromByteStream(InputStream inputStream, SpanLineSerializer serializer, Mappings mappings, ParseErrorSink errorSink) {
+        return getMappingsFromByteStream(inputStream, serializer, mappings, errorSink, NO_PROGRESS);
+    }
+
+    /**
+     * Like {@link #getMappingsFromByteStream(InputStream, SpanLineSerializer, Mappings, ParseErrorSink)}, and {@code onClassParsed} is given the
+     * amount of classes in {@code mappings} every time a line adds one.
+     */
+    public static Mappings getMappingsFromByteStream(InputStream inputStream, SpanLineSerializer serializer, Mappings mappings, ParseErrorSink errorSink,
+                                                     IntConsumer onClassParsed) {
+        Objects.requireNonNull(inputStream, "Supplier cannot be NULL.");
+        Objects.requireNonNull(onClassParsed, "Progress consumer cannot be NULL.");
+
+        byte[] bytes = new byte[READ_BUFFER_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int lineNumber = 0;
+        int filled = 0;
+        int classes = mappings.getClasses().size();
+
+        try (inputStream) {
+            int read;
+            while ((read = inputStream.read(bytes, filled, bytes.length - filled)) != -1) {
+                filled += read;
+
+                int lineStart = 0;
+                for (int i = 0; i < filled; i++) {
+                    if (bytes[i] == '\n') {
+                        testLine(serializer, mappings, buffer, lineStart, i - lineStart, ++lineNumber, errorSink);
+                        classes = reportClasses(mappings, classes, onClassParsed);
+                        lineStart = i + 1;
+                    }
+                }
+
+                // Move the unfinished line to the front, growing the buffer if that line fills all of it.
+                filled -= lineStart;
+                System.arraycopy(bytes, lineStart, bytes, 0, filled);
+                if (filled == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                    buffer = ByteBuffer.wrap(bytes);
+                }
+            }
+
+            if (filled > 0) {
+                testLine(serializer, mappings, buffer, 0, filled, ++lineNumber, errorSink);
+                reportClasses(mappings, classes, onClassParsed);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize with supplier.", e);
+        }
+
+        return mappings;
+    }
+
+    private static void testLine(SpanLineSerializer serializer, Mappings mappings, ByteBuffer buffer, int offset, int length, int lineNumber,
+                                 ParseErrorSink errorSink) {
+        if (!serializer.serialize(buffer, offset, length, mappings)) {
+            errorSink.onError(new ParseError(lineNumber, ByteSpans.decode(buffer, offset, offset + length)));
+        }
+    }
+
+    /**
+     * Gives {@code onClassParsed} the amount of classes in {@code mappings} if it changed since {@code classes}.
+     *
+     * @return The amount of classes in {@code mappings}.
+     */
+    private static int reportClasses(Mappings mappings, int classes, IntConsumer onClassParsed) {
+        int current = mappings.getClasses().size();
+        if (current != classes) {
+            onClassParsed.accept(current);
+        }
+        return current;
+    }
+
+    private static void parseLines(ByteBuffer buffer, int offset, int length, SpanLineSerializer serializer, ClassData data, int sections) {
+        int end = offset + length;
+        int lineStart = offset;
+        int lineNumber = 0;
+
+        while (lineStart < end) {
+            int lineEnd = ByteSpans.indexOf(buffer, lineStart, end, (byte) '\n');
+            if (lineEnd == -1) {
+                lineEnd = end;
+            }
+            lineNumber++;
+
+            boolean passed = switch (sections) {
+                case FIELDS -> serializer.serializeFields(buffer, lineStart, lineEnd - lineStart, data);
+                case METHODS -> serializer.serializeMethods(buffer, lineStart, lineEnd - lineStart, data);
+                case PARAMETERS -> serializer.serializeParameters(buffer, lineStart, lineEnd - lineStart, data);
+                default -> serializer.serializeMembers(buffer, lineStart, lineEnd - lineStart, data);
+            };
+
+            if (!passed) {
+                defaultErrorSink.onError(new ParseError(lineNumber, ByteSpans.decode(buffer, lineStart, lineEnd)));
+            }
+
+            lineStart = lineEnd + 1;
+        }
     }
 
     private static Mappings getMappingsFromInputStream(InputStream inputStream, Mappings mappings, BiPredicate<String, Mappings> predicate) {
+        return getMappingsFromInputStream(inputStream, mappings, predicate, defaultErrorSink, NO_PROGRESS);
+    }
+
+    private static Mappings getMappingsFromInputStream(InputStream inputStream, Mappings mappings, BiPredicate<String, Mappings> predicate,
+                                                       ParseErrorSink errorSink, IntConsumer onClassParsed) {
         Objects.requireNonNull(inputStream, "Supplier cannot be NULL.");
+        Objects.requireNonNull(onClassParsed, "Progress consumer cannot be NULL.");
         int lineNumber;
+        int classes = mappings.getClasses().size();
 
         try {
             try (BufferedInputStream bufferedInputStream = new BufferedInputStream(inputStream);
@@ -58,8 +276,9 @@ public final class SerializationHelper {
                     lineNumber = reader.getLineNumber();
 
                     if (!predicate.test(line, mappings)) {
-                        System.out.println("Failed to parse line " + lineNumber + "." + line);
+                        errorSink.onError(new ParseError(lineNumber, line));
                     }
+                    classes = reportClasses(mappings, classes, onClassParsed);
                 }
             }
         } catch (IOException e) {
@@ -0,0 +1,118 @@
+package org.omnimc.lumina.data.serialization.proguard;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.omnimc.lumina.data.Mappings;
+import org.omnimc.lumina.data.serialization.LineSerializer;
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.testing.SyntheticMappings;
+import org.omnimc.lumina.util.SerializationHelper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that {@link ProguardParser}, serial and parallel, builds the same {@link Mappings} as the {@link String} path of {@link ProguardLineSerializer}.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+class ProguardParserTest {
+
+    private static final int CLASS_COUNT = 2_000;
+
+    /**
+     * Members in the big class of {@link #chunkBoundariesInsideAClass(int)}, enough for it to cover several chunks on its own.
+     */
+    private static final int BIG_CLASS_MEMBERS = 12_000;
+
+    private static byte[] proguard;
+    private static Mappings serial;
+
+    @BeforeAll
+    static void setup() {
+        proguard = SyntheticMappings.of(CLASS_COUNT).proguard();
+        serial = ProguardParser.parse(ByteBuffer.wrap(proguard));
+    }
+
+    @Test
+    void matchesLineSerializer() {
+        Mappings lineMappings = parseWithLineSerializer(proguard);
+
+        assertEquals(CLASS_COUNT, serial.getClasses().size());
+        assertEquals(lineMappings.getClasses(), serial.getClasses());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 8})
+    void parallelMatchesSerial(int parallelism) {
+        assertEquals(serial.getClasses(), ProguardParser.parseParallel(ByteBuffer.wrap(proguard), parallelism).getClasses());
+    }
+
+    /**
+     * One class bigger than several chunks, so the evenly spaced chunk targets land in the middle of it and have to move on to the next class header.
+     * Some of those targets end up on the same header, which leaves empty chunks.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {2, 4, 16})
+    void chunkBoundariesInsideAClass(int parallelism) {
+        StringBuilder builder = new StringBuilder("# {\"id\":\"net.minecraft.mapping\",\"version\":\"1.0\"}\n");
+        builder.append("net.minecraft.Small -> a:\n");
+        builder.append("    int value -> a\n");
+        builder.append("net.minecraft.Big -> b:\n");
+        builder.append("    # {\"fileName\":\"Big.java\",\"id\":\"sourceFile\"}\n");
+        for (int i = 0; i < BIG_CLASS_MEMBERS; i++) {
+            builder.append("    short field").append(i).append(" -> f").append(i).append('\n');
+            builder.append("    1:4:java.lang.String[] method").append(i).append("(int,net.minecraft.Small) -> m").append(i).append('\n');
+            if (i % 1_000 == 0) {
+                builder.append('\n');
+            }
+        }
+        builder.append("net.minecraft.Last -> c:\n");
+        builder.append("    void tick() -> a\n");
+        byte[] data = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+        Mappings expected = parseWithLineSerializer(data);
+        Mappings parallel = ProguardParser.parseParallel(ByteBuffer.wrap(data), parallelism);
+
+        assertEquals(expected.getClasses(), ProguardParser.parse(ByteBuffer.wrap(data)).getClasses());
+        assertEquals(expected.getClasses(), parallel.getClasses());
+
+        ClassData big = parallel.getClass("b");
+        assertEquals(BIG_CLASS_MEMBERS, big.getFields().size());
+        assertEquals(BIG_CLASS_MEMBERS, big.getMethods().size());
+        assertEquals("S", big.getFields().values().iterator().next().getDescriptor());
+        assertNotNull(parallel.getClass("c"));
+    }
+
+    /**
+     * {@link ProguardLineSerializer} is also a {@link org.omnimc.lumina.data.serialization.SpanLineSerializer}, it is wrapped so
+     * {@link SerializationHelper} parses through its {@link String} path instead of handing it byte spans.
+     */
+    private static Mappings parseWithLineSerializer(byte[] data) {
+        ProguardLineSerializer serializer = new ProguardLineSerializer();
+        LineSerializer stringOnly = new LineSerializer() {
+            @Override
+            public boolean serialize(String line, Mappings mappings) {
+                return serializer.serialize(line, mappings);
+            }
+
+            @Override
+            public boolean serializeFields(String line, ClassData classData) {
+                return serializer.serializeFields(line, classData);
+            }
+
+            @Override
+            public boolean serializeMethods(String line, ClassData classData) {
+                return serializer.serializeMethods(line, classData);
+            }
+        };
+
+        return SerializationHelper.getMappingsFromInputStream(new ByteArrayInputStream(data), stringOnly, new Mappings());
+    }
+}
@@ -0,0 +1,234 @@
+package org.omnimc.lumina.footprint;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.omnimc.lumina.data.Mappings;
+import org.omnimc.lumina.data.serialization.proguard.ProguardParser;
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.data.types.FieldData;
+import org.omnimc.lumina.data.types.MethodData;
+import org.omnimc.lumina.mcmap.MappingBlock;
+import org.omnimc.lumina.mcmap.McMap;
+import org.omnimc.lumina.testing.SyntheticMappings;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Measures the retained heap size of loaded mappings with JOL, and fails when a change makes them bigger than the recorded baseline.
+ * <p>
+ * The datasets come from {@link SyntheticMappings}, parsed with {@link ProguardParser} so descriptors are shared like they are in practice.
+ * Every metric is in bytes, per class or per member, so the numbers can be compared between dataset sizes.
+ * <p>
+ * Walking the whole graph is slow, so {@code check} only measures the small dataset. The large one is tagged {@code footprint} and
+ * only runs with {@code ./gradlew footprintTest}, which measures both. After an intended change to the footprint, record a new baseline
+ * with {@code ./gradlew footprintTest -PrecordFootprint=true} and commit the updated {@code heap-footprint-baseline.properties}.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+class HeapFootprintTest {
+
+    private static final String BASELINE_RESOURCE = "/heap-footprint-baseline.properties";
+    private static final Path BASELINE_SOURCE = Path.of("src", "test", "resources", "heap-footprint-baseline.properties");
+
+    /**
+     * How much bigger than the baseline a metric may be before the test fails.
+     */
+    private static final double TOLERANCE = 0.05;
+
+    /**
+     * Members are measured one by one, so only this many are sampled.
+     */
+    private static final int MEMBER_SAMPLE = 20_000;
+
+    private static final int SMALL_DATASET = 1_000;
+    private static final int LARGE_DATASET = 10_000;
+
+    private static final boolean RECORD = Boolean.getBoolean("lumina.footprint.record");
+
+    private static final Properties BASELINE = new Properties();
+    private static final Map<String, Long> MEASURED = new TreeMap<>();
+    private static final Map<Integer, Mappings> DATASETS = new HashMap<>();
+
+    @TempDir
+    static Path tempDir;
+
+    @BeforeAll
+    static void setup() throws IOException {
+        // The baseline is recorded with compressed references and 8 byte alignment, other layouts give other sizes.
+        assumeTrue(VM.current().addressSize() == 8 && VM.current().sizeOfField("oop") == 4 && VM.current().objectAlignment() == 8,
+                   "The heap footprint baseline needs compressed references: " + VM.current().details());
+
+        try (InputStream stream = HeapFootprintTest.class.getResourceAsStream(BASELINE_RESOURCE)) {
+            if (stream != null) {
+                BASELINE.load(stream);
+            }
+        }
+    }
+
+    @AfterAll
+    static void recordBaseline() throws IOException {
+        if (!RECORD || MEASURED.isEmpty()) {
+            return;
+        }
+
+        StringBuilder builder = new StringBuilder("# Retained heap sizes in bytes, recorded by HeapFootprintTest.\n");
+        MEASURED.forEach((key, value) -> builder.append(key).append('=').append(value).append('\n'));
+        Files.writeString(BASELINE_SOURCE, builder.toString(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void mappings() {
+        checkMappings(SMALL_DATASET);
+    }
+
+    @Test
+    void classData() {
+        checkClassData(SMALL_DATASET);
+    }
+
+    @Test
+    void members() {
+        checkMembers(SMALL_DATASET);
+    }
+
+    @Test
+    void mcMap() throws Exception {
+        checkMcMap(SMALL_DATASET);
+    }
+
+    @Nested
+    @Tag("footprint")
+    class Large {
+
+        @Test
+        void mappings() {
+            checkMappings(LARGE_DATASET);
+        }
+
+        @Test
+        void classData() {
+            checkClassData(LARGE_DATASET);
+        }
+
+        @Test
+        void members() {
+            checkMembers(LARGE_DATASET);
+        }
+
+        @Test
+        void mcMap() throws Exception {
+            checkMcMap(LARGE_DATASET);
+        }
+    }
+
+    private static void checkMappings(int classCount) {
+        Mappings mappings = dataset(classCount);
+        long totalSize = GraphLayout.parseInstance(mappings).totalSize();
+
+        check("mappings.bytesPerClass", classCount, totalSize / classCount);
+        check("mappings.bytesPerMember", classCount, totalSize / countMembers(mappings));
+    }
+
+    private static void checkClassData(int classCount) {
+        long totalSize = 0;
+        for (ClassData classData : dataset(classCount).getClasses().values()) {
+            totalSize += GraphLayout.parseInstance(classData).totalSize();
+        }
+
+        check("classData.bytesPerClass", classCount, totalSize / classCount);
+    }
+
+    private static void checkMembers(int classCount) {
+        List<FieldData> fields = new ArrayList<>();
+        List<MethodData> methods = new ArrayList<>();
+        for (ClassData classData : dataset(classCount).getClasses().values()) {
+            if (fields.size() < MEMBER_SAMPLE) {
+                fields.addAll(classData.getFields().values());
+            }
+            if (methods.size() < MEMBER_SAMPLE) {
+                methods.addAll(classData.getMethods().values());
+            }
+        }
+
+        check("fieldData.bytesPerField", classCount, averageSize(fields));
+        check("methodData.bytesPerMethod", classCount, averageSize(methods));
+    }
+
+    private static void checkMcMap(int classCount) throws Exception {
+        File file = tempDir.resolve("footprint-" + classCount + ".mcmap").toFile();
+
+        try (McMap map = McMap.create(dataset(classCount), file, McMap.Version.V3)) {
+            MappingBlock[] blocks = (MappingBlock[]) getField(map, "entryBlocksByIndex");
+            check("mappingBlock.bytesPerBlock", classCount, averageSize(Arrays.asList(blocks)));
+
+            // Both name maps share their MappingBlocks with the index array, so they are measured as one graph.
+            long indexSize = GraphLayout.parseInstance(getField(map, "entryBlocksUnmapped"), getField(map, "entryBlocksMapped"), blocks).totalSize();
+            check("mcMap.index.bytesPerClass", classCount, indexSize / classCount);
+
+            map.loadAllClassData();
+            Mappings loaded = map.getMappings();
+            check("mcMap.loaded.bytesPerClass", classCount, GraphLayout.parseInstance(loaded).totalSize() / classCount);
+        }
+    }
+
+    private static void check(String metric, int classCount, long measured) {
+        String key = metric + "." + classCount;
+        MEASURED.put(key, measured);
+
+        String recorded = BASELINE.getProperty(key);
+        System.out.printf("%-40s %8d bytes (baseline %s)%n", key, measured, recorded == null ? "none" : recorded);
+
+        if (RECORD) {
+            return;
+        }
+
+        assertNotNull(recorded, "No baseline recorded for " + key + ", record one with -PrecordFootprint=true");
+
+        long limit = (long) (Long.parseLong(recorded) * (1 + TOLERANCE));
+        assertTrue(measured <= limit, key + " grew to " + measured + " bytes, the baseline is " + recorded + " bytes");
+    }
+
+    private static Mappings dataset(int classCount) {
+        return DATASETS.computeIfAbsent(classCount, count -> ProguardParser.parse(ByteBuffer.wrap(SyntheticMappings.of(count).proguard())));
+    }
+
+    private static long countMembers(Mappings mappings) {
+        long members = 0;
+        for (ClassData classData : mappings.getClasses().values()) {
+            members += classData.getFields().size() + classData.getMethods().size();
+        }
+        return members;
+    }
+
+    private static long averageSize(List<?> objects) {
+        int count = Math.min(objects.size(), MEMBER_SAMPLE);
+        long totalSize = 0;
+        for (int i = 0; i < count; i++) {
+            totalSize += GraphLayout.parseInstance(objects.get(i)).totalSize();
+        }
+        return totalSize / count;
+    }
+
+    private static Object getField(McMap map, String name) throws ReflectiveOperationException {
+        Field field = McMap.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(map);
+    }
+}
@@ -0,0 +1,133 @@
+package org.omnimc.lumina.hierarchy;
+
+import org.junit.jupiter.api.Test;
+import org.omnimc.lumina.data.Mappings;
+import org.omnimc.lumina.data.types.ClassData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that {@link MemberResolver} walks the hierarchy breadth first, keeps private members on their owner and memoizes every result.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+class MemberResolverTest {
+
+    private final Mappings mappings = new Mappings();
+    private final List<String> lookups = new ArrayList<>();
+    private final MemberResolver resolver = new MemberResolver(name -> {
+        lookups.add(name);
+        return mappings.getClass(name);
+    });
+
+    @Test
+    void resolvesInheritedMembers() {
+        ClassData base = mappings.addClass("a", "net/minecraft/Base");
+        base.addField("a", "count", "I");
+        base.addMethod("b", "tick", "()V");
+        mappings.addClass("b", "net/minecraft/Middle").addDependentClass("a");
+        mappings.addClass("c", "net/minecraft/Leaf").addDependentClass("b");
+
+        assertEquals("count", resolver.resolveFieldName("c", "a", "I"));
+        assertEquals("tick", resolver.resolveMethodName("c", "b", "()V"));
+        assertSame(base.getMethods().get("b()V"), resolver.findMethod("c", "b", "()V"));
+        // The descriptor is part of the key.
+        assertEquals("b", resolver.resolveMethodName("c", "b", "(I)V"));
+    }
+
+    @Test
+    void privateMembersOnlyMatchOnTheirOwner() {
+        ClassData base = mappings.addClass("a", "net/minecraft/Base");
+        base.addPrivateField("a", "secret", "I");
+        base.addPrivateMethod("b", "hidden", "()V");
+        mappings.addClass("b", "net/minecraft/Leaf").addDependentClass("a");
+
+        assertEquals("secret", resolver.resolveFieldName("a", "a", "I"));
+        assertEquals("hidden", resolver.resolveMethodName("a", "b", "()V"));
+
+        assertNull(resolver.findField("b", "a", "I"));
+        assertNull(resolver.findMethod("b", "b", "()V"));
+        assertEquals("a", resolver.resolveFieldName("b", "a", "I"));
+        assertEquals("b", resolver.resolveMethodName("b", "b", "()V"));
+    }
+
+    @Test
+    void privateMemberDoesNotHideAPublicOneFurtherUp() {
+        mappings.addClass("a", "net/minecraft/Base").addMethod("c", "run", "()V");
+        ClassData middle = mappings.addClass("b", "net/minecraft/Middle");
+        middle.addDependentClass("a");
+        middle.addPrivateMethod("c", "runInternal", "()V");
+        mappings.addClass("d", "net/minecraft/Leaf").addDependentClass("b");
+
+        assertEquals("run", resolver.resolveMethodName("d", "c", "()V"));
+    }
+
+    @Test
+    void walksBreadthFirst() {
+        // Leaf -> [Left, Right], Left -> [Deep]. Right is closer than Deep, even though Left comes first.
+        ClassData leaf = mappings.addClass("a", "net/minecraft/Leaf");
+        leaf.addDependentClass("b");
+        leaf.addDependentClass("c");
+        mappings.addClass("b", "net/minecraft/Left").addDependentClass("d");
+        mappings.addClass("c", "net/minecraft/Right").addMethod("m", "near", "()V");
+        mappings.addClass("d", "net/minecraft/Deep").addMethod("m", "deep", "()V");
+
+        assertEquals("near", resolver.resolveMethodName("a", "m", "()V"));
+    }
+
+    @Test
+    void visitsDiamondAndRepeatedInterfacesOnce() {
+        // Leaf implements Left, Right and Left again, both extend Root.
+        mappings.addClass("r", "net/minecraft/Root");
+        ClassData leaf = mappings.addClass("a", "net/minecraft/Leaf");
+        leaf.addDependentClass("b");
+        leaf.addDependentClass("c");
+        leaf.addDependentClass("b");
+        mappings.addClass("b", "net/minecraft/Left").addDependentClass("r");
+        mappings.addClass("c", "net/minecraft/Right").addDependentClass("r");
+
+        assertNull(resolver.findMethod("a", "m", "()V"));
+        assertEquals(1, Collections.frequency(lookups, "b"));
+        assertEquals(1, Collections.frequency(lookups, "r"));
+
+        mappings.getClass("r").addField("f", "shared", "I");
+        assertEquals("shared", resolver.resolveFieldName("a", "f", "I"));
+    }
+
+    @Test
+    void toleratesCyclesAndUnknownParents() {
+        mappings.addClass("a", "net/minecraft/First").addDependentClass("b");
+        ClassData second = mappings.addClass("b", "net/minecraft/Second");
+        second.addDependentClass("a");
+        second.addDependentClass("missing");
+
+        assertNull(resolver.findField("a", "f", "I"));
+        assertEquals(1, Collections.frequency(lookups, "a"));
+        assertNull(resolver.findField("missing", "f", "I"));
+    }
+
+    @Test
+    void memoizesHitsAndMisses() {
+        mappings.addClass("a", "net/minecraft/Base").addField("a", "count", "I");
+        mappings.addClass("b", "net/minecraft/Leaf").addDependentClass("a");
+
+        assertEquals("count", resolver.resolveFieldName("b", "a", "I"));
+        assertEquals("z", resolver.resolveMethodName("b", "z", "()V"));
+        int walked = lookups.size();
+
+        assertEquals("count", resolver.resolveFieldName("b", "a", "I"));
+        assertEquals("z", resolver.resolveMethodName("b", "z", "()V"));
+        assertEquals(walked, lookups.size(), "A memoized result must not walk the hierarchy again");
+
+        // A miss stays memoized until the resolver is invalidated.
+        mappings.getClass("a").addMethod("z", "later", "()V");
+        assertEquals("z", resolver.resolveMethodName("b", "z", "()V"));
+        resolver.invalidate();
+        assertEquals("later", resolver.resolveMethodName("b", "z", "()V"));
+    }
+}
@@ -0,0 +1,171 @@
+package org.omnimc.lumina.mcmap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.omnimc.lumina.data.Mappings;
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.data.types.FieldData;
+import org.omnimc.lumina.data.types.MethodData;
+import org.omnimc.lumina.mcmap.lz4.MappingDecompressor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes {@link Mappings} with {@link McMap#create(Mappings, File, McMap.Version)} and reads every class back, for every {@link McMap.Version}.
+ * <p>
+ * The names are not all ASCII, so a length written in chars instead of UTF-8 bytes breaks the entry table or the LZ4 sections.
+ * Names are compared instead of whole {@link ClassData}s, the compressed format keys decoded members differently than the originals.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+class McMapRoundTripTest {
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @EnumSource(McMap.Version.class)
+    void roundTrip(McMap.Version version) throws IOException {
+        File file = tempDir.resolve("round-trip-" + version + ".mcmap").toFile();
+        McMap.create(mappings(), file, version).close();
+
+        try (McMap mcmap = new McMap(file)) {
+            assertEquals(version, mcmap.getVersion());
+
+            ClassData base = mcmap.getClassData("a");
+            assertNotNull(base);
+            assertEquals("net/example/Basé", base.getClassName());
+            assertEquals(Set.of("größe"), fieldNames(base));
+            assertEquals(Set.of("berechne名"), methodNames(base));
+
+            ClassData sub = mcmap.getClassData("b");
+            assertNotNull(sub);
+            assertEquals("net/example/Sub", sub.getClassName());
+            assertEquals(Set.of("wert", "ça"), fieldNames(sub));
+            assertEquals(Set.of("run", "geheimnis"), methodNames(sub));
+
+            // Only the versions with a hierarchy section keep the dependent classes.
+            if (version == McMap.Version.V3 || version == McMap.Version.V4) {
+                assertEquals(Set.of("a"), Set.copyOf(sub.getDependentClasses()));
+            }
+
+            ClassData unicode = mcmap.getClassData("é");
+            assertNotNull(unicode, "A class with a non-ASCII unmapped name has to be found");
+            assertEquals("net/example/Ünicode", unicode.getClassName());
+            assertEquals(Set.of("ñame"), fieldNames(unicode));
+
+            assertNull(mcmap.getClassData("missing"));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = McMap.Version.class, names = {"V2", "V3", "V4"})
+    void populationsDecodeTheirSections(McMap.Version version) throws IOException {
+        File file = tempDir.resolve("population-" + version + ".mcmap").toFile();
+        McMap.create(mappings(), file, version).close();
+
+        try (McMap mcmap = new McMap(file)) {
+            ClassData fields = mcmap.getClassData("b", McMap.Population.FIELD);
+            assertEquals(Set.of("wert", "ça"), fieldNames(fields));
+            assertTrue(methodNames(fields).isEmpty());
+
+            ClassData both = mcmap.getClassData("b", McMap.Population.METHOD);
+            assertEquals(Set.of("wert", "ça"), fieldNames(both));
+            assertEquals(Set.of("run", "geheimnis"), methodNames(both));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = McMap.Version.class, names = "V4")
+    void parameters(McMap.Version version) throws IOException {
+        File file = tempDir.resolve("parameters-" + version + ".mcmap").toFile();
+        McMap.create(mappings(), file, version).close();
+
+        try (McMap mcmap = new McMap(file)) {
+            ClassData sub = mcmap.getClassData("b", McMap.Population.PARAMETERS);
+
+            Set<String> parameters = new TreeSet<>();
+            for (MethodData method : sub.getMethods().values()) {
+                method.getParameters().values().forEach(parameter -> parameters.add(method.getMethodName() + ":" + parameter.getParameterName()));
+            }
+            assertEquals(Set.of("run:anzahl", "geheimnis:schlüssel"), parameters);
+        }
+    }
+
+    /**
+     * A class whose blocks are bigger than the buffers a thread keeps is decoded with buffers of its own, and the small class read after it still fits the kept ones.
+     * The names are random, so the compressed block is oversized too.
+     */
+    @Test
+    void oversizedClass() throws IOException {
+        SplittableRandom random = new SplittableRandom(31);
+        ClassData huge = new ClassData("net/example/Huge");
+        int fieldCount = MappingDecompressor.MAX_RETAINED_SIZE / 16;
+        for (int i = 0; i < fieldCount; i++) {
+            huge.addField("f" + i, Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong()), "I");
+        }
+
+        Mappings mappings = mappings();
+        mappings.addClass("h", huge);
+        File file = tempDir.resolve("oversized.mcmap").toFile();
+        McMap.create(mappings, file, McMap.Version.V4).close();
+
+        try (McMap fromFile = new McMap(file); McMap fromBytes = new McMap(Files.readAllBytes(file.toPath()))) {
+            for (McMap mcmap : new McMap[]{fromFile, fromBytes}) {
+                ClassData decoded = mcmap.getClassData("h", McMap.Population.FIELD);
+                assertNotNull(decoded);
+                assertEquals(fieldNames(huge), fieldNames(decoded));
+                assertEquals(Set.of("wert", "ça"), fieldNames(mcmap.getClassData("b", McMap.Population.FIELD)));
+            }
+        }
+    }
+
+    private static Mappings mappings() {
+        ClassData base = new ClassData("net/example/Basé");
+        base.addField("a", "größe", "I");
+        base.addMethod("b", "berechne名", "()V");
+
+        ClassData sub = new ClassData("net/example/Sub");
+        sub.addDependentClass("a");
+        sub.addField("c", "wert", "J");
+        sub.addPrivateField("d", "ça", "Ljava/lang/String;");
+        sub.addMethod("e", "run", "(I)V");
+        sub.addPrivateMethod("f", "geheimnis", "(J)V");
+        sub.getMethods().values().iterator().next().addParameter(1, "anzahl");
+        sub.getPrivateMethods().values().iterator().next().addParameter(1, "schlüssel");
+
+        ClassData unicode = new ClassData("net/example/Ünicode");
+        unicode.addField("g", "ñame", "Z");
+
+        Mappings mappings = new Mappings();
+        mappings.addClass("a", base);
+        mappings.addClass("b", sub);
+        mappings.addClass("é", unicode);
+        return mappings;
+    }
+
+    private static Set<String> fieldNames(ClassData classData) {
+        Set<String> names = new TreeSet<>();
+        classData.getFields().values().stream().map(FieldData::getFieldName).forEach(names::add);
+        classData.getPrivateFields().values().stream().map(FieldData::getFieldName).forEach(names::add);
+        return names;
+    }
+
+    private static Set<String> methodNames(ClassData classData) {
+        Set<String> names = new TreeSet<>();
+        classData.getMethods().values().stream().map(MethodData::getMethodName).forEach(names::add);
+        classData.getPrivateMethods().values().stream().map(MethodData::getMethodName).forEach(names::add);
+        return names;
+    }
+}
@@ -0,0 +1,153 @@
+package org.omnimc.lumina.mcmap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.omnimc.lumina.data.Mappings;
+import org.omnimc.lumina.data.types.ClassData;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the prefix and range queries of {@link NameIndex}, and the {@link McMap} methods built on them, against a sorted scan of every name.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+class NameIndexTest {
+
+    private static final char MAX = Character.MAX_VALUE;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void emptyPrefixMatchesEverything() {
+        List<String> names = List.of("b", "a", "c/d", "");
+        NameIndex index = index(names);
+
+        assertEquals(List.of("", "a", "b", "c/d"), unmapped(index.prefix(McMap.NameType.UNMAPPED, "")));
+    }
+
+    @Test
+    void prefixEndingInMaxCharCarriesOver() {
+        List<String> names = List.of("a", "a" + MAX, "a" + MAX + "x", "a" + MAX + MAX, "b", "b0");
+        NameIndex index = index(names);
+
+        assertEquals(List.of("a" + MAX, "a" + MAX + "x", "a" + MAX + MAX), unmapped(index.prefix(McMap.NameType.UNMAPPED, "a" + MAX)));
+        assertEquals(List.of("a" + MAX + MAX), unmapped(index.prefix(McMap.NameType.UNMAPPED, "a" + MAX + MAX)));
+    }
+
+    @Test
+    void prefixOfOnlyMaxCharsRunsToTheEnd() {
+        String max = String.valueOf(MAX);
+        List<String> names = List.of("z", max, max + "a", max + max);
+        NameIndex index = index(names);
+
+        assertEquals(List.of(max, max + max, max + "a").stream().sorted().toList(), unmapped(index.prefix(McMap.NameType.UNMAPPED, max)));
+        assertEquals(List.of(max + max), unmapped(index.prefix(McMap.NameType.UNMAPPED, max + max)));
+    }
+
+    @Test
+    void matchesSortedScan() {
+        Random random = new Random(41);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            names.add(randomName(random));
+        }
+        NameIndex index = index(names);
+
+        for (int i = 0; i < 500; i++) {
+            String name = randomName(random);
+            String query = name.substring(0, random.nextInt(name.length() + 1));
+            assertEquals(scan(names, candidate -> candidate.startsWith(query)), unmapped(index.prefix(McMap.NameType.UNMAPPED, query)), "Prefix " + query);
+            assertEquals(scan(mapped(names), candidate -> candidate.startsWith("m/" + query)),
+                         mappedNames(index.prefix(McMap.NameType.MAPPED, "m/" + query)), "Mapped prefix " + query);
+
+            String from = randomName(random);
+            String to = randomName(random);
+            assertEquals(scan(names, candidate -> candidate.compareTo(from) >= 0 && candidate.compareTo(to) < 0),
+                         unmapped(index.range(McMap.NameType.UNMAPPED, from, to)), "Range " + from + " " + to);
+        }
+    }
+
+    @Test
+    void mcMapQueries() throws IOException {
+        Mappings mappings = new Mappings();
+        String[][] classes = {{"a", "net/minecraft/world/Level"}, {"b", "net/minecraft/world/entity/Entity"}, {"c", "net/minecraft/client/Minecraft"},
+                {"d", "com/mojang/Blaze"}, {"e", "net/minecraft/world0"}};
+        for (String[] names : classes) {
+            ClassData classData = new ClassData(names[1]);
+            classData.addField("f", "value", "I");
+            mappings.addClass(names[0], classData);
+        }
+
+        File file = tempDir.resolve("names.mcmap").toFile();
+        try (McMap mcmap = McMap.create(mappings, file, McMap.Version.V2)) {
+            assertEquals(List.of("net/minecraft/world/Level", "net/minecraft/world/entity/Entity"),
+                         mcmap.getClassNames(McMap.NameType.MAPPED, "net/minecraft/world/"));
+            assertEquals(List.of("a", "b", "c"), mcmap.getClassNames(McMap.NameType.UNMAPPED, "a", "d"));
+            assertEquals(5, mcmap.getClassNames(McMap.NameType.UNMAPPED, "").size());
+            assertTrue(mcmap.getClassNames(McMap.NameType.UNMAPPED, "d", "a").isEmpty());
+
+            Iterator<ClassData> byPrefix = mcmap.getClassDataByPrefix(McMap.NameType.MAPPED, "net/minecraft/world/", McMap.Population.FIELD).iterator();
+            assertEquals("net/minecraft/world/Level", byPrefix.next().getClassName());
+            // Classes are decoded as the iterator reaches them, the next one is not in the mappings yet.
+            assertNull(mcmap.getMappings().getClass("b"));
+            ClassData entity = byPrefix.next();
+            assertEquals("net/minecraft/world/entity/Entity", entity.getClassName());
+            assertEquals(1, entity.getFields().size());
+            assertFalse(byPrefix.hasNext());
+            assertThrows(NoSuchElementException.class, byPrefix::next);
+
+            List<String> inRange = new ArrayList<>();
+            mcmap.getClassDataInRange(McMap.NameType.UNMAPPED, "c", "z", McMap.Population.BOTH).forEach(classData -> inRange.add(classData.getClassName()));
+            assertEquals(List.of("net/minecraft/client/Minecraft", "com/mojang/Blaze", "net/minecraft/world0"), inRange);
+        }
+    }
+
+    private static NameIndex index(List<String> unmappedNames) {
+        MappingBlock[] blocks = new MappingBlock[unmappedNames.size()];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = new MappingBlock(i, "m/" + unmappedNames.get(i), unmappedNames.get(i));
+        }
+        return new NameIndex(blocks);
+    }
+
+    private static List<String> scan(List<String> names, Predicate<String> filter) {
+        return names.stream().filter(filter).sorted().toList();
+    }
+
+    private static List<String> mapped(List<String> names) {
+        return names.stream().map(name -> "m/" + name).toList();
+    }
+
+    private static List<String> unmapped(List<MappingBlock> blocks) {
+        return blocks.stream().map(MappingBlock::getUnmappedClassName).toList();
+    }
+
+    private static List<String> mappedNames(List<MappingBlock> blocks) {
+        return blocks.stream().map(MappingBlock::getMappedClassName).toList();
+    }
+
+    /**
+     * A short name from a small alphabet, so prefixes and duplicates are common. It includes the highest char to hit the carry of a prefix end.
+     */
+    private static String randomName(Random random) {
+        char[] alphabet = {'a', 'b', 'z', '/', '$', MAX};
+        char[] name = new char[1 + random.nextInt(5)];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = alphabet[random.nextInt(alphabet.length)];
+        }
+        return new String(name);
+    }
+}
@@ -0,0 +1,98 @@
+package org.omnimc.lumina.mcmap.cache;
+
+import org.junit.jupiter.api.Test;
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.data.types.MethodData;
+import org.omnimc.lumina.data.types.ParameterData;
+import org.omnimc.lumina.mcmap.MappingBlock;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that {@link ClassDataCodec} rebuilds a {@link ClassData} exactly, members stay public or private and keep their parameters.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+class ClassDataCodecTest {
+
+    @Test
+    void roundTripsEveryPart() {
+        ClassData classData = sample();
+
+        SharedClassCache.CachedClass decoded = ClassDataCodec.decode(ByteBuffer.wrap(ClassDataCodec.encode(classData, MappingBlock.ALL_SECTIONS)), 0);
+
+        assertEquals(MappingBlock.ALL_SECTIONS, decoded.sections());
+        assertDecoded(classData, decoded.classData());
+    }
+
+    @Test
+    void decodesAtAnOffsetOfADirectBuffer() {
+        ClassData classData = sample();
+        byte[] encoded = ClassDataCodec.encode(classData, MappingBlock.METHOD_SECTION);
+
+        // A direct buffer has no array, so its strings are copied out instead of read in place.
+        ByteBuffer buffer = ByteBuffer.allocateDirect(encoded.length + 13);
+        buffer.put(13, encoded);
+
+        SharedClassCache.CachedClass decoded = ClassDataCodec.decode(buffer, 13);
+        assertEquals(MappingBlock.METHOD_SECTION, decoded.sections());
+        assertDecoded(classData, decoded.classData());
+    }
+
+    @Test
+    void roundTripsAnEmptyClass() {
+        ClassData classData = new ClassData("net/minecraft/Empty");
+
+        ClassData decoded = ClassDataCodec.decode(ByteBuffer.wrap(ClassDataCodec.encode(classData, 0)), 0).classData();
+        assertEquals(classData, decoded);
+        assertTrue(decoded.getDependentClasses().isEmpty());
+    }
+
+    private static ClassData sample() {
+        ClassData classData = new ClassData("net/minecraft/world/Level");
+        classData.addDependentClass("a");
+        classData.addDependentClass("b");
+
+        classData.addField("c", "players", "Ljava/util/List;");
+        classData.addField("d", "naïve", "I");
+        classData.addPrivateField("e", "secret", "J");
+
+        classData.addMethod("f", "tick", "(IZ)V");
+        classData.getMethod("f", "(IZ)V").addParameter(0, "time");
+        classData.getMethod("f", "(IZ)V").addParameter(1, "paused");
+        classData.addMethod("g", "getName", "()Ljava/lang/String;");
+        classData.addPrivateMethod("h", "lambda$tick$0", "(Ljava/lang/Object;)V");
+        classData.getPrivateMethod("h", "(Ljava/lang/Object;)V").addParameter(0, "value");
+        return classData;
+    }
+
+    private static void assertDecoded(ClassData expected, ClassData actual) {
+        // ClassData#equals compares the public and private maps on their own, but not the parameters of a method.
+        assertEquals(expected, actual);
+        assertEquals(expected.getDependentClasses(), actual.getDependentClasses());
+        assertEquals(1, actual.getPrivateFields().size());
+        assertEquals(1, actual.getPrivateMethods().size());
+
+        assertParameters(expected.getMethods(), actual.getMethods());
+        assertParameters(expected.getPrivateMethods(), actual.getPrivateMethods());
+    }
+
+    private static void assertParameters(Map<String, MethodData> expected, Map<String, MethodData> actual) {
+        for (Map.Entry<String, MethodData> entry : expected.entrySet()) {
+            assertEquals(parameters(entry.getValue()), parameters(actual.get(entry.getKey())), entry.getKey());
+        }
+    }
+
+    private static Map<Integer, String> parameters(MethodData method) {
+        Map<Integer, String> parameters = new TreeMap<>();
+        for (ParameterData parameter : method.getParameters().values()) {
+            parameters.put(parameter.getIndex(), parameter.getParameterName());
+        }
+        return parameters;
+    }
+}
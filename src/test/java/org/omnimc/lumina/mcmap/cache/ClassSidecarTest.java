@@ -0,0 +1,194 @@
+package org.omnimc.lumina.mcmap.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.omnimc.lumina.data.Mappings;
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.mcmap.MappingBlock;
+import org.omnimc.lumina.mcmap.McMap;
+import org.omnimc.lumina.testing.SyntheticMappings;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a {@link ClassSidecar} keeps what it had when it is saved again, and that one which does not belong to its {@link McMap} is ignored.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+class ClassSidecarTest {
+
+    private static final int CLASS_COUNT = 50;
+
+    @TempDir
+    Path tempDir;
+
+    private SyntheticMappings generator;
+    private Mappings mappings;
+    private File mcmapFile;
+    private File sidecarFile;
+
+    @BeforeEach
+    void setup() throws IOException {
+        generator = SyntheticMappings.of(CLASS_COUNT);
+        mappings = generator.mappings();
+        mcmapFile = tempDir.resolve("sidecar.mcmap").toFile();
+        generator.writeMcMap(mcmapFile, McMap.Version.V4).close();
+        sidecarFile = ClassSidecar.sidecarOf(mcmapFile);
+    }
+
+    @Test
+    void savesRecordedClassesAndKeepsTheOldOnes() throws IOException {
+        String first = generator.getObfuscatedName(0);
+        String second = generator.getObfuscatedName(1);
+        String third = generator.getObfuscatedName(2);
+        List<String> decoded = new ArrayList<>();
+
+        try (McMap mcmap = new McMap(mcmapFile)) {
+            ClassSidecar sidecar = ClassSidecar.open(sidecarFile, mcmap);
+            assertEquals(0, sidecar.size());
+
+            sidecar.recordAccess(first, MappingBlock.FIELD_SECTION);
+            sidecar.recordAccess(third, MappingBlock.METHOD_SECTION);
+            sidecar.recordAccess("missing", MappingBlock.FIELD_SECTION);
+            sidecar.save(decoder(decoded));
+        }
+        assertEquals(Set.of(first, third, "missing"), Set.copyOf(decoded));
+        assertEquals(3, decoded.size());
+        assertFalse(new File(sidecarFile.getPath() + ".tmp").exists());
+
+        decoded.clear();
+        try (McMap mcmap = new McMap(mcmapFile)) {
+            ClassSidecar sidecar = ClassSidecar.open(sidecarFile, mcmap);
+            assertEquals(2, sidecar.size(), "A class the decoder does not know is left out");
+            assertEquals(mappings.getClass(first), sidecar.get(first, MappingBlock.FIELD_SECTION).classData());
+            assertNull(sidecar.get(first, MappingBlock.FIELD_SECTION | MappingBlock.METHOD_SECTION), "The method section was never recorded");
+            assertEquals(1, sidecar.getHitCount());
+
+            // The first class needs another section and the second is new, the third is copied without being decoded again.
+            sidecar.recordAccess(first, MappingBlock.METHOD_SECTION);
+            sidecar.recordAccess(second, MappingBlock.FIELD_SECTION);
+            sidecar.save(decoder(decoded));
+        }
+        assertEquals(Set.of(first, second), Set.copyOf(decoded));
+        assertEquals(2, decoded.size());
+
+        try (McMap mcmap = new McMap(mcmapFile)) {
+            ClassSidecar sidecar = ClassSidecar.open(sidecarFile, mcmap);
+            assertEquals(3, sidecar.size());
+
+            SharedClassCache.CachedClass merged = sidecar.get(first, MappingBlock.FIELD_SECTION | MappingBlock.METHOD_SECTION);
+            assertNotNull(merged);
+            assertEquals(MappingBlock.FIELD_SECTION | MappingBlock.METHOD_SECTION, merged.sections());
+            assertNotNull(sidecar.get(second, MappingBlock.FIELD_SECTION));
+            assertEquals(mappings.getClass(third), sidecar.get(third, MappingBlock.METHOD_SECTION).classData());
+        }
+    }
+
+    @Test
+    void mcMapRebuildsClassesFromItsSidecar() throws IOException {
+        String name = generator.getObfuscatedName(3);
+
+        try (McMap mcmap = new McMap(mcmapFile)) {
+            mcmap.setSidecar(ClassSidecar.open(sidecarFile, mcmap));
+            mcmap.getClassData(name, McMap.Population.BOTH);
+            assertTrue(mcmap.saveSidecar() > ClassSidecar.HEADER_SIZE);
+        }
+
+        try (McMap mcmap = new McMap(mcmapFile)) {
+            ClassSidecar sidecar = ClassSidecar.open(sidecarFile, mcmap);
+            mcmap.setSidecar(sidecar);
+
+            ClassData classData = mcmap.getClassData(name, McMap.Population.FIELD);
+            assertEquals(1, sidecar.getHitCount());
+            assertEquals(mappings.getClass(name).getClassName(), classData.getClassName());
+            assertEquals(mappings.getClass(name).getFields().size() + mappings.getClass(name).getPrivateFields().size(),
+                         classData.getFields().size() + classData.getPrivateFields().size());
+        }
+    }
+
+    @Test
+    void opensASidecarOfOtherContentEmpty() throws IOException {
+        saveOneClass();
+
+        // The same classes in another version are another file, with another content hash.
+        generator.writeMcMap(mcmapFile, McMap.Version.V3).close();
+        try (McMap mcmap = new McMap(mcmapFile)) {
+            assertEquals(0, ClassSidecar.open(sidecarFile, mcmap).size());
+        }
+    }
+
+    @Test
+    void opensASidecarWithAnotherVersionEmpty() throws IOException {
+        saveOneClass();
+        assertEquals(1, openSidecar().size());
+
+        overwrite(5, McMap.Version.V3.getVersionByte());
+        assertEquals(0, openSidecar().size());
+
+        saveOneClass();
+        overwrite(4, (byte) (ClassSidecar.VERSION + 1));
+        assertEquals(0, openSidecar().size());
+    }
+
+    @Test
+    void opensACorruptSidecarEmpty() throws IOException {
+        saveOneClass();
+        byte[] valid = Files.readAllBytes(sidecarFile.toPath());
+
+        // Cut off in the middle of the index.
+        Files.write(sidecarFile.toPath(), Arrays.copyOf(valid, ClassSidecar.HEADER_SIZE + 3));
+        assertEquals(0, openSidecar().size());
+
+        // A class that would start past the end of the file, the last byte of its little endian offset is set.
+        Files.write(sidecarFile.toPath(), valid);
+        int nameLength = (valid[ClassSidecar.HEADER_SIZE] & 0xFF) | (valid[ClassSidecar.HEADER_SIZE + 1] & 0xFF) << 8;
+        overwrite(ClassSidecar.HEADER_SIZE + 2 + nameLength + 4, (byte) 0x7F);
+        assertEquals(0, openSidecar().size());
+
+        Files.write(sidecarFile.toPath(), new byte[]{1, 2, 3});
+        assertEquals(0, openSidecar().size());
+    }
+
+    private void saveOneClass() throws IOException {
+        try (McMap mcmap = new McMap(mcmapFile)) {
+            ClassSidecar sidecar = ClassSidecar.open(sidecarFile, mcmap);
+            sidecar.recordAccess(generator.getObfuscatedName(0), MappingBlock.ALL_SECTIONS);
+            sidecar.save(decoder(new ArrayList<>()));
+        }
+    }
+
+    private ClassSidecar openSidecar() throws IOException {
+        try (McMap mcmap = new McMap(mcmapFile)) {
+            return ClassSidecar.open(sidecarFile, mcmap);
+        }
+    }
+
+    private void overwrite(long position, byte value) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(sidecarFile, "rw")) {
+            file.seek(position);
+            file.write(value);
+        }
+    }
+
+    /**
+     * Decodes from {@link #mappings} directly, every name it is asked for is added to {@code decoded}.
+     */
+    private ClassSidecar.ClassDecoder decoder(List<String> decoded) {
+        return (unmappedName, sections) -> {
+            decoded.add(unmappedName);
+            return mappings.getClass(unmappedName);
+        };
+    }
+}
@@ -0,0 +1,223 @@
+package org.omnimc.lumina.mcmap.cache;
+
+import org.junit.jupiter.api.Test;
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.mcmap.MappingBlock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks how {@link OffHeapClassStore} overwrites its ring, and that a reader racing the writers never gets a torn class.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+class OffHeapClassStoreTest {
+
+    private static final Object IDENTITY = "store";
+
+    /**
+     * Small enough to count every byte, a class may take at most a quarter of it.
+     */
+    private static final int CAPACITY = 400;
+
+    @Test
+    void overwritesTheOldestClassesOnceTheRingWrapsAround() {
+        OffHeapClassStore store = new OffHeapClassStore(CAPACITY);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(store.put(key("c" + i), cached("c" + i, 100), i));
+        }
+        assertEquals(CAPACITY, store.getUsedBytes());
+        assertEquals(4, store.size());
+
+        // The fifth class takes the bytes of the first one.
+        assertTrue(store.put(key("c4"), cached("c4", 100), 4));
+        assertNull(store.get(key("c0")));
+        assertEquals(4, store.size());
+
+        for (int i = 1; i <= 4; i++) {
+            OffHeapClassStore.Entry entry = store.get(key("c" + i));
+            assertNotNull(entry, "c" + i);
+            assertEquals(name("c" + i, 100), entry.value().classData().getClassName());
+            assertEquals(i, entry.cost());
+        }
+        assertEquals(4, store.getHitCount());
+        assertEquals(1, store.getMissCount());
+    }
+
+    @Test
+    void skipsToTheNextLapWhenAClassDoesNotFitAtTheEnd() {
+        OffHeapClassStore store = new OffHeapClassStore(CAPACITY);
+        for (int i = 0; i < 4; i++) {
+            store.put(key("c" + i), cached("c" + i, 90), i);
+        }
+
+        // Only 40 bytes are left at the end, so this one is written at the start of the next lap and only overwrites the first class.
+        store.put(key("c4"), cached("c4", 90), 4);
+        assertNull(store.get(key("c0")));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(name("c" + i, 90), store.get(key("c" + i)).value().classData().getClassName());
+        }
+
+        store.put(key("c5"), cached("c5", 90), 5);
+        assertNull(store.get(key("c1")));
+        assertEquals(name("c2", 90), store.get(key("c2")).value().classData().getClassName());
+        assertEquals(name("c5", 90), store.get(key("c5")).value().classData().getClassName());
+    }
+
+    @Test
+    void keepsALiveCopyWithTheSameSections() {
+        OffHeapClassStore store = new OffHeapClassStore(CAPACITY);
+        store.put(key("a"), cached("a", 50, MappingBlock.FIELD_SECTION), 1);
+        long used = store.getUsedBytes();
+
+        // Promoted and evicted again without changing, nothing is written.
+        assertTrue(store.put(key("a"), cached("b", 60, MappingBlock.FIELD_SECTION), 2));
+        assertEquals(used, store.getUsedBytes());
+        assertEquals(name("a", 50), store.get(key("a")).value().classData().getClassName());
+
+        // More sections are written again.
+        assertTrue(store.put(key("a"), cached("b", 60, MappingBlock.ALL_SECTIONS), 3));
+        assertEquals(used + 60, store.getUsedBytes());
+        OffHeapClassStore.Entry entry = store.get(key("a"));
+        assertEquals(name("b", 60), entry.value().classData().getClassName());
+        assertEquals(MappingBlock.ALL_SECTIONS, entry.value().sections());
+        assertEquals(3, entry.cost());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void rejectsAClassBiggerThanAQuarterOfTheRing() {
+        OffHeapClassStore store = new OffHeapClassStore(CAPACITY);
+
+        assertFalse(store.put(key("big"), cached("big", CAPACITY / 4 + 1), 1));
+        assertEquals(0, store.getUsedBytes());
+        assertEquals(0, store.size());
+
+        assertTrue(store.put(key("big"), cached("big", CAPACITY / 4), 1));
+        assertNotNull(store.get(key("big")));
+    }
+
+    @Test
+    void invalidateOnlyForgetsOneSource() {
+        OffHeapClassStore store = new OffHeapClassStore(CAPACITY);
+        store.put(key("a"), cached("a", 50), 1);
+        store.put(new SharedClassCache.Key("other", "a"), cached("a", 50), 1);
+
+        store.invalidate(IDENTITY);
+        assertNull(store.get(key("a")));
+        assertNotNull(store.get(new SharedClassCache.Key("other", "a")));
+    }
+
+    /**
+     * Writers keep overwriting a ring that only holds a few classes, while readers check that every class they get back is whole.
+     * Every member of a class carries the name of the class, so a class that was partly overwritten while it was copied shows up.
+     */
+    @Test
+    void readersNeverSeeATornClass() throws Exception {
+        OffHeapClassStore store = new OffHeapClassStore(4096);
+        int keys = 64;
+        int threads = 4;
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+        try {
+            List<Future<Integer>> readers = new ArrayList<>();
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long seed = t;
+                writers.add(executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    start.await();
+                    for (int i = 0; i < 20_000; i++) {
+                        String name = "k" + random.nextInt(keys);
+                        store.put(key(name), new SharedClassCache.CachedClass(consistentClass(name + "/" + seed + "/" + i, random.nextInt(12)), 3), i);
+                    }
+                    return null;
+                }));
+
+                readers.add(executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed + threads);
+                    int read = 0;
+                    start.await();
+                    while (!done.get()) {
+                        String name = "k" + random.nextInt(keys);
+                        OffHeapClassStore.Entry entry = store.get(key(name));
+                        if (entry != null) {
+                            assertConsistent(name, entry.value().classData());
+                            read++;
+                        }
+                    }
+                    return read;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(1, TimeUnit.MINUTES);
+            }
+            done.set(true);
+
+            int read = 0;
+            for (Future<Integer> reader : readers) {
+                read += reader.get(1, TimeUnit.MINUTES);
+            }
+            assertTrue(read > 0, "The readers never got a class");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static SharedClassCache.Key key(String className) {
+        return new SharedClassCache.Key(IDENTITY, className);
+    }
+
+    private static SharedClassCache.CachedClass cached(String className, int encodedLength) {
+        return cached(className, encodedLength, MappingBlock.ALL_SECTIONS);
+    }
+
+    /**
+     * @return A class named {@link #name(String, int)} without members, which encodes to exactly {@code encodedLength} bytes.
+     */
+    private static SharedClassCache.CachedClass cached(String className, int encodedLength, int sections) {
+        ClassData classData = new ClassData(name(className, encodedLength));
+        assertEquals(encodedLength, ClassDataCodec.encode(classData, sections).length);
+        return new SharedClassCache.CachedClass(classData, sections);
+    }
+
+    /**
+     * The name is padded so its class encodes to {@code encodedLength} bytes, a sections byte, the name, and five empty counts.
+     */
+    private static String name(String className, int encodedLength) {
+        int nameLength = encodedLength - 7;
+        return className + "_".repeat(nameLength - className.length());
+    }
+
+    private static ClassData consistentClass(String className, int members) {
+        ClassData classData = new ClassData(className);
+        for (int i = 0; i < members; i++) {
+            classData.addField("f" + i, className + "#field" + i, "I");
+            classData.addMethod("m" + i, className + "#method" + i, "()V");
+        }
+        return classData;
+    }
+
+    private static void assertConsistent(String key, ClassData classData) {
+        String className = classData.getClassName();
+        assertTrue(className.startsWith(key + "/"), () -> "Class of " + key + " is " + className);
+        classData.getFields().values().forEach(field -> assertTrue(field.getFieldName().startsWith(className + "#field"), field::toString));
+        classData.getMethods().values().forEach(method -> assertTrue(method.getMethodName().startsWith(className + "#method"), method::toString));
+        assertEquals(classData.getFields().size(), classData.getMethods().size());
+    }
+}
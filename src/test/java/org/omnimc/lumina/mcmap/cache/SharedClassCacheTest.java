@@ -0,0 +1,182 @@
+package org.omnimc.lumina.mcmap.cache;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.mcmap.MappingBlock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the eviction order and byte accounting of {@link SharedClassCache}, and its {@link OffHeapClassStore} second tier.
+ * <p>
+ * A victim is picked from a random sample, so the eviction tests are set up so that another pick is at most a one in millions chance.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+class SharedClassCacheTest {
+
+    private static final Object IDENTITY = "cache";
+    private static final int SECTIONS = MappingBlock.ALL_SECTIONS;
+
+    @Test
+    void frequentClassesOutliveAScan() {
+        SharedClassCache cache = new SharedClassCache(100 * 1_000);
+        for (int i = 0; i < 10; i++) {
+            put(cache, "hot" + i, 1_000);
+            for (int hit = 0; hit < 50; hit++) {
+                cache.get(IDENTITY, "hot" + i);
+            }
+        }
+
+        for (int i = 0; i < 500; i++) {
+            put(cache, "cold" + i, 1_000);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(cache.get(IDENTITY, "hot" + i), "hot" + i);
+        }
+        assertEquals(100, cache.size());
+        assertEquals(410, cache.getEvictionCount());
+    }
+
+    @Test
+    void expensiveClassesAreEvictedFirst() {
+        SharedClassCache cache = new SharedClassCache(90 * 2_000 + 10 * 200);
+        for (int i = 0; i < 90; i++) {
+            put(cache, "big" + i, 2_000);
+        }
+        for (int i = 0; i < 10; i++) {
+            put(cache, "small" + i, 200);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            put(cache, "new" + i, 200);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(cache.get(IDENTITY, "small" + i), "small" + i);
+        }
+        for (int i = 0; i < 20; i++) {
+            assertNotNull(cache.get(IDENTITY, "new" + i), "new" + i);
+        }
+        assertEquals(2, cache.getEvictionCount());
+        assertEquals(88 * 2_000 + 30 * 200, cache.getUsedBytes());
+    }
+
+    @Test
+    void countsUsedBytesThroughReplaceEvictAndInvalidate() {
+        SharedClassCache cache = new SharedClassCache(1_000);
+        put(cache, "a", 100);
+        put(cache, "b", 200);
+        cache.put("other", "a", classData("a"), SECTIONS, 300);
+        assertEquals(600, cache.getUsedBytes());
+
+        // Replacing a class only counts its new cost.
+        put(cache, "a", 50);
+        assertEquals(550, cache.getUsedBytes());
+        assertEquals(3, cache.size());
+
+        // A cost of zero is still counted as one byte.
+        put(cache, "c", 0);
+        assertEquals(551, cache.getUsedBytes());
+
+        cache.invalidate(IDENTITY);
+        assertEquals(300, cache.getUsedBytes());
+        assertEquals(1, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.getUsedBytes());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidateOnlyRemovesOneSource() {
+        OffHeapClassStore store = new OffHeapClassStore(64 * 1024);
+        SharedClassCache cache = new SharedClassCache(1_000, store);
+        put(cache, "a", 600);
+        put(cache, "b", 600);
+        cache.put("other", "a", classData("a"), SECTIONS, 100);
+        assertEquals(1, store.size(), "a was evicted to the second tier");
+
+        cache.invalidate(IDENTITY);
+
+        assertNull(cache.get(IDENTITY, "b"));
+        // An invalidated class is not rebuilt from the second tier either.
+        assertNull(cache.get(IDENTITY, "a"));
+        assertEquals(0, cache.getSecondTierHitCount());
+        assertNotNull(cache.get("other", "a"));
+        assertEquals(100, cache.getUsedBytes());
+    }
+
+    @Test
+    void promotesEvictedClassesFromTheSecondTier() {
+        OffHeapClassStore store = new OffHeapClassStore(64 * 1024);
+        SharedClassCache cache = new SharedClassCache(1_000, store);
+        ClassData a = classData("a");
+        a.addField("f", "field", "I");
+        cache.put(IDENTITY, "a", a, MappingBlock.FIELD_SECTION, 600);
+        put(cache, "b", 600);
+
+        SharedClassCache.CachedClass promoted = cache.get(IDENTITY, "a");
+        assertNotNull(promoted);
+        assertEquals(a, promoted.classData());
+        assertEquals(MappingBlock.FIELD_SECTION, promoted.sections());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getSecondTierHitCount());
+
+        // It is back on the heap with its old cost, which pushed b out.
+        assertEquals(600, cache.getUsedBytes());
+        assertSame(promoted, cache.get(IDENTITY, "a"));
+        assertEquals(1, cache.getHitCount());
+        assertNotNull(cache.get(IDENTITY, "b"));
+        assertEquals(2, cache.getSecondTierHitCount());
+    }
+
+    /**
+     * With two classes every sample can be the one that was just put, then its neighbour is evicted. Repeated, so that path is taken.
+     */
+    @RepeatedTest(50)
+    void evictsTheNeighbourWhenOnlyTheNewClassWasSampled() {
+        SharedClassCache cache = new SharedClassCache(100);
+        put(cache, "a", 60);
+        put(cache, "b", 60);
+        assertNull(cache.get(IDENTITY, "a"));
+        assertNotNull(cache.get(IDENTITY, "b"));
+
+        // The class that was put is the first one this time.
+        cache = new SharedClassCache(100);
+        put(cache, "a", 40);
+        put(cache, "b", 40);
+        put(cache, "a", 70);
+        assertNotNull(cache.get(IDENTITY, "a"));
+        assertNull(cache.get(IDENTITY, "b"));
+        assertEquals(70, cache.getUsedBytes());
+    }
+
+    @Test
+    void skipsClassesBiggerThanTheBudget() {
+        SharedClassCache cache = new SharedClassCache(1_000);
+        put(cache, "a", 100);
+
+        put(cache, "huge", 1_001);
+        assertNull(cache.get(IDENTITY, "huge"));
+        assertEquals(100, cache.getUsedBytes());
+        assertEquals(0, cache.getEvictionCount());
+
+        // A class as big as the whole budget still fits, on its own.
+        put(cache, "whole", 1_000);
+        assertNotNull(cache.get(IDENTITY, "whole"));
+        assertNull(cache.get(IDENTITY, "a"));
+        assertEquals(1_000, cache.getUsedBytes());
+    }
+
+    private static void put(SharedClassCache cache, String className, long cost) {
+        cache.put(IDENTITY, className, classData(className), SECTIONS, cost);
+    }
+
+    private static ClassData classData(String className) {
+        return new ClassData("mapped/" + className);
+    }
+}
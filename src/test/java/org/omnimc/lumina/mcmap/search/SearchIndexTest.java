@@ -0,0 +1,158 @@
+package org.omnimc.lumina.mcmap.search;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.omnimc.lumina.data.Mappings;
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.data.types.FieldData;
+import org.omnimc.lumina.data.types.MethodData;
+import org.omnimc.lumina.mcmap.McMap;
+import org.omnimc.lumina.mcmap.file.FileFactory;
+import org.omnimc.lumina.testing.SyntheticMappings;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks {@link SearchIndex} against a brute-force substring scan of the same {@link Mappings}, and that a stale index is rejected.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+class SearchIndexTest {
+
+    private static final int CLASS_COUNT = 2_000;
+
+    private static Mappings mappings;
+    private static SearchIndex index;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    static void setup() {
+        mappings = new SyntheticMappings(SyntheticMappings.DEFAULT_SEED, CLASS_COUNT).mappings();
+        index = SearchIndex.of(mappings);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a", "Ge", "get", "Entity", "ENTITY", "ick", "Level", "level/", "xqzv"})
+    void matchesBruteForceScan(String query) {
+        List<String> expected = bruteForce(query);
+
+        List<SearchResult> results = index.search(query, Integer.MAX_VALUE);
+        List<String> actual = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            SearchResult result = results.get(i);
+            if (i > 0) {
+                assertTrue(results.get(i - 1).score() >= result.score(), "Results are not ranked best first: " + results.get(i - 1) + ", " + result);
+            }
+
+            if (contains(result.kind(), result.obfuscatedName(), query) || contains(result.kind(), result.mappedName(), query)) {
+                actual.add(key(result.kind(), result.owner(), result.obfuscatedName(), result.descriptor()));
+            }
+        }
+
+        Collections.sort(expected);
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void limitKeepsTheBestResults() {
+        List<SearchResult> all = index.search("get", Integer.MAX_VALUE);
+        List<SearchResult> best = index.search("get", 10);
+
+        assertEquals(Math.min(10, all.size()), best.size());
+        for (int i = 0; i < best.size(); i++) {
+            assertEquals(all.get(i).score(), best.get(i).score());
+        }
+    }
+
+    @Test
+    void rejectsStaleIndex() throws IOException {
+        File file = tempDir.resolve("search.mcmap").toFile();
+
+        FileFactory factory = new FileFactory(mappings, file, McMap.Version.V2);
+        factory.writeFile();
+        File sidecar = factory.writeSearchIndex();
+        byte[] oldIndex = Files.readAllBytes(sidecar.toPath());
+
+        try (McMap mcmap = new McMap(file)) {
+            assertEquals(mcmap.getContentHash(), SearchIndex.open(sidecar, mcmap).getContentHash());
+        }
+
+        Mappings changed = new SyntheticMappings(SyntheticMappings.DEFAULT_SEED + 1, CLASS_COUNT / 2).mappings();
+        new FileFactory(changed, file, McMap.Version.V2).writeFile();
+        assertFalse(sidecar.exists(), "Writing the file has to drop its old search index");
+
+        Files.write(sidecar.toPath(), oldIndex);
+        try (McMap mcmap = new McMap(file)) {
+            assertThrows(IOException.class, () -> SearchIndex.open(sidecar, mcmap));
+        }
+    }
+
+    private static List<String> bruteForce(String query) {
+        List<String> matches = new ArrayList<>();
+        for (Map.Entry<String, ClassData> entry : mappings.getClasses().entrySet()) {
+            String owner = entry.getKey();
+            ClassData classData = entry.getValue();
+
+            if (contains(SearchIndex.Kind.CLASS, owner, query) || contains(SearchIndex.Kind.CLASS, classData.getClassName(), query)) {
+                matches.add(key(SearchIndex.Kind.CLASS, owner, owner, ""));
+            }
+
+            List<FieldData> fields = new ArrayList<>(classData.getFields().values());
+            fields.addAll(classData.getPrivateFields().values());
+            for (FieldData field : fields) {
+                if (contains(SearchIndex.Kind.FIELD, field.getObfuscatedName(), query) || contains(SearchIndex.Kind.FIELD, field.getFieldName(), query)) {
+                    matches.add(key(SearchIndex.Kind.FIELD, owner, field.getObfuscatedName(), field.getDescriptor()));
+                }
+            }
+
+            List<MethodData> methods = new ArrayList<>(classData.getMethods().values());
+            methods.addAll(classData.getPrivateMethods().values());
+            for (MethodData method : methods) {
+                if (contains(SearchIndex.Kind.METHOD, method.getObfuscatedName(), query) || contains(SearchIndex.Kind.METHOD, method.getMethodName(), query)) {
+                    matches.add(key(SearchIndex.Kind.METHOD, owner, method.getObfuscatedName(), method.getDescriptor()));
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * The matching rule of {@link SearchIndex#search(String, SearchIndex.Kind, int)}, ASCII case is ignored and a class is matched by its simple name.
+     */
+    private static boolean contains(SearchIndex.Kind kind, String name, String query) {
+        if (kind == SearchIndex.Kind.CLASS) {
+            name = name.substring(name.lastIndexOf('/') + 1);
+        }
+        return lowerAscii(name).contains(lowerAscii(query));
+    }
+
+    private static String lowerAscii(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] >= 'A' && chars[i] <= 'Z') {
+                chars[i] += 'a' - 'A';
+            }
+        }
+        return new String(chars);
+    }
+
+    private static String key(SearchIndex.Kind kind, String owner, String obfuscatedName, String descriptor) {
+        return kind + " " + owner + " " + obfuscatedName + " " + (descriptor == null ? "" : descriptor);
+    }
+}
@@ -2,8 +2,7 @@ package trix;
 
 import org.objectweb.asm.commons.Remapper;
 import org.omnimc.lumina.data.types.ClassData;
-import org.omnimc.lumina.data.types.FieldData;
-import org.omnimc.lumina.data.types.MethodData;
+import org.omnimc.lumina.hierarchy.MemberResolver;
 import org.omnimc.lumina.mcmap.McMap;
 
 import java.io.IOException;
@@ -15,9 +14,11 @@ import java.io.IOException;
 public class McMapRemapper extends Remapper {
 
     private final McMap chosenMap;
+    private final MemberResolver resolver;
 
     public McMapRemapper(McMap chosenMap) {
         this.chosenMap = chosenMap;
+        this.resolver = chosenMap.getMemberResolver();
     }
 
     @Override
@@ -37,26 +38,12 @@ public class McMapRemapper extends Remapper {
 
     @Override
     public String mapFieldName(String owner, String name, String descriptor) {
-        ClassData classData = getClass(owner);
-        if (classData == null) {
-            return name;
-        }
-
-        FieldData field = classData.getField(name, descriptor != null ? mapDesc(descriptor) : "");
-
-        return field.getFieldName();
+        return resolver.resolveFieldName(owner, name, descriptor != null ? mapDesc(descriptor) : "");
     }
 
     @Override
     public String mapMethodName(String owner, String name, String descriptor) {
-        ClassData classData = getClass(owner);
-        if (classData == null) {
-            return name;
-        }
-
-        MethodData method = classData.getMethod(name, descriptor != null ? mapMethodDesc(descriptor) : "");
-
-        return method.getMethodName();
+        return resolver.resolveMethodName(owner, name, descriptor != null ? mapMethodDesc(descriptor) : "");
     }
 
     private ClassData getClass(String name) {
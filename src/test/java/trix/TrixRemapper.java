@@ -2,11 +2,7 @@ package trix;
 
 import org.objectweb.asm.commons.Remapper;
 import org.omnimc.lumina.data.Mappings;
-import org.omnimc.lumina.data.types.ClassData;
-import org.omnimc.lumina.data.types.FieldData;
-import org.omnimc.lumina.data.types.MethodData;
-
-import java.util.Objects;
+import org.omnimc.lumina.hierarchy.MemberResolver;
 
 /**
  * @author <a href=https://github.com/CadenCCC>Caden</a>
@@ -15,9 +11,11 @@ import java.util.Objects;
 public class TrixRemapper extends Remapper {
 
     private final Mappings mappings;
+    private final MemberResolver resolver;
 
     public TrixRemapper(Mappings mappings) {
         this.mappings = mappings;
+        this.resolver = new MemberResolver(mappings);
     }
 
     @Override
@@ -32,33 +30,19 @@ public class TrixRemapper extends Remapper {
 
     @Override
     public String mapFieldName(String owner, String name, String descriptor) {
-        ClassData classData = mappings.getClass(owner);
-        if (classData == null) {
-            return name;
-        }
-
         if (descriptor != null) {
             descriptor = mapDesc(descriptor);
         }
 
-        FieldData field = classData.getField(name, descriptor);
-
-        return field.getFieldName();
+        return resolver.resolveFieldName(owner, name, descriptor);
     }
 
     @Override
     public String mapMethodName(String owner, String name, String descriptor) {
-        ClassData classData = mappings.getClass(owner);
-        if (classData == null) {
-            return name;
-        }
-
         if (descriptor != null) {
             descriptor = mapMethodDesc(descriptor);
         }
 
-        MethodData method = classData.getMethod(name, descriptor);
-
-        return method.getMethodName();
+        return resolver.resolveMethodName(owner, name, descriptor);
     }
 }
\ No newline at end of file
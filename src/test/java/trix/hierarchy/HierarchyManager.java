@@ -2,8 +2,7 @@ package trix.hierarchy;
 
 import org.omnimc.lumina.data.Mappings;
 import org.omnimc.lumina.data.types.ClassData;
-
-import java.util.*;
+import org.omnimc.lumina.hierarchy.MemberResolver;
 
 /**
  * @author <a href=https://github.com/CadenCCC>Caden</a>
@@ -12,6 +11,7 @@ import java.util.*;
 public class HierarchyManager {
 
     private final Mappings mappings = new Mappings();
+    private final MemberResolver resolver = new MemberResolver(mappings);
 
     public Mappings getMappings() {
         return mappings;
@@ -21,68 +21,10 @@ public class HierarchyManager {
         mappings.addClass(obfuscatedName, data);
     }
 
-/*    public void populateClassFiles() {
-
-        for (Map.Entry<String, List<String>> dep : mapDependencies.entrySet()) {
-            String obfuscatedName = dep.getKey();
-
-            ClassData originalClassData = mappings.getClass(obfuscatedName);
-
-            List<String> dependencies = dep.getValue();
-
-            System.out.println("First row for: " + originalClassData.getClassName());
-            System.out.println(dependencies);
-            while (!dependencies.isEmpty()) {
-                List<String> nextDep = new ArrayList<>();
-                for (String dependency : dependencies) {
-                    if (dependency.isEmpty()) {
-                        continue;
-                    }
-
-                    ClassData aClass = mappings.getClass(dependency);
-                    if (aClass == null) {
-                        continue;
-                    }
-
-                    originalClassData.getFields().putAll(aClass.getFields());
-                    originalClassData.getMethods().putAll(aClass.getMethods());
-
-                    nextDep.addAll(mapDependencies.getOrDefault(mappings.getClassNameByValue(aClass.getClassName()), new ArrayList<>()));
-                    System.out.println(nextDep);
-                }
-                dependencies = nextDep;
-            }
-            System.out.println("last row for: " + originalClassData.getClassName() + "\r\n");
-
-            mappings.addClass(obfuscatedName, originalClassData);
-        }
-    }*/
-
-    public void populateClassFiles() {
-        final HashMap<String, ClassData> classFileHashMap = new HashMap<>();
-
-        for (Map.Entry<String, ClassData> entry : mappings.getClasses().entrySet()) {
-            String className = entry.getKey();
-            ClassData originalClassFile = entry.getValue();
-
-            ArrayList<String> dependencies = new ArrayList<>(originalClassFile.getDependentClasses());
-            while (!dependencies.isEmpty()) {
-                ArrayList<String> nextDependencies = new ArrayList<>();
-                for (String dependency : dependencies) {
-                    ClassData file = mappings.getClass(dependency);
-                    if (file != null) {
-                        originalClassFile.getFields().putAll(file.getFields());
-                        originalClassFile.getMethods().putAll(file.getMethods());
-                        nextDependencies.addAll(file.getDependentClasses());
-                    }
-                }
-                dependencies = nextDependencies;
-            }
-
-            classFileHashMap.put(className, originalClassFile);
-        }
-
-        mappings.getClasses().clear();
-        mappings.getClasses().putAll(classFileHashMap);
+    /**
+     * The classes in {@link #getMappings()} only hold the members they declare, inherited members are resolved through this.
+     */
+    public MemberResolver getResolver() {
+        return resolver;
     }
 }
\ No newline at end of file
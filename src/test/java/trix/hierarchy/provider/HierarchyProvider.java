@@ -38,7 +38,6 @@ public class HierarchyProvider {
         classManager.readJarFile(minecraftJar);
         classManager.applyChanges(new HierarchyChange(hierarchyManager, trixRemapper));
         classManager.close();
-        hierarchyManager.populateClassFiles();
 
         System.out.println(hierarchyManager.getMappings().getClasses().size());
         this.hierarchyManager = hierarchyManager;
@@ -48,7 +47,7 @@ public class HierarchyProvider {
         CompressedDeserializer deserializer = CompressedDeserializer.getInstance();
 
         return deserializer.deserialize(
-                new File("C:\\Users\\CryroByte\\Desktop\\omnimc-project\\Universal-Mappings\\mappings\\hierarchy\\hierarchy.mcmap"), hierarchyManager.getMappings(), McMap.Version.V2);
+                new File("C:\\Users\\CryroByte\\Desktop\\omnimc-project\\Universal-Mappings\\mappings\\hierarchy\\hierarchy.mcmap"), hierarchyManager.getMappings(), McMap.Version.V3);
     }
 
     public Mappings getMappings() {
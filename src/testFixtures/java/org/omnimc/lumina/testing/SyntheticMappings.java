@@ -0,0 +1,475 @@
+package org.omnimc.lumina.testing;
+
+import org.omnimc.lumina.data.Mappings;
+import org.omnimc.lumina.data.types.ClassData;
+import org.omnimc.lumina.mcmap.McMap;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * A deterministic generator of Minecraft-scale mappings, so benchmarks and stress tests never need Mojang's mappings.
+ * <p>
+ * The same {@code seed} and {@code classCount} always produce the same output. The shape is loosely modelled after Mojang's client mappings:
+ * <ul>
+ *     <li>Members per class follow a long-tailed distribution, and a few classes are huge (like the block and item registries).</li>
+ *     <li>Descriptors reuse a small set of popular types, most class references point at a few early classes.</li>
+ *     <li>Mapped names are built from words, so name lengths vary like real names. Obfuscated names are short and sequential.</li>
+ *     <li>Classes extend and implement earlier classes, up to {@link #MAX_INHERITANCE_DEPTH} deep, and some are inner classes.</li>
+ * </ul>
+ * <p>
+ * Class names and the hierarchy are generated up front, members are generated per class on demand.
+ * Because of that the Proguard text can be streamed for any {@code classCount}, while {@link #mappings()} needs the memory to hold all of it.
+ * <p>
+ * Proguard mappings have no hierarchy, so the supertypes only end up in {@link #mappings()}. Apart from those,
+ * parsing {@link #writeProguard(Writer)} gives exactly the same {@link Mappings}.
+ *
+ * @author <a href=https://github.com/CadenCCC>Caden</a>
+ * @since 2.0.0
+ */
+public final class SyntheticMappings {
+
+    public static final long DEFAULT_SEED = 0x4C756D696E61L;
+
+    public static final int MAX_INHERITANCE_DEPTH = 8;
+
+    private static final double SUPER_CLASS_CHANCE = 0.4;
+    private static final double INTERFACE_CHANCE = 0.2;
+    private static final double INNER_CLASS_CHANCE = 0.15;
+    private static final double HUGE_CLASS_CHANCE = 0.001;
+
+    private static final double ARRAY_CHANCE = 0.05;
+    private static final double VOID_CHANCE = 0.35;
+    private static final double CLASS_TYPE_CHANCE = 0.45;
+    private static final double ABSTRACT_METHOD_CHANCE = 0.1;
+
+    private static final String[] WORDS = {
+            "Block", "Entity", "Level", "Chunk", "Render", "Model", "Item", "Player", "Server", "Client", "Packet", "Network",
+            "Data", "Manager", "Handler", "State", "Pos", "World", "Biome", "Feature", "Structure", "Recipe", "Sound", "Texture",
+            "Font", "Screen", "Button", "Widget", "Tag", "Registry", "Codec", "Loot", "Pool", "Mob", "Goal", "Path", "Node",
+            "Light", "Section", "Storage", "Cache", "Builder", "Factory", "Provider", "Event", "Game", "Rule", "Command", "Source",
+            "Target", "Effect", "Particle", "Animation", "Buffer", "Vertex", "Shader", "Camera", "Tick", "Scheduler", "Task",
+            "Stat", "Advancement", "Trigger", "Score", "Team", "Inventory", "Container", "Slot", "Menu", "Fluid", "Signal",
+            "Noise", "Generator", "Density", "Function", "Random", "Key", "Resource", "Pack", "Reader", "Writer", "Context", "Holder"
+    };
+
+    private static final String[] VERBS = {
+            "get", "set", "is", "has", "create", "update", "tick", "render", "handle", "apply", "load", "save", "add", "remove",
+            "find", "make", "on", "can", "should", "compute", "read", "write", "register", "build"
+    };
+
+    /**
+     * Popular types first, {@link #builtinType(SplittableRandom)} favours the start of this array.
+     */
+    private static final Type[] BUILTIN_TYPES = {
+            new Type("int", "I"), new Type("boolean", "Z"), new Type("float", "F"), new Type("java.lang.String", "Ljava/lang/String;"),
+            new Type("double", "D"), new Type("long", "J"), new Type("java.util.List", "Ljava/util/List;"),
+            new Type("java.lang.Object", "Ljava/lang/Object;"), new Type("java.util.Map", "Ljava/util/Map;"),
+            new Type("java.util.Optional", "Ljava/util/Optional;"), new Type("byte", "B"), new Type("java.util.UUID", "Ljava/util/UUID;"),
+            new Type("short", "S"), new Type("char", "C"), new Type("java.util.function.Consumer", "Ljava/util/function/Consumer;"),
+            new Type("java.util.Set", "Ljava/util/Set;")
+    };
+
+    private static final Type VOID = new Type("void", "V");
+
+    private final long seed;
+    private final int classCount;
+
+    private final String[] mappedNames;
+    private final String[] obfuscatedNames;
+    private final int[][] superTypes;
+    private final boolean[] huge;
+    private final Type[] classTypes;
+
+    public SyntheticMappings(long seed, int classCount) {
+        if (classCount <= 0) {
+            throw new IllegalArgumentException("classCount has to be positive: " + classCount);
+        }
+
+        this.seed = seed;
+        this.classCount = classCount;
+
+        this.mappedNames = new String[classCount];
+        this.obfuscatedNames = new String[classCount];
+        this.superTypes = new int[classCount][];
+        this.huge = new boolean[classCount];
+        this.classTypes = new Type[classCount];
+
+        generateClasses();
+    }
+
+    public static SyntheticMappings of(int classCount) {
+        return new SyntheticMappings(DEFAULT_SEED, classCount);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getClassCount() {
+        return classCount;
+    }
+
+    /**
+     * @return The internal name ({@code net/minecraft/...}) of the class at {@code index}.
+     */
+    public String getMappedName(int index) {
+        return mappedNames[index];
+    }
+
+    /**
+     * @return The obfuscated name of the class at {@code index}, which is its key in {@link #mappings()}.
+     */
+    public String getObfuscatedName(int index) {
+        return obfuscatedNames[index];
+    }
+
+    public boolean isHuge(int index) {
+        return huge[index];
+    }
+
+    /**
+     * Writes the mappings in Proguard format, like Mojang's {@code client.txt}.
+     *
+     * @param writer The {@link Writer} to write to, it is not closed.
+     * @throws IOException If writing fails.
+     */
+    public void writeProguard(Writer writer) throws IOException {
+        writer.write("# {\"id\":\"net.minecraft.mapping\",\"version\":\"1.0\"}\n");
+
+        ProguardWriter proguardWriter = new ProguardWriter(writer);
+        for (int i = 0; i < classCount; i++) {
+            String javaName = mappedNames[i].replace('/', '.');
+            writer.write(javaName);
+            writer.write(" -> ");
+            writer.write(obfuscatedNames[i]);
+            writer.write(":\n");
+
+            writer.write("    # {\"fileName\":\"");
+            writer.write(sourceFileName(mappedNames[i]));
+            writer.write("\",\"id\":\"sourceFile\"}\n");
+
+            generateMembers(i, proguardWriter);
+        }
+    }
+
+    public void writeProguard(Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writeProguard(writer);
+        }
+    }
+
+    /**
+     * @return The Proguard mappings encoded as UTF-8, only use this when they fit in a single array.
+     */
+    public byte[] proguard() {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(classCount * 1024);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8))) {
+            writeProguard(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return stream.toByteArray();
+    }
+
+    /**
+     * Builds the {@link Mappings} directly, without going through the Proguard text.
+     * <p>
+     * Every {@link ClassData} also gets its supertypes as dependent classes, which is what {@link McMap.Version#V3} stores.
+     */
+    public Mappings mappings() {
+        Mappings mappings = new Mappings();
+
+        for (int i = 0; i < classCount; i++) {
+            ClassData classData = mappings.addClass(obfuscatedNames[i], mappedNames[i]);
+
+            if (superTypes[i] != null) {
+                for (int superType : superTypes[i]) {
+                    classData.addDependentClass(obfuscatedNames[superType]);
+                }
+            }
+
+            generateMembers(i, new ClassDataWriter(classData));
+        }
+
+        return mappings;
+    }
+
+    /**
+     * Creates an {@link McMap} file from {@link #mappings()}.
+     */
+    public McMap writeMcMap(File file, McMap.Version version) {
+        return McMap.create(mappings(), file, version);
+    }
+
+    private void generateClasses() {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        String[] packages = generatePackages(random, Math.max(8, (int) Math.sqrt(classCount)));
+        Set<String> usedNames = new HashSet<>(classCount * 2);
+        int[] depth = new int[classCount];
+        int[] innerCounts = new int[classCount];
+        int topLevelCount = 0;
+
+        for (int i = 0; i < classCount; i++) {
+            huge[i] = i == 0 || random.nextDouble() < HUGE_CLASS_CHANCE;
+
+            String simpleName = words(random, 1 + random.nextInt(3), true);
+            if (i > 0 && random.nextDouble() < INNER_CLASS_CHANCE) {
+                int outer = random.nextInt(i);
+                mappedNames[i] = mappedNames[outer] + "$" + simpleName;
+                obfuscatedNames[i] = obfuscatedNames[outer] + "$" + base26(innerCounts[outer]++);
+            } else {
+                mappedNames[i] = packages[(int) (packages.length * Math.pow(random.nextDouble(), 2))] + "/" + simpleName;
+                obfuscatedNames[i] = base26(topLevelCount++);
+            }
+
+            if (!usedNames.add(mappedNames[i])) {
+                mappedNames[i] = mappedNames[i] + i;
+                usedNames.add(mappedNames[i]);
+            }
+
+            if (i == 0) {
+                continue;
+            }
+
+            int superClass = -1;
+            if (random.nextDouble() < SUPER_CLASS_CHANCE) {
+                int candidate = random.nextInt(i);
+                if (depth[candidate] < MAX_INHERITANCE_DEPTH) {
+                    superClass = candidate;
+                    depth[i] = depth[candidate] + 1;
+                }
+            }
+
+            int interfaces = random.nextDouble() < INTERFACE_CHANCE ? 1 + random.nextInt(2) : 0;
+            if (superClass == -1 && interfaces == 0) {
+                continue;
+            }
+
+            int[] types = new int[(superClass == -1 ? 0 : 1) + interfaces];
+            int count = 0;
+            if (superClass != -1) {
+                types[count++] = superClass;
+            }
+            for (int j = 0; j < interfaces; j++) {
+                int candidate = random.nextInt(i);
+                if (!contains(types, count, candidate)) {
+                    types[count++] = candidate;
+                }
+            }
+
+            superTypes[i] = count == types.length ? types : Arrays.copyOf(types, count);
+        }
+    }
+
+    private static String[] generatePackages(SplittableRandom random, int count) {
+        String[] packages = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder builder = new StringBuilder("net/minecraft");
+            int depth = 1 + random.nextInt(3);
+            for (int j = 0; j < depth; j++) {
+                builder.append('/').append(WORDS[random.nextInt(WORDS.length)].toLowerCase());
+            }
+            packages[i] = builder.toString();
+        }
+        return packages;
+    }
+
+    /**
+     * Members are generated from a random seeded by the class index, so any class can be generated on its own and in any order.
+     */
+    private void generateMembers(int classIndex, MemberVisitor visitor) {
+        SplittableRandom random = new SplittableRandom(seed ^ (classIndex + 1) * 0x9E3779B97F4A7C15L);
+
+        int fieldCount = huge[classIndex] ? 300 + random.nextInt(1200) : logNormal(random, 1.2, 1.0, 300);
+        int methodCount = huge[classIndex] ? 300 + random.nextInt(2200) : logNormal(random, 2.0, 0.9, 600);
+
+        try {
+            for (int i = 0; i < fieldCount; i++) {
+                Type type = type(random);
+                visitor.field(type, words(random, 1 + random.nextInt(3), false), base26(i));
+            }
+
+            int line = 1 + random.nextInt(50);
+            for (int i = 0; i < methodCount; i++) {
+                Type returnType = random.nextDouble() < VOID_CHANCE ? VOID : type(random);
+
+                Type[] arguments = new Type[geometric(random, 0.45, 8)];
+                for (int j = 0; j < arguments.length; j++) {
+                    arguments[j] = type(random);
+                }
+
+                String name = VERBS[random.nextInt(VERBS.length)] + words(random, random.nextInt(3), true);
+
+                int firstLine = -1;
+                int lastLine = -1;
+                if (random.nextDouble() >= ABSTRACT_METHOD_CHANCE) {
+                    firstLine = line;
+                    lastLine = line + random.nextInt(40);
+                    line = lastLine + 2;
+                }
+
+                // Proguard overloads obfuscated names, the descriptor keeps the keys unique.
+                visitor.method(firstLine, lastLine, returnType, name, arguments, base26(i / 2));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Type type(SplittableRandom random) {
+        Type type;
+        if (random.nextDouble() < CLASS_TYPE_CHANCE) {
+            // Cubing skews the references towards the first classes, so a few classes are used everywhere.
+            type = classType((int) (classCount * Math.pow(random.nextDouble(), 3)));
+        } else {
+            type = builtinType(random);
+        }
+
+        if (random.nextDouble() < ARRAY_CHANCE) {
+            return new Type(type.javaName + "[]", "[" + type.descriptor);
+        }
+        return type;
+    }
+
+    private static Type builtinType(SplittableRandom random) {
+        return BUILTIN_TYPES[(int) (BUILTIN_TYPES.length * Math.pow(random.nextDouble(), 2))];
+    }
+
+    private Type classType(int index) {
+        Type type = classTypes[index];
+        if (type == null) {
+            type = new Type(mappedNames[index].replace('/', '.'), "L" + mappedNames[index] + ";");
+            classTypes[index] = type;
+        }
+        return type;
+    }
+
+    private static String words(SplittableRandom random, int count, boolean capitalizeFirst) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (i == 0 && !capitalizeFirst) {
+                word = word.toLowerCase();
+            }
+            builder.append(word);
+        }
+        return builder.toString();
+    }
+
+    private static int logNormal(SplittableRandom random, double mu, double sigma, int max) {
+        return (int) Math.min(max, Math.exp(mu + sigma * random.nextGaussian()));
+    }
+
+    private static int geometric(SplittableRandom random, double continueChance, int max) {
+        int count = 0;
+        while (count < max && random.nextDouble() < continueChance) {
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean contains(int[] array, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (array[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String sourceFileName(String mappedName) {
+        int start = mappedName.lastIndexOf('/') + 1;
+        int inner = mappedName.indexOf('$', start);
+        return mappedName.substring(start, inner == -1 ? mappedName.length() : inner) + ".java";
+    }
+
+    /**
+     * Sequential names like Proguard gives them: {@code a, b, ..., z, aa, ab, ...}.
+     */
+    static String base26(int index) {
+        StringBuilder builder = new StringBuilder();
+        int value = index;
+        do {
+            builder.append((char) ('a' + value % 26));
+            value = value / 26 - 1;
+        } while (value >= 0);
+        return builder.reverse().toString();
+    }
+
+    private record Type(String javaName, String descriptor) {}
+
+    private interface MemberVisitor {
+
+        void field(Type type, String name, String obfuscatedName) throws IOException;
+
+        /**
+         * @param firstLine The first source line, or {@code -1} for an abstract method which has no line numbers.
+         */
+        void method(int firstLine, int lastLine, Type returnType, String name, Type[] arguments, String obfuscatedName) throws IOException;
+    }
+
+    private record ProguardWriter(Writer writer) implements MemberVisitor {
+
+        @Override
+        public void field(Type type, String name, String obfuscatedName) throws IOException {
+            writer.write("    ");
+            writer.write(type.javaName);
+            writer.write(' ');
+            writer.write(name);
+            writer.write(" -> ");
+            writer.write(obfuscatedName);
+            writer.write('\n');
+        }
+
+        @Override
+        public void method(int firstLine, int lastLine, Type returnType, String name, Type[] arguments, String obfuscatedName) throws IOException {
+            writer.write("    ");
+            if (firstLine != -1) {
+                writer.write(Integer.toString(firstLine));
+                writer.write(':');
+                writer.write(Integer.toString(lastLine));
+                writer.write(':');
+            }
+            writer.write(returnType.javaName);
+            writer.write(' ');
+            writer.write(name);
+            writer.write('(');
+            for (int i = 0; i < arguments.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(arguments[i].javaName);
+            }
+            writer.write(") -> ");
+            writer.write(obfuscatedName);
+            writer.write('\n');
+        }
+    }
+
+    private record ClassDataWriter(ClassData classData) implements MemberVisitor {
+
+        @Override
+        public void field(Type type, String name, String obfuscatedName) {
+            classData.addField(obfuscatedName, name, type.descriptor);
+        }
+
+        @Override
+        public void method(int firstLine, int lastLine, Type returnType, String name, Type[] arguments, String obfuscatedName) {
+            StringBuilder descriptor = new StringBuilder("(");
+            for (Type argument : arguments) {
+                descriptor.append(argument.descriptor);
+            }
+            descriptor.append(')').append(returnType.descriptor);
+
+            classData.addMethod(obfuscatedName, name, descriptor.toString());
+        }
+    }
+}